@@ -0,0 +1,94 @@
+-- Compares random (version 4) and time ordered (version 7) uuids as primary keys: insert rate,
+-- WAL written, primary key index size and buffer hits on it, for the same number of rows.
+--
+-- Run against an empty scratch database of the same Postgres version as the service uses, e.g.
+--   docker-compose run --rm db psql -h db -U postgres -v rows=10000000 \
+--     -f /path/to/uuid-primary-keys.sql
+-- The rows variable defaults to 10 million.
+
+\set ON_ERROR_STOP on
+\if :{?rows}
+\else
+  \set rows 10000000
+\endif
+\timing on
+
+DROP TABLE IF EXISTS uuid_benchmark_random;
+DROP TABLE IF EXISTS uuid_benchmark_time_ordered;
+DROP TABLE IF EXISTS uuid_benchmark_marks;
+CREATE UNLOGGED TABLE uuid_benchmark_marks (name text PRIMARY KEY, lsn pg_lsn, at timestamptz);
+
+-- same layout as point_of_delivery_event_discrepencies, the narrowest table keyed by uuid
+CREATE TABLE uuid_benchmark_random (
+  id uuid PRIMARY KEY,
+  rejectionreasonid uuid,
+  shipmenttype varchar(255),
+  quantityaffected integer,
+  comments varchar(255)
+);
+CREATE TABLE uuid_benchmark_time_ordered (LIKE uuid_benchmark_random INCLUDING ALL);
+
+-- version 4: 122 random bits
+CREATE OR REPLACE FUNCTION pg_temp.uuid_v4() RETURNS uuid AS $$
+  SELECT encode(set_bit(set_bit(set_bit(set_bit(set_bit(set_bit(
+    decode(md5(random()::text || clock_timestamp()::text), 'hex'),
+    52, 0), 53, 0), 54, 1), 55, 0), 70, 0), 71, 1), 'hex')::uuid
+$$ LANGUAGE sql VOLATILE;
+
+-- version 7, laid out bit for bit as TimeOrderedUuidGenerationStrategy does: unix time in
+-- milliseconds, the version, a 12 bit counter within the millisecond, the variant and 62
+-- random bits. The i-th row is generated as if the service created 1000 ids a millisecond.
+-- The strategy cannot be called from psql, and generating the ids in Java and sending them
+-- over JDBC would measure the round trips rather than the index
+CREATE OR REPLACE FUNCTION pg_temp.uuid_v7(i bigint) RETURNS uuid AS $$
+  SELECT encode(
+    int8send((((extract(epoch FROM timestamp '2024-01-01') * 1000)::bigint + i / 1000) << 16)
+      | (7 << 12) | (i % 1000))
+    || set_bit(set_bit(substring(decode(md5(random()::text || i::text), 'hex') FROM 1 FOR 8),
+      6, 0), 7, 1),
+    'hex')::uuid
+$$ LANGUAGE sql VOLATILE;
+
+CHECKPOINT;
+INSERT INTO uuid_benchmark_marks
+  VALUES ('random_start', pg_current_wal_lsn(), clock_timestamp());
+INSERT INTO uuid_benchmark_random
+  SELECT pg_temp.uuid_v4(), pg_temp.uuid_v4(), 'shipment', 1, NULL
+  FROM generate_series(1, :rows);
+INSERT INTO uuid_benchmark_marks
+  VALUES ('random_end', pg_current_wal_lsn(), clock_timestamp());
+
+CHECKPOINT;
+INSERT INTO uuid_benchmark_marks
+  VALUES ('time_ordered_start', pg_current_wal_lsn(), clock_timestamp());
+INSERT INTO uuid_benchmark_time_ordered
+  SELECT pg_temp.uuid_v7(i), pg_temp.uuid_v4(), 'shipment', 1, NULL
+  FROM generate_series(1, :rows) AS i;
+INSERT INTO uuid_benchmark_marks
+  VALUES ('time_ordered_end', pg_current_wal_lsn(), clock_timestamp());
+
+\timing off
+
+-- statistics reach the collector shortly after each transaction
+SELECT pg_sleep(1);
+SELECT pg_stat_clear_snapshot();
+
+-- buffer hits and reads of the primary key while the rows were inserted; with random ids
+-- the reads grow once the index no longer fits in shared_buffers
+SELECT ids,
+    pg_size_pretty(pg_relation_size(pkey)) AS primary_key_size,
+    pg_size_pretty(pg_wal_lsn_diff(finish.lsn, start.lsn)) AS wal_written,
+    round(:rows / extract(epoch FROM finish.at - start.at)) AS rows_per_second,
+    statio.idx_blks_hit AS primary_key_buffer_hits,
+    statio.idx_blks_read AS primary_key_buffer_reads
+FROM (VALUES
+    ('random', 'random', 'uuid_benchmark_random_pkey'::regclass),
+    ('time ordered', 'time_ordered', 'uuid_benchmark_time_ordered_pkey'::regclass)
+  ) AS run (ids, mark, pkey)
+  JOIN uuid_benchmark_marks start ON start.name = run.mark || '_start'
+  JOIN uuid_benchmark_marks finish ON finish.name = run.mark || '_end'
+  JOIN pg_statio_user_indexes statio ON statio.indexrelid = run.pkey;
+
+DROP TABLE IF EXISTS uuid_benchmark_random;
+DROP TABLE IF EXISTS uuid_benchmark_time_ordered;
+DROP TABLE IF EXISTS uuid_benchmark_marks;
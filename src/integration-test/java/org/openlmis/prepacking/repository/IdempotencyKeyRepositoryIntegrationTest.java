@@ -0,0 +1,83 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.time.ZonedDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import javax.transaction.Transactional;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.openlmis.pointofdelivery.domain.idempotency.IdempotencyKey;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Transactional
+public class IdempotencyKeyRepositoryIntegrationTest {
+
+  private static final String OWNER = "user/" + UUID.randomUUID();
+  private static final String KEY = "retried-request";
+
+  @Autowired
+  private IdempotencyKeyRepository repository;
+
+  private ZonedDateTime now = ZonedDateTime.now();
+  private UUID eventId = UUID.randomUUID();
+
+  @Test
+  public void shouldNotClaimKeyInUse() {
+    assertEquals(1, repository.claim(OWNER, KEY, now, now.minusHours(24)));
+    repository.assignEvent(OWNER, KEY, eventId);
+
+    assertEquals(0, repository.claim(OWNER, KEY, now, now.minusHours(24)));
+    assertEquals(Optional.of(eventId), repository.findWithEvent(OWNER, KEY, now.minusHours(24))
+        .map(IdempotencyKey::getEventId));
+  }
+
+  @Test
+  public void shouldTakeOverExpiredKey() {
+    ZonedDateTime later = now.plusHours(25);
+    repository.claim(OWNER, KEY, now, now.minusHours(24));
+    repository.assignEvent(OWNER, KEY, eventId);
+
+    assertFalse(repository.findWithEvent(OWNER, KEY, later.minusHours(24)).isPresent());
+    assertEquals(1, repository.claim(OWNER, KEY, later, later.minusHours(24)));
+    assertFalse(repository.findWithEvent(OWNER, KEY, later.minusHours(24)).isPresent());
+  }
+
+  @Test
+  public void shouldNotFindEventOfKeyStillBeingProcessed() {
+    repository.claim(OWNER, KEY, now, now.minusHours(24));
+
+    assertFalse(repository.findWithEvent(OWNER, KEY, now.minusHours(24)).isPresent());
+  }
+
+  @Test
+  public void shouldKeepKeysOfDifferentOwnersApart() {
+    repository.claim(OWNER, KEY, now, now.minusHours(24));
+    repository.assignEvent(OWNER, KEY, eventId);
+
+    String otherOwner = "client/delivery-app";
+    assertEquals(1, repository.claim(otherOwner, KEY, now, now.minusHours(24)));
+    assertFalse(repository.findWithEvent(otherOwner, KEY, now.minusHours(24)).isPresent());
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.repository;
+
+import static org.junit.Assert.assertFalse;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.List;
+import java.util.Map;
+import javax.transaction.Transactional;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Checks that every search criterion is answered from an index on a table of realistic size.
+ * The statements are the ones generated from {@link PointOfDeliveryEventSpecifications} for a
+ * page sorted by receiving date.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Transactional
+public class PointOfDeliveryEventSearchPlanIntegrationTest {
+
+  private static final int EVENTS = 5_000_000;
+
+  // every event with an id divisible by this has a discrepancy
+  private static final int DISCREPANCY_EVERY = 100;
+
+  private static final String SELECT = "SELECT e.* FROM pointofdelivery.point_of_delivery_event e"
+      + " WHERE ";
+  private static final String PAGE = " ORDER BY e.receivingdate DESC, e.id DESC LIMIT 21";
+  private static final String DISCREPANCIES = "SELECT 1"
+      + " FROM pointofdelivery.point_of_delivery_event_discrepencies d"
+      + " WHERE d.pointofdeliveryeventid = e.id";
+
+  private static final Map<String, String> CRITERIA = ImmutableMap.<String, String>builder()
+      .put("destinationId", "e.destinationid = md5('destination-7')::uuid")
+      .put("sourceId", "e.sourceid = md5('source-7')::uuid")
+      .put("referenceNumber", "lower(e.referencenumber) LIKE '%b-00421%'")
+      .put("remarks", "lower(e.remarks) LIKE '%damaged 42137%'")
+      .put("receivingDate", "e.receivingdate >= timestamp '2020-03-01'"
+          + " AND e.receivingdate <= timestamp '2020-03-02'")
+      .put("packingDate", "e.packingdate >= timestamp '2020-03-01'"
+          + " AND e.packingdate <= timestamp '2020-03-01'")
+      .put("hasDiscrepancies=true", "EXISTS (" + DISCREPANCIES + ")")
+      .put("hasDiscrepancies=false", "NOT EXISTS (" + DISCREPANCIES + ")")
+      .build();
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Test
+  public void shouldNotScanWholeTableForAnySearchCriterion() {
+    insertEvents();
+
+    CRITERIA.forEach((criterion, where) -> {
+      List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + SELECT + where + PAGE,
+          String.class);
+      assertFalse(criterion + " is not indexed:\n" + String.join("\n", plan),
+          plan.stream().anyMatch(line -> line.contains("Seq Scan")));
+    });
+  }
+
+  private void insertEvents() {
+    // a thousand destinations and sources, a minute between events, a day between packings
+    jdbcTemplate.update("INSERT INTO pointofdelivery.point_of_delivery_event"
+        + " (id, destinationid, sourceid, referencenumber, remarks, receivingdate, packingdate,"
+        + " lastmodified, version)"
+        + " SELECT md5('event-' || i)::uuid, md5('destination-' || i % 1000)::uuid,"
+        + " md5('source-' || i % 1000)::uuid, 'WB-' || lpad(i::text, 8, '0'),"
+        + " 'damaged ' || i, timestamp '2015-01-01' + i * interval '1 minute',"
+        + " timestamp '2015-01-01' + (i / 1440) * interval '1 day', now(), 0"
+        + " FROM generate_series(1, ?) i", EVENTS);
+    jdbcTemplate.update("INSERT INTO pointofdelivery.point_of_delivery_event_discrepencies"
+        + " (id, pointofdeliveryeventid, shipmenttype, quantityaffected)"
+        + " SELECT md5('discrepancy-' || i)::uuid, md5('event-' || i)::uuid, 'cartons', 1"
+        + " FROM generate_series(?, ?, ?) i", DISCREPANCY_EVERY, EVENTS, DISCREPANCY_EVERY);
+    jdbcTemplate.execute("ANALYZE pointofdelivery.point_of_delivery_event");
+    jdbcTemplate.execute("ANALYZE pointofdelivery.point_of_delivery_event_discrepencies");
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+
+package org.openlmis.pointofdelivery.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.UUID;
+import javax.transaction.Transactional;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.openlmis.pointofdelivery.domain.event.PointOfDeliveryEventTombstone;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Transactional
+public class PointOfDeliveryEventTombstoneRepositoryIntegrationTest {
+
+  @Autowired
+  private PointOfDeliveryEventTombstoneRepository repository;
+
+  private ZonedDateTime now = ZonedDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+  private UUID destinationId = UUID.randomUUID();
+
+  @Test
+  public void shouldMoveHorizonToLatestExpiredTombstoneOfDestination() {
+    save(destinationId, now.minusDays(100));
+    save(destinationId, now.minusDays(95));
+    save(destinationId, now.minusDays(10));
+
+    assertEquals(1, repository.deleteExpired(now.minusDays(90)));
+
+    assertEquals(1, repository.count());
+    assertEquals(Optional.of(now.minusDays(95).toInstant()),
+        repository.findLastExpiredDate(destinationId).map(ZonedDateTime::toInstant));
+  }
+
+  @Test
+  public void shouldNeverMoveHorizonBack() {
+    save(destinationId, now.minusDays(95));
+    repository.deleteExpired(now.minusDays(90));
+    save(destinationId, now.minusDays(100));
+
+    repository.deleteExpired(now.minusDays(90));
+
+    assertEquals(Optional.of(now.minusDays(95).toInstant()),
+        repository.findLastExpiredDate(destinationId).map(ZonedDateTime::toInstant));
+  }
+
+  @Test
+  public void shouldNotSetHorizonOfDestinationWithoutExpiredTombstones() {
+    save(destinationId, now.minusDays(10));
+
+    assertEquals(0, repository.deleteExpired(now.minusDays(90)));
+
+    assertFalse(repository.findLastExpiredDate(destinationId).isPresent());
+  }
+
+  private void save(UUID destinationId, ZonedDateTime deletedDate) {
+    repository.save(new PointOfDeliveryEventTombstone(UUID.randomUUID(), destinationId,
+        deletedDate));
+  }
+}
@@ -0,0 +1,283 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import javax.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Test;
+import org.openlmis.pointofdelivery.domain.event.PointOfDeliveryEvent;
+import org.openlmis.pointofdelivery.domain.qualitychecks.Discrepancy;
+import org.openlmis.pointofdelivery.dto.PointOfDeliveryEventSearchParams;
+import org.openlmis.pointofdelivery.util.KeysetCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class PointOfDeliveryEventsRepositoryIntegrationTest
+    extends BaseCrudRepositoryIntegrationTest<PointOfDeliveryEvent> {
+
+  @Autowired
+  private PointOfDeliveryEventsRepository repository;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @Override
+  CrudRepository<PointOfDeliveryEvent, UUID> getRepository() {
+    return repository;
+  }
+
+  @Override
+  PointOfDeliveryEvent generateInstance() {
+    PointOfDeliveryEvent event = new PointOfDeliveryEvent();
+    event.setDestinationId(UUID.randomUUID());
+    event.setReceivingDate(ZonedDateTime.now());
+    event.setPackingDate(LocalDate.now());
+    event.setReferenceNumber("ref-" + getNextInstanceNumber());
+    event.setDiscrepancies(Arrays.asList(
+        new Discrepancy(UUID.randomUUID(), "cartons", 1, null),
+        new Discrepancy(UUID.randomUUID(), "cartons", 2, null),
+        new Discrepancy(UUID.randomUUID(), "containers", 3, "damaged")));
+    return event;
+  }
+
+  @Test
+  public void shouldInsertEventAndItsDiscrepanciesWithOneStatementEach() {
+    PointOfDeliveryEvent event = generateInstance();
+    Statistics statistics = entityManager.getEntityManagerFactory()
+        .unwrap(SessionFactory.class)
+        .getStatistics();
+    statistics.clear();
+
+    repository.save(event);
+    entityManager.flush();
+
+    // one insert for the event, one batched insert for all discrepancies
+    assertEquals(2, statistics.getPrepareStatementCount());
+    assertEquals(4, statistics.getEntityInsertCount());
+    assertEquals(0, statistics.getEntityUpdateCount());
+    assertEquals(0, statistics.getCollectionUpdateCount());
+  }
+
+  @Test
+  public void shouldDeleteEventAndItsDiscrepanciesWithOneStatement() {
+    PointOfDeliveryEvent event = repository.save(generateInstance());
+    entityManager.flush();
+    entityManager.clear();
+    Statistics statistics = entityManager.getEntityManagerFactory()
+        .unwrap(SessionFactory.class)
+        .getStatistics();
+    statistics.clear();
+
+    List<UUID> deleted = repository.deleteLeavingTombstone(
+        event.getId(), event.getVersion(), UUID.randomUUID(), ZonedDateTime.now());
+
+    assertEquals(Collections.singletonList(event.getDestinationId()), deleted);
+    assertEquals(1, statistics.getPrepareStatementCount());
+    assertEquals(0L, entityManager
+        .createQuery("SELECT count(d) FROM Discrepancy d"
+            + " WHERE d.pointOfDeliveryEvent.id = :id", Long.class)
+        .setParameter("id", event.getId())
+        .getSingleResult()
+        .longValue());
+  }
+
+  @Test
+  public void shouldNotDeleteEventChangedSinceGivenVersion() {
+    PointOfDeliveryEvent event = repository.save(generateInstance());
+    entityManager.flush();
+    long version = event.getVersion();
+    event.setRemarks("changed");
+    entityManager.flush();
+    entityManager.clear();
+
+    List<UUID> deleted = repository.deleteLeavingTombstone(
+        event.getId(), version, UUID.randomUUID(), ZonedDateTime.now());
+
+    assertTrue(deleted.isEmpty());
+    assertTrue(repository.existsById(event.getId()));
+  }
+
+  @Test
+  public void shouldReturnDestinationsEventIsMovedBetween() {
+    PointOfDeliveryEvent event = repository.save(generateInstance());
+    entityManager.flush();
+    entityManager.clear();
+    UUID destinationId = UUID.randomUUID();
+
+    List<UUID> moved = repository.updateAttributes(event.getId(), event.getVersion(),
+        ImmutableMap.of("destinationId", destinationId, "remarks", "moved"),
+        ZonedDateTime.now());
+    List<UUID> stale = repository.updateAttributes(event.getId(), event.getVersion(),
+        ImmutableMap.of("remarks", "stale"), ZonedDateTime.now());
+
+    assertEquals(Arrays.asList(event.getDestinationId(), destinationId), moved);
+    assertTrue(stale.isEmpty());
+    PointOfDeliveryEvent updated = repository.findById(event.getId()).get();
+    assertEquals(destinationId, updated.getDestinationId());
+    assertEquals("moved", updated.getRemarks());
+    assertEquals(Long.valueOf(event.getVersion() + 1), updated.getVersion());
+  }
+
+  @Test
+  public void shouldLoadPageOfEventsWithDiscrepanciesInConstantNumberOfQueries() {
+    for (int count : new int[] {1, 100, 1000}) {
+      UUID destinationId = UUID.randomUUID();
+      for (int i = 0; i < count; i++) {
+        PointOfDeliveryEvent event = generateInstance();
+        event.setDestinationId(destinationId);
+        repository.save(event);
+      }
+      entityManager.flush();
+      entityManager.clear();
+      Statistics statistics = entityManager.getEntityManagerFactory()
+          .unwrap(SessionFactory.class)
+          .getStatistics();
+      statistics.clear();
+
+      List<UUID> ids = repository
+          .findByDestinationId(destinationId, PageRequest.of(0, count, Sort.by("receivingDate")))
+          .map(PointOfDeliveryEvent::getId)
+          .getContent();
+      List<PointOfDeliveryEvent> events = repository.findDistinctByIdIn(ids);
+      int discrepancies = events.stream()
+          .mapToInt(event -> event.getDiscrepancies().size())
+          .sum();
+
+      // one query for the page, one for its events together with their discrepancies
+      assertEquals(count, events.size());
+      assertEquals(3 * count, discrepancies);
+      assertEquals(2, statistics.getPrepareStatementCount());
+    }
+  }
+
+  @Test
+  public void shouldMoveLastChangeOfDestinationOnEveryChange() {
+    UUID destinationId = UUID.randomUUID();
+    assertNull(repository.findLastChangeByDestinationId(destinationId));
+
+    PointOfDeliveryEvent event = generateInstance();
+    event.setDestinationId(destinationId);
+    repository.save(event);
+    entityManager.flush();
+    ZonedDateTime created = repository.findLastChangeByDestinationId(destinationId);
+
+    event.setRemarks("changed");
+    entityManager.flush();
+    ZonedDateTime updated = repository.findLastChangeByDestinationId(destinationId);
+
+    repository.deleteLeavingTombstone(event.getId(), event.getVersion(), UUID.randomUUID(),
+        ZonedDateTime.now());
+    entityManager.clear();
+    ZonedDateTime deleted = repository.findLastChangeByDestinationId(destinationId);
+
+    assertTrue(updated.isAfter(created));
+    assertTrue(deleted.isAfter(updated));
+  }
+
+  @Test
+  public void shouldFindSliceOfEventsMatchingAllGivenCriteria() {
+    UUID destinationId = UUID.randomUUID();
+    PointOfDeliveryEvent matching = generateInstance();
+    matching.setDestinationId(destinationId);
+    matching.setReferenceNumber("WB-2026_0042");
+    PointOfDeliveryEvent withoutDiscrepancies = generateInstance();
+    withoutDiscrepancies.setDestinationId(destinationId);
+    withoutDiscrepancies.setReferenceNumber("wb-2026_0043");
+    withoutDiscrepancies.setDiscrepancies(null);
+    PointOfDeliveryEvent otherReference = generateInstance();
+    otherReference.setDestinationId(destinationId);
+    PointOfDeliveryEvent otherDestination = generateInstance();
+    otherDestination.setReferenceNumber("WB-2026_0044");
+    repository.saveAll(Arrays.asList(
+        matching, withoutDiscrepancies, otherReference, otherDestination));
+    entityManager.flush();
+
+    PointOfDeliveryEventSearchParams params = new PointOfDeliveryEventSearchParams();
+    params.setDestinationId(destinationId);
+    params.setReferenceNumber("wb-2026_");
+    params.setPackingDateFrom(LocalDate.now().minusDays(1));
+    params.setHasDiscrepancies(true);
+
+    Slice<PointOfDeliveryEvent> slice = repository.findSlice(
+        PointOfDeliveryEventSpecifications.matching(params),
+        PageRequest.of(0, 1, Sort.by("receivingDate", "id")));
+
+    assertEquals(1, slice.getNumberOfElements());
+    assertEquals(matching.getId(), slice.getContent().get(0).getId());
+    assertFalse(slice.hasNext());
+  }
+
+  @Test
+  public void shouldFindEventsOfSeveralDestinationsPageByPage() {
+    UUID firstDestination = UUID.randomUUID();
+    UUID secondDestination = UUID.randomUUID();
+    ZonedDateTime now = ZonedDateTime.now();
+    PointOfDeliveryEvent oldest = generateInstance();
+    oldest.setDestinationId(firstDestination);
+    oldest.setReceivingDate(now.minusDays(2));
+    PointOfDeliveryEvent middle = generateInstance();
+    middle.setDestinationId(secondDestination);
+    middle.setReceivingDate(now.minusDays(1));
+    PointOfDeliveryEvent newest = generateInstance();
+    newest.setDestinationId(firstDestination);
+    newest.setReceivingDate(now);
+    PointOfDeliveryEvent otherDestination = generateInstance();
+    otherDestination.setReceivingDate(now.minusHours(1));
+    repository.saveAll(Arrays.asList(oldest, middle, newest, otherDestination));
+    entityManager.flush();
+    // read receiving dates back at the precision of the database, as clients get them
+    entityManager.clear();
+
+    List<UUID> destinationIds = Arrays.asList(firstDestination, secondDestination);
+    PageRequest firstPage = PageRequest.of(0, 2,
+        Sort.by(Sort.Direction.DESC, "receivingDate", "id"));
+    Slice<PointOfDeliveryEvent> slice = repository.findSlice(
+        PointOfDeliveryEventSpecifications.listedAfter(destinationIds, Sort.Direction.DESC, null),
+        firstPage);
+
+    assertEquals(Arrays.asList(newest.getId(), middle.getId()),
+        Arrays.asList(slice.getContent().get(0).getId(), slice.getContent().get(1).getId()));
+    assertTrue(slice.hasNext());
+
+    PointOfDeliveryEvent last = slice.getContent().get(1);
+    slice = repository.findSlice(
+        PointOfDeliveryEventSpecifications.listedAfter(destinationIds, Sort.Direction.DESC,
+            new KeysetCursor(last.getReceivingDate(), last.getId())),
+        firstPage);
+
+    assertEquals(1, slice.getNumberOfElements());
+    assertEquals(oldest.getId(), slice.getContent().get(0).getId());
+    assertFalse(slice.hasNext());
+  }
+}
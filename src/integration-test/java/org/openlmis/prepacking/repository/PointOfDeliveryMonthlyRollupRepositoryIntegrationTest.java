@@ -0,0 +1,158 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.repository;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.openlmis.pointofdelivery.domain.event.PointOfDeliveryEvent;
+import org.openlmis.pointofdelivery.domain.event.PointOfDeliveryMonthlyRollup;
+import org.openlmis.pointofdelivery.domain.qualitychecks.Discrepancy;
+import org.openlmis.pointofdelivery.domain.qualitychecks.DiscrepancyMonthlyRollup;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Transactional
+public class PointOfDeliveryMonthlyRollupRepositoryIntegrationTest {
+
+  private static final LocalDate MARCH = LocalDate.of(2026, 3, 1);
+  private static final LocalDate APRIL = LocalDate.of(2026, 4, 1);
+
+  @Autowired
+  private PointOfDeliveryMonthlyRollupRepository rollupRepository;
+
+  @Autowired
+  private DiscrepancyMonthlyRollupRepository discrepancyRollupRepository;
+
+  @Autowired
+  private PointOfDeliveryEventsRepository eventsRepository;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  private UUID destinationId = UUID.randomUUID();
+  private UUID sourceId = UUID.randomUUID();
+
+  @Test
+  public void shouldAddAndTakeOutEventsOfMonth() {
+    PointOfDeliveryEvent first = save(MARCH.plusDays(3), 10, 2);
+    PointOfDeliveryEvent second = save(MARCH.plusDays(20), 5, 0);
+    rollupRepository.addEvents(Arrays.asList(first.getId(), second.getId()), 1);
+
+    PointOfDeliveryMonthlyRollup rollup = findMarch();
+    assertEquals(2, rollup.getEventCount());
+    assertEquals(15, rollup.getCartonsQuantityAccepted());
+    assertEquals(2, rollup.getDiscrepancyCount());
+
+    rollupRepository.addEvents(Collections.singleton(first.getId()), -1);
+    entityManager.clear();
+
+    rollup = findMarch();
+    assertEquals(1, rollup.getEventCount());
+    assertEquals(5, rollup.getCartonsQuantityAccepted());
+    assertEquals(0, rollup.getDiscrepancyCount());
+  }
+
+  @Test
+  public void shouldRebuildSameTotalsAsAddedIncrementally() {
+    PointOfDeliveryEvent first = save(MARCH.plusDays(3), 10, 2);
+    PointOfDeliveryEvent second = save(APRIL.plusDays(1), 5, 1);
+    rollupRepository.addEvents(Arrays.asList(first.getId(), second.getId()), 1);
+    List<PointOfDeliveryMonthlyRollup> incremental =
+        rollupRepository.findByDestinationId(destinationId, MARCH, APRIL);
+    entityManager.clear();
+
+    rollupRepository.lock();
+    rollupRepository.deleteAllRollups();
+    rollupRepository.insertAllRollups();
+
+    assertEquals(incremental,
+        rollupRepository.findByDestinationId(destinationId, MARCH, APRIL));
+  }
+
+  @Test
+  public void shouldTotalDiscrepanciesPerReasonAndShipmentType() {
+    UUID damaged = UUID.randomUUID();
+    PointOfDeliveryEvent first = save(MARCH.plusDays(3), 10, 0);
+    first.setDiscrepancies(new ArrayList<>(Arrays.asList(
+        new Discrepancy(damaged, "cartons", 3, null),
+        new Discrepancy(damaged, "cartons", 4, null),
+        new Discrepancy(null, null, 1, null))));
+    first = eventsRepository.save(first);
+    PointOfDeliveryEvent second = save(MARCH.plusDays(5), 10, 0);
+    second.setDiscrepancies(new ArrayList<>(Collections.singletonList(
+        new Discrepancy(damaged, "containers", 2, null))));
+    second = eventsRepository.save(second);
+    discrepancyRollupRepository.addEvents(Arrays.asList(first.getId(), second.getId()), 1);
+    discrepancyRollupRepository.addEvents(Collections.singleton(second.getId()), -1);
+    entityManager.clear();
+
+    List<DiscrepancyMonthlyRollup> rollups =
+        discrepancyRollupRepository.findByDestinationId(destinationId, MARCH, MARCH);
+
+    assertEquals(Arrays.asList(
+        new DiscrepancyMonthlyRollup(destinationId, damaged, "cartons", MARCH, 2, 7),
+        new DiscrepancyMonthlyRollup(destinationId, PointOfDeliveryMonthlyRollup.NONE, "",
+            MARCH, 1, 1)),
+        rollups);
+
+    discrepancyRollupRepository.lock();
+    discrepancyRollupRepository.deleteAllRollups();
+    discrepancyRollupRepository.insertAllRollups();
+    entityManager.clear();
+
+    assertEquals(rollups,
+        discrepancyRollupRepository.findByDestinationId(destinationId, MARCH, MARCH));
+  }
+
+  private PointOfDeliveryMonthlyRollup findMarch() {
+    List<PointOfDeliveryMonthlyRollup> rollups =
+        rollupRepository.findByDestinationId(destinationId, MARCH, MARCH);
+    assertEquals(1, rollups.size());
+    return rollups.get(0);
+  }
+
+  private PointOfDeliveryEvent save(LocalDate receivingDate, int cartonsAccepted,
+      int discrepancies) {
+    PointOfDeliveryEvent event = new PointOfDeliveryEvent();
+    event.setDestinationId(destinationId);
+    event.setSourceId(sourceId);
+    event.setReceivingDate(
+        ZonedDateTime.of(receivingDate.atTime(10, 0), ZoneId.systemDefault()));
+    event.setPackingDate(receivingDate.minusDays(2));
+    event.setCartonsQuantityAccepted(cartonsAccepted);
+    List<Discrepancy> eventDiscrepancies = new ArrayList<>();
+    for (int i = 0; i < discrepancies; i++) {
+      eventDiscrepancies.add(new Discrepancy(UUID.randomUUID(), "cartons", 1, null));
+    }
+    event.setDiscrepancies(eventDiscrepancies);
+    return eventsRepository.save(event);
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import javax.transaction.Transactional;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.openlmis.pointofdelivery.dto.ResourceVersionDto;
+import org.openlmis.pointofdelivery.util.KeysetPageDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Compares listing whole events of a destination with listing only the fields of a list screen,
+ * by payload size and time to read all pages. Times are logged rather than asserted, as they
+ * depend on the machine.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Transactional
+public class PointOfDeliveryEventFieldsBenchmarkIntegrationTest {
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(PointOfDeliveryEventFieldsBenchmarkIntegrationTest.class);
+
+  private static final int EVENTS = 2_000;
+  private static final int DISCREPANCIES_PER_EVENT = 3;
+  private static final int WARM_UP_RUNS = 5;
+  private static final int RUNS = 20;
+
+  private static final Set<String> LIST_FIELDS = ImmutableSet.of("referenceNumber",
+      "receivingDate", "cartonsQuantityAccepted", "cartonsQuantityRejected",
+      "containersQuantityAccepted", "containersQuantityRejected");
+
+  @Autowired
+  private PointOfDeliveryService pointOfDeliveryService;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  private UUID destinationId = UUID.randomUUID();
+
+  @Test
+  public void shouldListFieldsWithSmallerPayloadThanWholeEvents() {
+    insertEvents();
+
+    // a new version every time, so that whole pages are read rather than taken from the cache
+    Function<String, KeysetPageDto<?>> wholeEvents = cursor -> pointOfDeliveryService
+        .getPointOfDeliveryEvents(destinationId, PageRequest.of(0, Integer.MAX_VALUE), cursor,
+            new ResourceVersionDto(UUID.randomUUID().toString(), null));
+    Function<String, KeysetPageDto<?>> listFields = cursor -> pointOfDeliveryService
+        .getPointOfDeliveryEventFields(destinationId, LIST_FIELDS,
+            PageRequest.of(0, Integer.MAX_VALUE), cursor);
+
+    Result whole = run(wholeEvents);
+    Result fields = run(listFields);
+
+    LOGGER.info("Listing {} events: whole events {} bytes in {} ms, {} fields {} bytes in {} ms",
+        EVENTS, whole.bytes, whole.millis, LIST_FIELDS.size(), fields.bytes, fields.millis);
+    assertEquals(EVENTS, whole.events);
+    assertEquals(EVENTS, fields.events);
+    assertTrue(fields.bytes * 3 < whole.bytes);
+  }
+
+  private Result run(Function<String, KeysetPageDto<?>> listing) {
+    for (int i = 0; i < WARM_UP_RUNS; i++) {
+      readAllPages(listing);
+    }
+
+    Result result = null;
+    long start = System.nanoTime();
+    for (int i = 0; i < RUNS; i++) {
+      result = readAllPages(listing);
+    }
+    result.millis = (System.nanoTime() - start) / 1_000_000 / RUNS;
+    return result;
+  }
+
+  private Result readAllPages(Function<String, KeysetPageDto<?>> listing) {
+    Result result = new Result();
+    String cursor = null;
+    do {
+      KeysetPageDto<?> page = listing.apply(cursor);
+      result.events += page.getNumberOfElements();
+      result.bytes += serialize(page).length;
+      cursor = page.getCursor();
+    } while (cursor != null);
+    return result;
+  }
+
+  private byte[] serialize(Object page) {
+    try {
+      return objectMapper.writeValueAsBytes(page);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  private void insertEvents() {
+    jdbcTemplate.update("INSERT INTO pointofdelivery.point_of_delivery_event"
+        + " (id, destinationid, sourceid, sourcefreetext, destinationfreetext,"
+        + " receivedbyuserid, receivedbyusernames, referencenumber, remarks, packedby,"
+        + " receivingdate, packingdate, cartonsquantityonwaybill, cartonsquantityshipped,"
+        + " cartonsquantityaccepted, cartonsquantityrejected, containersquantityonwaybill,"
+        + " containersquantityshipped, containersquantityaccepted, containersquantityrejected,"
+        + " lastmodified, version)"
+        + " SELECT md5('event-' || i)::uuid, ?, md5('source-' || i % 10)::uuid,"
+        + " 'Central medical stores', 'District hospital', md5('user-' || i % 5)::uuid,"
+        + " 'Receiving Clerk', 'WB-' || lpad(i::text, 8, '0'),"
+        + " 'Cartons on top of the pallet arrived damaged ' || i, 'Packing Clerk',"
+        + " timestamp '2026-01-01' + i * interval '1 minute',"
+        + " timestamp '2026-01-01' + (i / 1440) * interval '1 day',"
+        + " 20, 20, 18, 2, 4, 4, 4, 0, now(), 0"
+        + " FROM generate_series(1, ?) i", destinationId, EVENTS);
+    jdbcTemplate.update("INSERT INTO pointofdelivery.point_of_delivery_event_discrepencies"
+        + " (id, pointofdeliveryeventid, shipmenttype, quantityaffected, comments)"
+        + " SELECT md5('discrepancy-' || i || '-' || j)::uuid, md5('event-' || i)::uuid,"
+        + " 'cartons', 1, 'Crushed during transport'"
+        + " FROM generate_series(1, ?) i, generate_series(1, ?) j",
+        EVENTS, DISCREPANCIES_PER_EVENT);
+  }
+
+  private static final class Result {
+    private long events;
+    private long bytes;
+    private long millis;
+  }
+}
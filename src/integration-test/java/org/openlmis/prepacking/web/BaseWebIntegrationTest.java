@@ -38,9 +38,7 @@ import javax.annotation.PostConstruct;
 import org.junit.Rule;
 import org.junit.runner.RunWith;
 import org.openlmis.pointofdelivery.dto.referencedata.UserDto;
-import org.openlmis.pointofdelivery.repository.StockCardLineItemReasonRepository;
 import org.openlmis.pointofdelivery.service.PermissionService;
-import org.openlmis.pointofdelivery.service.StockCardLineItemReasonService;
 import org.openlmis.pointofdelivery.util.AuthenticationHelper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -74,12 +72,6 @@ public abstract class BaseWebIntegrationTest {
   @MockBean
   protected AuthenticationHelper authenticationHelper;
 
-  @MockBean
-  protected StockCardLineItemReasonService stockCardLineItemReasonService;
-
-  @MockBean
-  protected StockCardLineItemReasonRepository stockCardLineItemReasonRepository;
-
   @MockBean
   protected PermissionService permissionService;
 
@@ -0,0 +1,232 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.web;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.openlmis.pointofdelivery.i18n.MessageKeys.ERROR_IDEMPOTENCY_KEY_IN_USE;
+import static org.openlmis.pointofdelivery.web.PointOfDeliveryController.IDEMPOTENCY_KEY_HEADER;
+
+import com.google.common.collect.ImmutableMap;
+import com.jayway.restassured.response.ValidatableResponse;
+import guru.nidi.ramltester.junit.RamlMatchers;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.Before;
+import org.junit.Test;
+import org.openlmis.pointofdelivery.dto.PointOfDeliveryEventDto;
+import org.openlmis.pointofdelivery.exception.ConflictMessageException;
+import org.openlmis.pointofdelivery.service.IdempotencyKeyService;
+import org.openlmis.pointofdelivery.service.PointOfDeliveryEventProcessor;
+import org.openlmis.pointofdelivery.util.Message;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+
+public class PointOfDeliveryControllerIntegrationTest extends BaseWebIntegrationTest {
+  private static final String RESOURCE_URL = "/api/podEvents";
+  private static final String KEY = "retried-request";
+
+  @MockBean
+  private PointOfDeliveryEventProcessor pointOfDeliveryEventProcessor;
+
+  @MockBean
+  private IdempotencyKeyService idempotencyKeyService;
+
+  private UUID eventId = UUID.randomUUID();
+
+  @Before
+  public void setUp() {
+    mockUserAuthenticated();
+  }
+
+  // POST /api/podEvents
+
+  @Test
+  public void shouldCreateEventAndRegisterIdempotencyKey() {
+    // given
+    when(idempotencyKeyService.claimOrReplay(KEY)).thenReturn(Optional.empty());
+    when(pointOfDeliveryEventProcessor.process(any(PointOfDeliveryEventDto.class)))
+        .thenReturn(eventId);
+
+    // when
+    UUID result = postEvent(201).extract().as(UUID.class);
+
+    // then
+    assertEquals(eventId, result);
+    verify(idempotencyKeyService).register(KEY, eventId);
+    assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
+  }
+
+  @Test
+  public void shouldReturnEventCreatedForRetriedIdempotencyKey() {
+    // given
+    when(idempotencyKeyService.claimOrReplay(KEY)).thenReturn(Optional.of(eventId));
+
+    // when
+    UUID result = postEvent(201).extract().as(UUID.class);
+
+    // then
+    assertEquals(eventId, result);
+    verify(pointOfDeliveryEventProcessor, never()).process(any(PointOfDeliveryEventDto.class));
+    assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
+  }
+
+  @Test
+  public void shouldReturnConflictWhenIdempotencyKeyIsStillInUse() {
+    // given
+    when(idempotencyKeyService.claimOrReplay(KEY)).thenThrow(
+        new ConflictMessageException(new Message(ERROR_IDEMPOTENCY_KEY_IN_USE, KEY)));
+
+    // when
+    postEvent(409);
+
+    // then
+    verify(pointOfDeliveryEventProcessor, never()).process(any(PointOfDeliveryEventDto.class));
+    assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
+  }
+
+  // GET /api/podEvents
+
+  @Test
+  public void shouldReturnArrayOfEventsWhenNoPageIsRequested() {
+    // when
+    PointOfDeliveryEventDto[] events = restAssured.given()
+        .header(HttpHeaders.AUTHORIZATION, getTokenHeader())
+        .queryParam("destinationId", UUID.randomUUID())
+        .when()
+        .get(RESOURCE_URL)
+        .then()
+        .statusCode(200)
+        .extract()
+        .as(PointOfDeliveryEventDto[].class);
+
+    // then
+    assertEquals(0, events.length);
+    assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
+  }
+
+  @Test
+  public void shouldReturnPageOfEventsWhenPageIsRequested() {
+    // when
+    restAssured.given()
+        .header(HttpHeaders.AUTHORIZATION, getTokenHeader())
+        .queryParam("destinationId", UUID.randomUUID())
+        .queryParam("size", 10)
+        .when()
+        .get(RESOURCE_URL)
+        .then()
+        .statusCode(200)
+        .body("content", hasSize(0))
+        .body("size", is(10))
+        .body("last", is(true));
+
+    // then
+    assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
+  }
+
+  // validation errors of the listing, search and sync endpoints
+
+  @Test
+  public void shouldReturnBadRequestForUnknownFieldOfEvents() {
+    // when
+    restAssured.given()
+        .header(HttpHeaders.AUTHORIZATION, getTokenHeader())
+        .queryParam("destinationId", UUID.randomUUID())
+        .queryParam("fields", "unknown")
+        .when()
+        .get(RESOURCE_URL)
+        .then()
+        .statusCode(400);
+
+    // then
+    assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
+  }
+
+  @Test
+  public void shouldReturnBadRequestForUnknownSortOfSearch() {
+    // when
+    restAssured.given()
+        .header(HttpHeaders.AUTHORIZATION, getTokenHeader())
+        .queryParam("sort", "remarks,asc")
+        .when()
+        .get(RESOURCE_URL + "/search")
+        .then()
+        .statusCode(400);
+
+    // then
+    assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
+  }
+
+  @Test
+  public void shouldReturnBadRequestWhenNoDestinationIsGiven() {
+    // when
+    restAssured.given()
+        .header(HttpHeaders.AUTHORIZATION, getTokenHeader())
+        .contentType(APPLICATION_JSON)
+        .body(ImmutableMap.of("destinationIds", Collections.emptyList()))
+        .when()
+        .post(RESOURCE_URL + "/search")
+        .then()
+        .statusCode(400);
+
+    // then
+    assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
+  }
+
+  @Test
+  public void shouldReturnBadRequestForInvalidSyncCursor() {
+    // when
+    restAssured.given()
+        .header(HttpHeaders.AUTHORIZATION, getTokenHeader())
+        .queryParam("destinationId", UUID.randomUUID())
+        .queryParam("cursor", "not-a-cursor")
+        .when()
+        .get(RESOURCE_URL + "/changes")
+        .then()
+        .statusCode(400);
+
+    // then
+    assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
+  }
+
+  private ValidatableResponse postEvent(int expectedStatus) {
+    return restAssured.given()
+        .header(HttpHeaders.AUTHORIZATION, getTokenHeader())
+        .header(IDEMPOTENCY_KEY_HEADER, KEY)
+        .contentType(APPLICATION_JSON)
+        .body(generateEvent())
+        .when()
+        .post(RESOURCE_URL)
+        .then()
+        .statusCode(expectedStatus);
+  }
+
+  private Map<String, Object> generateEvent() {
+    return ImmutableMap.of(
+        "sourceId", UUID.randomUUID(),
+        "destinationId", UUID.randomUUID(),
+        "numberOfCartons", 10,
+        "numberOfContainers", 2);
+  }
+}
@@ -0,0 +1,176 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * HTTP client shared by all calls to other services. Connections are pooled and kept alive
+ * between calls, so that a call does not pay for a new TCP and TLS handshake. Responses are
+ * requested gzip compressed and decompressed transparently by the client.
+ */
+@Configuration
+public class HttpClientConfiguration {
+  private static final String POOL_NAME = "services";
+
+  @Value("${request.maxConnections}")
+  private int maxConnections;
+
+  @Value("${request.maxConnectionsPerHost}")
+  private int maxConnectionsPerHost;
+
+  @Value("${request.connectTimeoutMillis}")
+  private int connectTimeoutMillis;
+
+  @Value("${request.poolTimeoutMillis}")
+  private int poolTimeoutMillis;
+
+  @Value("${request.readTimeoutMillis}")
+  private int readTimeoutMillis;
+
+  @Value("${request.idleConnectionSeconds}")
+  private long idleConnectionSeconds;
+
+  @Value("${request.chunkThreads}")
+  private int chunkThreads;
+
+  @Value("${referencedata.batch.threads}")
+  private int batchThreads;
+
+  @Value("${referencedata.batch.queueSize}")
+  private int batchQueueSize;
+
+  /**
+   * Pool of connections to other services, with its usage published as
+   * httpcomponents.httpclient.pool metrics.
+   */
+  @Bean(destroyMethod = "close")
+  public PoolingHttpClientConnectionManager serviceConnectionManager(MeterRegistry registry) {
+    PoolingHttpClientConnectionManager connectionManager =
+        new PoolingHttpClientConnectionManager();
+    connectionManager.setMaxTotal(maxConnections);
+    connectionManager.setDefaultMaxPerRoute(maxConnectionsPerHost);
+    // connections closed by the other side while idle are detected before they are reused
+    connectionManager.setValidateAfterInactivity(1000);
+
+    new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_NAME)
+        .bindTo(registry);
+    return connectionManager;
+  }
+
+  /**
+   * Client of other services. Connections idle for longer than configured are closed by a
+   * background thread. Content compression is enabled by default, which sends
+   * Accept-Encoding: gzip,deflate and decodes the responses.
+   */
+  @Bean(destroyMethod = "close")
+  public CloseableHttpClient serviceHttpClient(
+      PoolingHttpClientConnectionManager serviceConnectionManager) {
+    RequestConfig requestConfig = RequestConfig.custom()
+        .setConnectTimeout(connectTimeoutMillis)
+        .setConnectionRequestTimeout(poolTimeoutMillis)
+        .setSocketTimeout(readTimeoutMillis)
+        .build();
+
+    return HttpClients.custom()
+        .setConnectionManager(serviceConnectionManager)
+        .setDefaultRequestConfig(requestConfig)
+        .evictExpiredConnections()
+        .evictIdleConnections(idleConnectionSeconds, TimeUnit.SECONDS)
+        .build();
+  }
+
+  /**
+   * Rest template used by {@link org.openlmis.pointofdelivery.service.BaseCommunicationService}
+   * and {@link org.openlmis.pointofdelivery.service.AuthService}, so that every client of
+   * another service shares the pool.
+   */
+  @Bean
+  public RestTemplate serviceRestTemplate(CloseableHttpClient serviceHttpClient) {
+    return new RestTemplate(new HttpComponentsClientHttpRequestFactory(serviceHttpClient));
+  }
+
+  /**
+   * Threads calling the chunks of a request split because of its URL length, shared by all
+   * clients so that the number of concurrent chunks stays bounded. When all threads are busy,
+   * the chunk is called by the thread submitting it. Usage is published as executor metrics
+   * named service.requests.
+   */
+  @Bean(destroyMethod = "shutdown")
+  public ExecutorService serviceRequestExecutor(MeterRegistry registry) {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(0, chunkThreads,
+        60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+        new ThreadFactoryBuilder()
+            .setNameFormat("service-request-%d")
+            .setDaemon(true)
+            .build(),
+        new ThreadPoolExecutor.CallerRunsPolicy());
+
+    return ExecutorServiceMetrics.monitor(registry, executor, "service.requests");
+  }
+
+  /**
+   * Thread loading the batches of single lookups collected by
+   * {@link org.openlmis.pointofdelivery.util.BatchLoader} once their window has passed. The bulk
+   * requests themselves are run by the service batch executor.
+   */
+  @Bean(destroyMethod = "shutdown")
+  public ScheduledExecutorService serviceBatchScheduler() {
+    return Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+        .setNameFormat("service-batch-%d")
+        .setDaemon(true)
+        .build());
+  }
+
+  /**
+   * Threads running the bulk requests of batches of single lookups. Batches wait in a bounded
+   * queue while all threads are busy, and are rejected when it is full, so that the scheduler
+   * thread never runs a request itself. Usage is published as executor metrics named
+   * service.batches.
+   */
+  @Bean(destroyMethod = "shutdown")
+  public ExecutorService serviceBatchExecutor(MeterRegistry registry) {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(batchThreads, batchThreads,
+        60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(batchQueueSize),
+        new ThreadFactoryBuilder()
+            .setNameFormat("service-batch-request-%d")
+            .setDaemon(true)
+            .build(),
+        new ThreadPoolExecutor.AbortPolicy());
+    executor.allowCoreThreadTimeOut(true);
+
+    return ExecutorServiceMetrics.monitor(registry, executor, "service.batches");
+  }
+}
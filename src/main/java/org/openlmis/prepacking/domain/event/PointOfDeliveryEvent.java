@@ -17,18 +17,24 @@ package org.openlmis.pointofdelivery.domain.event;
 
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
-import javax.persistence.JoinColumn;
+import javax.persistence.Index;
 import javax.persistence.OneToMany;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import org.openlmis.pointofdelivery.domain.BaseEntity;
 import org.openlmis.pointofdelivery.domain.qualitychecks.Discrepancy;
 
@@ -36,7 +42,19 @@ import org.openlmis.pointofdelivery.domain.qualitychecks.Discrepancy;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "point_of_delivery_event", schema = "pointofdelivery")
+@Table(name = "point_of_delivery_event", schema = "pointofdelivery",
+    indexes = {
+        @Index(name = "pod_event_destination_last_modified_idx",
+            columnList = "destinationId, lastModified, id"),
+        @Index(name = "pod_event_destination_receiving_date_idx",
+            columnList = "destinationId, receivingDate, id"),
+        @Index(name = "pod_event_source_receiving_date_idx",
+            columnList = "sourceId, receivingDate, id"),
+        @Index(name = "pod_event_receiving_date_idx",
+            columnList = "receivingDate, id"),
+        @Index(name = "pod_event_packing_date_idx",
+            columnList = "packingDate, id")
+    })
 public class PointOfDeliveryEvent extends BaseEntity {
     
   private UUID sourceId;
@@ -76,9 +94,52 @@ public class PointOfDeliveryEvent extends BaseEntity {
 
   private String remarks;
 
-  // One-to-many relationship with Discrepancy
-  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-  @JoinColumn(name = "point_of_delivery_event_id") // foreign key in Discrepancy table
-  private List<Discrepancy> discrepancies;
+  // One-to-many relationship with Discrepancy, the foreign key is written by Discrepancy alone
+  // so that discrepancies are inserted complete instead of being linked by a later update.
+  // When loaded lazily, discrepancies of up to 100 events in the session are fetched at once.
+  @OneToMany(mappedBy = "pointOfDeliveryEvent", cascade = CascadeType.ALL,
+      orphanRemoval = true, fetch = FetchType.LAZY)
+  @BatchSize(size = 100)
+  private List<Discrepancy> discrepancies = new ArrayList<>();
+
+  // Existing rows get the time the column was added, so they are sent with the next sync
+  @Column(nullable = false, columnDefinition = "timestamp default now()")
+  private ZonedDateTime lastModified;
+
+  // Incremented on every update, rows written before the column was added start at 0
+  @Version
+  @Column(nullable = false, columnDefinition = "bigint default 0")
+  private Long version;
+
+  /**
+   * Replaces discrepancies of the event, linking the new ones to it. Discrepancies that are no
+   * longer in the list are deleted.
+   *
+   * @param discrepancies new discrepancies, null to remove all of them.
+   */
+  public void setDiscrepancies(List<Discrepancy> discrepancies) {
+    List<Discrepancy> replacement = discrepancies == null
+        ? new ArrayList<>()
+        : new ArrayList<>(discrepancies);
+
+    if (this.discrepancies == null) {
+      this.discrepancies = new ArrayList<>();
+    }
+    this.discrepancies.clear();
+
+    replacement.forEach(discrepancy -> discrepancy.setPointOfDeliveryEvent(this));
+    this.discrepancies.addAll(replacement);
+  }
+
+  /**
+   * Stamps the event every time it is written, so clients can ask only for events changed since
+   * their last sync. Truncated to the precision of the database column, which keeps the value
+   * clients get back in sync cursors equal to the stored one.
+   */
+  @PrePersist
+  @PreUpdate
+  public void updateLastModified() {
+    lastModified = ZonedDateTime.now().truncatedTo(ChronoUnit.MICROS);
+  }
 
 }
@@ -0,0 +1,54 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.domain.event;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.openlmis.pointofdelivery.domain.BaseEntity;
+
+/**
+ * Record of a point of delivery event that has left a destination, either because it has been
+ * deleted or moved to another destination. Lets syncing clients remove their local copy.
+ * Tombstones are only kept for a configured number of days.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "point_of_delivery_event_tombstones", schema = "pointofdelivery",
+    indexes = {
+        @Index(name = "pod_event_tombstone_destination_deleted_idx",
+            columnList = "destinationId, deletedDate, id"),
+        @Index(name = "pod_event_tombstone_deleted_idx", columnList = "deletedDate")
+    })
+public class PointOfDeliveryEventTombstone extends BaseEntity {
+
+  @Column(nullable = false)
+  private UUID eventId;
+
+  @Column(nullable = false)
+  private UUID destinationId;
+
+  @Column(nullable = false, columnDefinition = "timestamp")
+  private ZonedDateTime deletedDate;
+}
@@ -0,0 +1,98 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.domain.event;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Totals of the point of delivery events received by a destination from a source within a
+ * month. Kept up to date with every write of an event, so reports read them instead of the
+ * events. Events without a source or destination are counted under the nil UUID.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(PointOfDeliveryMonthlyRollup.Key.class)
+@Table(name = "point_of_delivery_event_monthly_rollups", schema = "pointofdelivery",
+    indexes = @Index(name = "pod_event_monthly_rollup_month_idx", columnList = "month"))
+public class PointOfDeliveryMonthlyRollup {
+
+  public static final UUID NONE = new UUID(0, 0);
+
+  @Id
+  private UUID destinationId;
+
+  @Id
+  private UUID sourceId;
+
+  // first day of the month of the receiving date
+  @Id
+  @Column(columnDefinition = "date")
+  private LocalDate month;
+
+  @Column(nullable = false)
+  private long eventCount;
+
+  @Column(nullable = false)
+  private long cartonsQuantityOnWaybill;
+
+  @Column(nullable = false)
+  private long cartonsQuantityShipped;
+
+  @Column(nullable = false)
+  private long cartonsQuantityAccepted;
+
+  @Column(nullable = false)
+  private long cartonsQuantityRejected;
+
+  @Column(nullable = false)
+  private long containersQuantityOnWaybill;
+
+  @Column(nullable = false)
+  private long containersQuantityShipped;
+
+  @Column(nullable = false)
+  private long containersQuantityAccepted;
+
+  @Column(nullable = false)
+  private long containersQuantityRejected;
+
+  @Column(nullable = false)
+  private long discrepancyCount;
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Key implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private UUID destinationId;
+    private UUID sourceId;
+    private LocalDate month;
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.domain.idempotency;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Type;
+
+/**
+ * Idempotency key sent by a client with a request that creates a point of delivery event, along
+ * with the id of the event that was created for it. Keys are shared by all instances of the
+ * service, so a retried request is recognized no matter which instance handles it. Each user or
+ * API client has keys of its own, so the same key sent by two of them does not collide.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(IdempotencyKey.Key.class)
+@Table(name = "idempotency_keys", schema = "pointofdelivery")
+public class IdempotencyKey {
+
+  public static final int MAX_LENGTH = 255;
+
+  // user or API client the key belongs to
+  @Id
+  @Column(nullable = false, length = MAX_LENGTH)
+  private String owner;
+
+  @Id
+  @Column(nullable = false, length = MAX_LENGTH)
+  private String key;
+
+  @Type(type = "pg-uuid")
+  private UUID eventId;
+
+  @Column(nullable = false, columnDefinition = "timestamp")
+  private ZonedDateTime createdDate;
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Key implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String owner;
+    private String key;
+  }
+}
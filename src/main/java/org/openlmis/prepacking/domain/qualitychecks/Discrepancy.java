@@ -17,12 +17,19 @@ package org.openlmis.pointofdelivery.domain.qualitychecks;
 
 import java.util.UUID;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.ForeignKey;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 import org.openlmis.pointofdelivery.domain.BaseEntity;
 import org.openlmis.pointofdelivery.domain.event.PointOfDeliveryEvent;
 
@@ -31,7 +38,9 @@ import org.openlmis.pointofdelivery.domain.event.PointOfDeliveryEvent;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "point_of_delivery_event_discrepencies", schema = "pointofdelivery")
+@Table(name = "point_of_delivery_event_discrepencies", schema = "pointofdelivery",
+    indexes = @Index(name = "pod_event_discrepancies_event_idx",
+        columnList = "point_of_delivery_event_id"))
 public class Discrepancy extends BaseEntity {
 
   private UUID rejectionReasonId;
@@ -39,9 +48,13 @@ public class Discrepancy extends BaseEntity {
   private Integer quantityAffected;
   private String comments;
 
-  // Many-to-one relationship with PointOfDeliveryEvent
-  @ManyToOne
-  @JoinColumn(name = "point_of_delivery_event_id")
+  // Many-to-one relationship with PointOfDeliveryEvent, owner of the foreign key
+  @ManyToOne(fetch = FetchType.LAZY)
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  @OnDelete(action = OnDeleteAction.CASCADE)
+  @JoinColumn(name = "point_of_delivery_event_id",
+      foreignKey = @ForeignKey(name = "pod_event_discrepancies_event_fk"))
   private PointOfDeliveryEvent pointOfDeliveryEvent;
 
   /**
@@ -0,0 +1,77 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.domain.qualitychecks;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Totals of the discrepancies of point of delivery events received by a destination within a
+ * month, per rejection reason and shipment type. Kept up to date with every write of an event.
+ * Discrepancies without a reason are counted under the nil UUID, those without a shipment type
+ * under an empty one.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(DiscrepancyMonthlyRollup.Key.class)
+@Table(name = "point_of_delivery_discrepancy_monthly_rollups", schema = "pointofdelivery",
+    indexes = @Index(name = "pod_discrepancy_monthly_rollup_month_idx", columnList = "month"))
+public class DiscrepancyMonthlyRollup {
+
+  @Id
+  private UUID destinationId;
+
+  @Id
+  private UUID rejectionReasonId;
+
+  @Id
+  private String shipmentType;
+
+  // first day of the month of the receiving date of the event
+  @Id
+  @Column(columnDefinition = "date")
+  private LocalDate month;
+
+  @Column(nullable = false)
+  private long discrepancyCount;
+
+  @Column(nullable = false)
+  private long quantityAffected;
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Key implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private UUID destinationId;
+    private UUID rejectionReasonId;
+    private String shipmentType;
+    private LocalDate month;
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.dto;
+
+import java.time.YearMonth;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.openlmis.pointofdelivery.domain.qualitychecks.DiscrepancyMonthlyRollup;
+import org.openlmis.pointofdelivery.dto.requisition.RejectionReasonDto;
+
+/**
+ * Totals of the discrepancies a destination reported in a month for a rejection reason and
+ * shipment type. The rejection reason is null for discrepancies without one, the shipment type
+ * is empty for discrepancies without one.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DiscrepancyMonthlyRollupDto {
+
+  private UUID destinationId;
+  private RejectionReasonDto rejectionReason;
+  private String shipmentType;
+  private YearMonth month;
+  private long discrepancyCount;
+  private long quantityAffected;
+
+  /**
+   * Create dto from jpa model.
+   *
+   * @param rollup rollup jpa model.
+   * @param rejectionReason resolved rejection reason of the rollup.
+   * @return created dto.
+   */
+  public static DiscrepancyMonthlyRollupDto newInstance(DiscrepancyMonthlyRollup rollup,
+      RejectionReasonDto rejectionReason) {
+    return DiscrepancyMonthlyRollupDto.builder()
+        .destinationId(rollup.getDestinationId())
+        .rejectionReason(rejectionReason)
+        .shipmentType(rollup.getShipmentType())
+        .month(YearMonth.from(rollup.getMonth()))
+        .discrepancyCount(rollup.getDiscrepancyCount())
+        .quantityAffected(rollup.getQuantityAffected())
+        .build();
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.dto;
+
+import java.util.List;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Point of delivery events of a destination that changed since the client's last sync.
+ * Deleted events are to be removed before changed ones are stored, as an event moved away and
+ * back again is listed in both. The cursor is to be sent with the next sync request, also when
+ * there are no more changes.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PointOfDeliveryEventChangesDto {
+
+  private List<PointOfDeliveryEventDto> changed;
+  private List<UUID> deleted;
+  private String cursor;
+  private boolean hasMore;
+}
@@ -80,6 +80,9 @@ public class PointOfDeliveryEventDto {
 
   private List<DiscrepancyDto> discrepancies;
 
+  // Read only, changes on every update of the event and is sent back in If-Match headers
+  private Long version;
+
   private PointOfDeliveryEventProcessContext context;
 
   /**
@@ -101,7 +104,8 @@ public class PointOfDeliveryEventDto {
         cartonsQuantityShipped, cartonsQuantityAccepted, cartonsQuantityRejected,
         containersQuantityOnWaybill, containersQuantityShipped, 
         containersQuantityAccepted, containersQuantityRejected,
-        remarks, discrepancies());
+        remarks, null, null, null);
+    pointOfDeliveryEvent.setDiscrepancies(discrepancies());
     return pointOfDeliveryEvent;
   }
 
@@ -0,0 +1,46 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of processing a single point of delivery event that was submitted as part of a bulk
+ * upload. The index refers to the position of the event in the submitted payload.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PointOfDeliveryEventResultDto {
+
+  private int index;
+  private boolean successful;
+  private UUID id;
+  private String error;
+
+  public static PointOfDeliveryEventResultDto success(int index, UUID id) {
+    return new PointOfDeliveryEventResultDto(index, true, id, null);
+  }
+
+  public static PointOfDeliveryEventResultDto failure(int index, String error) {
+    return new PointOfDeliveryEventResultDto(index, false, null, error);
+  }
+}
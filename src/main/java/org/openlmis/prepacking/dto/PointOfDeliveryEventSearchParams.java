@@ -0,0 +1,56 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.dto;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+
+/**
+ * Criteria of a search for point of delivery events. Only criteria that are set are applied,
+ * date ranges include both ends and may be open on either side.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PointOfDeliveryEventSearchParams {
+
+  private UUID destinationId;
+  private UUID sourceId;
+
+  // matched anywhere in the value, ignoring case
+  private String referenceNumber;
+  private String remarks;
+
+  @DateTimeFormat(iso = ISO.DATE_TIME)
+  private ZonedDateTime receivingDateFrom;
+
+  @DateTimeFormat(iso = ISO.DATE_TIME)
+  private ZonedDateTime receivingDateTo;
+
+  @DateTimeFormat(iso = ISO.DATE)
+  private LocalDate packingDateFrom;
+
+  @DateTimeFormat(iso = ISO.DATE)
+  private LocalDate packingDateTo;
+
+  private Boolean hasDiscrepancies;
+}
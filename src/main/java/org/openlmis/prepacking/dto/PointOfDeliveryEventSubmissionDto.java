@@ -0,0 +1,53 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * State of a point of delivery event that has been accepted for asynchronous saving.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PointOfDeliveryEventSubmissionDto {
+
+  private UUID id;
+  private Status status;
+  private UUID eventId;
+  private String error;
+
+  public enum Status {
+    QUEUED, SAVED, FAILED
+  }
+
+  public static PointOfDeliveryEventSubmissionDto queued(UUID id) {
+    return new PointOfDeliveryEventSubmissionDto(id, Status.QUEUED, null, null);
+  }
+
+  public static PointOfDeliveryEventSubmissionDto saved(UUID id, UUID eventId) {
+    return new PointOfDeliveryEventSubmissionDto(id, Status.SAVED, eventId, null);
+  }
+
+  public static PointOfDeliveryEventSubmissionDto failed(UUID id, String error) {
+    return new PointOfDeliveryEventSubmissionDto(id, Status.FAILED, null, error);
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.dto;
+
+import java.time.YearMonth;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.openlmis.pointofdelivery.domain.event.PointOfDeliveryMonthlyRollup;
+
+/**
+ * Totals of the point of delivery events a destination received from a source in a month.
+ * Events without a source or destination are counted under the nil UUID.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PointOfDeliveryMonthlyRollupDto {
+
+  private UUID destinationId;
+  private UUID sourceId;
+  private YearMonth month;
+  private long eventCount;
+  private long cartonsQuantityOnWaybill;
+  private long cartonsQuantityShipped;
+  private long cartonsQuantityAccepted;
+  private long cartonsQuantityRejected;
+  private long containersQuantityOnWaybill;
+  private long containersQuantityShipped;
+  private long containersQuantityAccepted;
+  private long containersQuantityRejected;
+  private long discrepancyCount;
+
+  /**
+   * Create dto from jpa model.
+   *
+   * @param rollup rollup jpa model.
+   * @return created dto.
+   */
+  public static PointOfDeliveryMonthlyRollupDto newInstance(PointOfDeliveryMonthlyRollup rollup) {
+    return PointOfDeliveryMonthlyRollupDto.builder()
+        .destinationId(rollup.getDestinationId())
+        .sourceId(rollup.getSourceId())
+        .month(YearMonth.from(rollup.getMonth()))
+        .eventCount(rollup.getEventCount())
+        .cartonsQuantityOnWaybill(rollup.getCartonsQuantityOnWaybill())
+        .cartonsQuantityShipped(rollup.getCartonsQuantityShipped())
+        .cartonsQuantityAccepted(rollup.getCartonsQuantityAccepted())
+        .cartonsQuantityRejected(rollup.getCartonsQuantityRejected())
+        .containersQuantityOnWaybill(rollup.getContainersQuantityOnWaybill())
+        .containersQuantityShipped(rollup.getContainersQuantityShipped())
+        .containersQuantityAccepted(rollup.getContainersQuantityAccepted())
+        .containersQuantityRejected(rollup.getContainersQuantityRejected())
+        .discrepancyCount(rollup.getDiscrepancyCount())
+        .build();
+  }
+}
@@ -16,7 +16,13 @@
 package org.openlmis.pointofdelivery.exception;
 
 import org.openlmis.pointofdelivery.util.Message;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
 
+/**
+ * Signals that the current user does not have the right the request requires.
+ */
+@ResponseStatus(HttpStatus.FORBIDDEN)
 public class PermissionMessageException extends BaseMessageException {
 
   public PermissionMessageException(Message message) {
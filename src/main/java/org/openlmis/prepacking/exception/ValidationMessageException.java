@@ -16,7 +16,14 @@
 package org.openlmis.pointofdelivery.exception;
 
 import org.openlmis.pointofdelivery.util.Message;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
 
+/**
+ * Signals that the request is not valid, e.g. a parameter is not correctly formatted, and has to
+ * be corrected before it is sent again.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
 public class ValidationMessageException extends BaseMessageException {
 
   public ValidationMessageException(Message message) {
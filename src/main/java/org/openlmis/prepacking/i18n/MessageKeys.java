@@ -33,6 +33,8 @@ public abstract class MessageKeys {
   private static final String ERROR_PREFIX = SERVICE_PREFIX + ".error";
   public static final String ERROR_USER_NOT_FOUND = ERROR_PREFIX + ".user.notFound";
   public static final String ERROR_INVALID_PARAMS = ERROR_PREFIX + ".invalid.params";
+  public static final String ERROR_CURSOR_INVALID = ERROR_PREFIX + ".cursor.invalid";
+  public static final String ERROR_CURSOR_EXPIRED = ERROR_PREFIX + ".cursor.expired";
   //stock card templates
   public static final String ERROR_STOCK_CARD_FIELD_INVALID =
       ERROR_PREFIX + ".field.invalid";
@@ -70,6 +72,8 @@ public abstract class MessageKeys {
   //permission error
   public static final String ERROR_NO_FOLLOWING_PERMISSION = ERROR_PREFIX
       + ".authorization.noFollowingPermission";
+  public static final String ERROR_NO_FOLLOWING_GENERAL_PERMISSION = ERROR_PREFIX
+      + ".authorization.noFollowingGeneralPermission";
   public static final String ERROR_FACILITY_TYPE_HOME_FACILITY_TYPE_NOT_MATCH = ERROR_PREFIX
       + ".authorization.facilityTypeAndHomeFacilityType.not.match";
   public static final String ERROR_PROGRAM_NOT_SUPPORTED = ERROR_PREFIX
@@ -138,6 +142,7 @@ public abstract class MessageKeys {
   public static final String ERROR_REPORTING_FILE_EMPTY = ERROR_PREFIX + ".reporting.file.empty";
   public static final String ERROR_IO = ERROR_PREFIX + ".io";
   public static final String ERROR_ENCODING = ERROR_PREFIX + ".encoding.notSupported";
+  public static final String ERROR_SERVICE_UNAVAILABLE = ERROR_PREFIX + ".service.unavailable";
   private static final String EVENT_ERROR_PREFIX = ERROR_PREFIX + ".event";
   //stock events creation: approved products
   public static final String ERROR_ORDERABLE_NOT_IN_APPROVED_LIST =
@@ -175,6 +180,34 @@ public abstract class MessageKeys {
       + ".orderableId.invalid";
   public static final String ERROR_EVENT_NO_LINE_ITEMS = EVENT_ERROR_PREFIX
       + ".no.lineItems";
+  public static final String ERROR_EVENT_BATCH_TOO_LARGE = EVENT_ERROR_PREFIX
+      + ".batch.tooLarge";
+  public static final String ERROR_IDEMPOTENCY_KEY_TOO_LONG = EVENT_ERROR_PREFIX
+      + ".idempotencyKey.tooLong";
+  public static final String ERROR_IDEMPOTENCY_KEY_IN_USE = EVENT_ERROR_PREFIX
+      + ".idempotencyKey.inUse";
+  public static final String ERROR_EVENT_QUEUE_FULL = EVENT_ERROR_PREFIX
+      + ".queue.full";
+  public static final String ERROR_EVENT_SUBMISSION_NOT_FOUND = EVENT_ERROR_PREFIX
+      + ".submission.notFound";
+  public static final String ERROR_EVENT_NOT_FOUND = EVENT_ERROR_PREFIX
+      + ".notFound";
+  public static final String ERROR_EVENT_VERSION_MISMATCH = EVENT_ERROR_PREFIX
+      + ".version.mismatch";
+  public static final String ERROR_EVENT_SORT_INVALID = EVENT_ERROR_PREFIX
+      + ".sort.invalid";
+  public static final String ERROR_EVENT_SEARCH_SORT_INVALID = EVENT_ERROR_PREFIX
+      + ".search.sort.invalid";
+  public static final String ERROR_EVENT_FIELDS_INVALID = EVENT_ERROR_PREFIX
+      + ".fields.invalid";
+  public static final String ERROR_EVENT_DESTINATIONS_MISSING = EVENT_ERROR_PREFIX
+      + ".destinations.missing";
+  public static final String ERROR_EVENT_DESTINATIONS_TOO_MANY = EVENT_ERROR_PREFIX
+      + ".destinations.tooMany";
+  public static final String ERROR_EVENT_PATCH_EMPTY = EVENT_ERROR_PREFIX
+      + ".patch.empty";
+  public static final String ERROR_EVENT_PATCH_DISCREPANCIES = EVENT_ERROR_PREFIX
+      + ".patch.discrepancies";
   public static final String ERROR_EVENT_ADJUSTMENT_QUANITITY_INVALID = EVENT_ERROR_PREFIX
       + ".adjustment.quantity.invalid";
   //stock events creation: adjustment reason
@@ -15,6 +15,7 @@
 
 package org.openlmis.pointofdelivery.i18n;
 
+import org.openlmis.pointofdelivery.exception.BaseMessageException;
 import org.openlmis.pointofdelivery.util.Message;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.i18n.LocaleContextHolder;
@@ -30,4 +31,15 @@ public class MessageService {
     return message.localMessage(messageSource, LocaleContextHolder.getLocale());
   }
 
+  /**
+   * Describes an error for a client. Errors carrying a {@link Message} are localized, others are
+   * described by their plain message.
+   */
+  public String describe(RuntimeException error) {
+    if (error instanceof BaseMessageException) {
+      return localize(((BaseMessageException) error).asMessage()).getMessage();
+    }
+    return error.getMessage();
+  }
+
 }
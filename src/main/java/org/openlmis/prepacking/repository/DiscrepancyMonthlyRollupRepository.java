@@ -0,0 +1,109 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.repository;
+
+import static org.openlmis.pointofdelivery.repository.PointOfDeliveryMonthlyRollupRepository.NONE;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.openlmis.pointofdelivery.domain.qualitychecks.DiscrepancyMonthlyRollup;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+public interface DiscrepancyMonthlyRollupRepository extends
+    Repository<DiscrepancyMonthlyRollup, DiscrepancyMonthlyRollup.Key> {
+
+  String ROLLUP_COLUMNS = "destinationid, rejectionreasonid, shipmenttype, month,"
+      + " discrepancycount, quantityaffected";
+
+  String ROLLUP_KEY = "coalesce(e.destinationid, " + NONE + "),"
+      + " coalesce(d.rejectionreasonid, " + NONE + "),"
+      + " coalesce(d.shipmenttype, ''),"
+      + " CAST(date_trunc('month', e.receivingdate) AS date)";
+
+  /**
+   * Adds discrepancies of the events to the totals of their months, or with sign -1 takes them
+   * out, see {@link PointOfDeliveryMonthlyRollupRepository#addEvents}.
+   *
+   * @param ids  ids of the events.
+   * @param sign 1 to add the discrepancies, -1 to take them out.
+   * @return number of rollups changed.
+   */
+  @Modifying(flushAutomatically = true)
+  @Query(value = "WITH events AS ("
+      + " SELECT e.id, e.destinationid, e.receivingdate"
+      + " FROM pointofdelivery.point_of_delivery_event e"
+      + " WHERE e.id IN (:ids))"
+      + " INSERT INTO pointofdelivery.point_of_delivery_discrepancy_monthly_rollups AS r"
+      + " (" + ROLLUP_COLUMNS + ")"
+      + " SELECT " + ROLLUP_KEY + ", :sign * count(*),"
+      + " :sign * coalesce(sum(d.quantityaffected), 0)"
+      + " FROM events e"
+      + " JOIN pointofdelivery.point_of_delivery_event_discrepencies d"
+      + " ON d.pointofdeliveryeventid = e.id"
+      + " GROUP BY 1, 2, 3, 4"
+      + " ORDER BY 1, 2, 3, 4"
+      + " ON CONFLICT (destinationid, rejectionreasonid, shipmenttype, month) DO UPDATE SET"
+      + " discrepancycount = r.discrepancycount + EXCLUDED.discrepancycount,"
+      + " quantityaffected = r.quantityaffected + EXCLUDED.quantityaffected",
+      nativeQuery = true)
+  int addEvents(@Param("ids") Collection<UUID> ids, @Param("sign") int sign);
+
+  @Modifying
+  @Query(value = "LOCK TABLE pointofdelivery.point_of_delivery_discrepancy_monthly_rollups"
+      + " IN EXCLUSIVE MODE", nativeQuery = true)
+  void lock();
+
+  @Modifying
+  @Query(value = "DELETE FROM pointofdelivery.point_of_delivery_discrepancy_monthly_rollups",
+      nativeQuery = true)
+  int deleteAllRollups();
+
+  /**
+   * Computes all rollups from the discrepancies of the events.
+   *
+   * @return number of rollups inserted.
+   */
+  @Modifying(flushAutomatically = true)
+  @Query(value = "INSERT INTO pointofdelivery.point_of_delivery_discrepancy_monthly_rollups"
+      + " (" + ROLLUP_COLUMNS + ")"
+      + " SELECT " + ROLLUP_KEY + ", count(*), coalesce(sum(d.quantityaffected), 0)"
+      + " FROM pointofdelivery.point_of_delivery_event e"
+      + " JOIN pointofdelivery.point_of_delivery_event_discrepencies d"
+      + " ON d.pointofdeliveryeventid = e.id"
+      + " GROUP BY 1, 2, 3, 4",
+      nativeQuery = true)
+  int insertAllRollups();
+
+  @Query("SELECT r FROM DiscrepancyMonthlyRollup r"
+      + " WHERE r.destinationId = :destinationId AND r.month BETWEEN :from AND :to"
+      + " AND r.discrepancyCount > 0"
+      + " ORDER BY r.month, r.discrepancyCount DESC, r.rejectionReasonId, r.shipmentType")
+  List<DiscrepancyMonthlyRollup> findByDestinationId(
+      @Param("destinationId") UUID destinationId,
+      @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+  @Query("SELECT r FROM DiscrepancyMonthlyRollup r"
+      + " WHERE r.month BETWEEN :from AND :to AND r.discrepancyCount > 0"
+      + " ORDER BY r.month, r.destinationId, r.discrepancyCount DESC, r.rejectionReasonId,"
+      + " r.shipmentType")
+  List<DiscrepancyMonthlyRollup> findAll(@Param("from") LocalDate from,
+      @Param("to") LocalDate to);
+}
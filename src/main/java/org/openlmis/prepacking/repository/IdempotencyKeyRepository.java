@@ -0,0 +1,70 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.repository;
+
+import java.time.ZonedDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import org.openlmis.pointofdelivery.domain.idempotency.IdempotencyKey;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+
+public interface IdempotencyKeyRepository extends
+        PagingAndSortingRepository<IdempotencyKey, IdempotencyKey.Key> {
+
+  /**
+   * Inserts the key, or takes over an expired one. When another transaction holds the same key,
+   * Postgres waits for it to finish before resolving the conflict.
+   *
+   * @return 1 if the key has been claimed, 0 if it is already in use.
+   */
+  @Modifying
+  @Query(value = "INSERT INTO pointofdelivery.idempotency_keys (owner, key, createddate)"
+      + " VALUES (:owner, :key, :createdDate)"
+      + " ON CONFLICT (owner, key) DO UPDATE SET eventid = NULL, createddate = :createdDate"
+      + " WHERE idempotency_keys.createddate < :expiredBefore",
+      nativeQuery = true)
+  int claim(@Param("owner") String owner, @Param("key") String key,
+      @Param("createdDate") ZonedDateTime createdDate,
+      @Param("expiredBefore") ZonedDateTime expiredBefore);
+
+  /**
+   * Finds a key that has not expired yet and has an event created for it. Reads the database even
+   * if the key is already loaded in the current persistence context.
+   */
+  @Query("SELECT new org.openlmis.pointofdelivery.domain.idempotency.IdempotencyKey("
+      + "k.owner, k.key, k.eventId, k.createdDate) FROM IdempotencyKey k"
+      + " WHERE k.owner = :owner AND k.key = :key"
+      + " AND k.createdDate >= :expiredBefore AND k.eventId IS NOT NULL")
+  Optional<IdempotencyKey> findWithEvent(@Param("owner") String owner, @Param("key") String key,
+      @Param("expiredBefore") ZonedDateTime expiredBefore);
+
+  @Query("SELECT k.createdDate FROM IdempotencyKey k WHERE k.owner = :owner AND k.key = :key")
+  Optional<ZonedDateTime> findCreatedDate(@Param("owner") String owner,
+      @Param("key") String key);
+
+  @Modifying
+  @Query("UPDATE IdempotencyKey k SET k.eventId = :eventId"
+      + " WHERE k.owner = :owner AND k.key = :key")
+  int assignEvent(@Param("owner") String owner, @Param("key") String key,
+      @Param("eventId") UUID eventId);
+
+  @Modifying
+  @Query("DELETE FROM IdempotencyKey k WHERE k.createdDate < :expiredBefore")
+  int deleteExpired(@Param("expiredBefore") ZonedDateTime expiredBefore);
+}
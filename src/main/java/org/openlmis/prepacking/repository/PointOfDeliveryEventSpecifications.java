@@ -0,0 +1,195 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.repository;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.UUID;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Subquery;
+import org.openlmis.pointofdelivery.domain.event.PointOfDeliveryEvent;
+import org.openlmis.pointofdelivery.domain.qualitychecks.Discrepancy;
+import org.openlmis.pointofdelivery.dto.PointOfDeliveryEventSearchParams;
+import org.openlmis.pointofdelivery.util.KeysetCursor;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Search criteria of point of delivery events. Every criterion is null when its value is not
+ * given, so that it is left out when combined with the others.
+ */
+public final class PointOfDeliveryEventSpecifications {
+
+  private static final String SOURCE_ID = "sourceId";
+  private static final String DESTINATION_ID = "destinationId";
+  private static final String REFERENCE_NUMBER = "referenceNumber";
+  private static final String REMARKS = "remarks";
+  private static final String RECEIVING_DATE = "receivingDate";
+  private static final String PACKING_DATE = "packingDate";
+  private static final String ID = "id";
+  private static final String POINT_OF_DELIVERY_EVENT = "pointOfDeliveryEvent";
+  private static final char LIKE_ESCAPE = '\\';
+
+  private PointOfDeliveryEventSpecifications() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Combines all criteria of the search.
+   */
+  public static Specification<PointOfDeliveryEvent> matching(
+      PointOfDeliveryEventSearchParams params) {
+    return Specification.where(hasDestinationId(params.getDestinationId()))
+        .and(hasSourceId(params.getSourceId()))
+        .and(containsText(REFERENCE_NUMBER, params.getReferenceNumber()))
+        .and(containsText(REMARKS, params.getRemarks()))
+        .and(receivedBetween(params.getReceivingDateFrom(), params.getReceivingDateTo()))
+        .and(packedBetween(params.getPackingDateFrom(), params.getPackingDateTo()))
+        .and(hasDiscrepancies(params.getHasDiscrepancies()));
+  }
+
+  /**
+   * Events of the destination that come after the cursor position when ordered by receiving
+   * date and id in the given direction, like the keyset queries of the repository.
+   *
+   * @param position position of the last event of the previous page, null for the first page.
+   */
+  public static Specification<PointOfDeliveryEvent> listedAfter(UUID destinationId,
+      Direction direction, KeysetCursor position) {
+    return Specification.where(hasDestinationId(destinationId))
+        .and(after(direction, position));
+  }
+
+  /**
+   * Events of any of the destinations that come after the cursor position, see
+   * {@link #listedAfter(UUID, Direction, KeysetCursor)}. The destinations are matched with a
+   * single IN on the leading column of the destination and receiving date index.
+   */
+  public static Specification<PointOfDeliveryEvent> listedAfter(
+      Collection<UUID> destinationIds, Direction direction, KeysetCursor position) {
+    return Specification.where(hasDestinationIdIn(destinationIds))
+        .and(after(direction, position));
+  }
+
+  static Specification<PointOfDeliveryEvent> after(Direction direction, KeysetCursor position) {
+    if (position == null) {
+      return null;
+    }
+    ZonedDateTime receivingDate = position.getTimestamp();
+    UUID id = position.getId();
+    return (root, query, builder) -> direction.isAscending()
+        ? builder.or(
+            builder.greaterThan(root.get(RECEIVING_DATE), receivingDate),
+            builder.and(builder.equal(root.get(RECEIVING_DATE), receivingDate),
+                builder.greaterThan(root.get(ID), id)))
+        : builder.or(
+            builder.lessThan(root.get(RECEIVING_DATE), receivingDate),
+            builder.and(builder.equal(root.get(RECEIVING_DATE), receivingDate),
+                builder.lessThan(root.get(ID), id)));
+  }
+
+  static Specification<PointOfDeliveryEvent> hasDestinationId(UUID destinationId) {
+    return destinationId == null ? null
+        : (root, query, builder) -> builder.equal(root.get(DESTINATION_ID), destinationId);
+  }
+
+  static Specification<PointOfDeliveryEvent> hasDestinationIdIn(
+      Collection<UUID> destinationIds) {
+    return (root, query, builder) -> root.get(DESTINATION_ID).in(destinationIds);
+  }
+
+  static Specification<PointOfDeliveryEvent> hasSourceId(UUID sourceId) {
+    return sourceId == null ? null
+        : (root, query, builder) -> builder.equal(root.get(SOURCE_ID), sourceId);
+  }
+
+  /**
+   * Matches the text anywhere in the attribute, ignoring case. The lower-cased attribute is
+   * covered by a trigram index created by a migration.
+   */
+  static Specification<PointOfDeliveryEvent> containsText(String attribute, String text) {
+    if (text == null || text.isEmpty()) {
+      return null;
+    }
+    String pattern = "%" + escapeLike(text.toLowerCase()) + "%";
+    return (root, query, builder) -> builder.like(
+        builder.lower(root.get(attribute)), pattern, LIKE_ESCAPE);
+  }
+
+  static Specification<PointOfDeliveryEvent> receivedBetween(ZonedDateTime from,
+      ZonedDateTime to) {
+    if (from == null && to == null) {
+      return null;
+    }
+    return (root, query, builder) -> {
+      Predicate predicate = builder.conjunction();
+      if (from != null) {
+        predicate = builder.and(predicate,
+            builder.greaterThanOrEqualTo(root.get(RECEIVING_DATE), from));
+      }
+      if (to != null) {
+        predicate = builder.and(predicate,
+            builder.lessThanOrEqualTo(root.get(RECEIVING_DATE), to));
+      }
+      return predicate;
+    };
+  }
+
+  static Specification<PointOfDeliveryEvent> packedBetween(LocalDate from, LocalDate to) {
+    if (from == null && to == null) {
+      return null;
+    }
+    return (root, query, builder) -> {
+      Predicate predicate = builder.conjunction();
+      if (from != null) {
+        predicate = builder.and(predicate,
+            builder.greaterThanOrEqualTo(root.get(PACKING_DATE), from));
+      }
+      if (to != null) {
+        predicate = builder.and(predicate,
+            builder.lessThanOrEqualTo(root.get(PACKING_DATE), to));
+      }
+      return predicate;
+    };
+  }
+
+  /**
+   * Matches events with or without discrepancies, with an EXISTS subquery on the indexed
+   * foreign key, so that the discrepancies are not joined to every row.
+   */
+  static Specification<PointOfDeliveryEvent> hasDiscrepancies(Boolean hasDiscrepancies) {
+    if (hasDiscrepancies == null) {
+      return null;
+    }
+    return (root, query, builder) -> {
+      Subquery<Integer> discrepancies = query.subquery(Integer.class);
+      discrepancies.select(builder.literal(1))
+          .where(builder.equal(
+              discrepancies.from(Discrepancy.class).get(POINT_OF_DELIVERY_EVENT), root));
+      return hasDiscrepancies
+          ? builder.exists(discrepancies)
+          : builder.not(builder.exists(discrepancies));
+    };
+  }
+
+  private static String escapeLike(String text) {
+    return text
+        .replace("\\", "\\\\")
+        .replace("%", "\\%")
+        .replace("_", "\\_");
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.repository;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.openlmis.pointofdelivery.domain.event.PointOfDeliveryEventTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+
+public interface PointOfDeliveryEventTombstoneRepository extends
+        PagingAndSortingRepository<PointOfDeliveryEventTombstone, UUID> {
+
+  /**
+   * Finds tombstones of the destination created after the given position and before the given
+   * time, ordered by deletion time and id.
+   */
+  @Query("SELECT t FROM PointOfDeliveryEventTombstone t"
+      + " WHERE t.destinationId = :destinationId"
+      + " AND (t.deletedDate > :since OR (t.deletedDate = :since AND t.id > :sinceId))"
+      + " AND t.deletedDate < :until"
+      + " ORDER BY t.deletedDate, t.id")
+  List<PointOfDeliveryEventTombstone> findChanges(@Param("destinationId") UUID destinationId,
+      @Param("since") ZonedDateTime since, @Param("sinceId") UUID sinceId,
+      @Param("until") ZonedDateTime until, Pageable pageable);
+
+  /**
+   * Deletes tombstones created before the given time, and moves the horizon of each destination
+   * they belonged to up to the latest of them.
+   *
+   * @param expiredBefore time before which tombstones have expired.
+   * @return number of destinations whose horizon has moved.
+   */
+  @Modifying
+  @Query(value = "WITH expired AS ("
+      + " DELETE FROM pointofdelivery.point_of_delivery_event_tombstones"
+      + " WHERE deleteddate < :expiredBefore"
+      + " RETURNING destinationid, deleteddate)"
+      + " INSERT INTO pointofdelivery.point_of_delivery_event_tombstone_horizons AS h"
+      + " (destinationid, lastexpireddate)"
+      + " SELECT destinationid, max(deleteddate) FROM expired GROUP BY destinationid"
+      + " ON CONFLICT (destinationid) DO UPDATE SET"
+      + " lastexpireddate = greatest(h.lastexpireddate, EXCLUDED.lastexpireddate)",
+      nativeQuery = true)
+  int deleteExpired(@Param("expiredBefore") ZonedDateTime expiredBefore);
+
+  @Query("SELECT h.lastExpiredDate FROM PointOfDeliveryEventTombstoneHorizon h"
+      + " WHERE h.destinationId = :destinationId")
+  Optional<ZonedDateTime> findLastExpiredDate(@Param("destinationId") UUID destinationId);
+}
@@ -15,13 +15,106 @@
 
 package org.openlmis.pointofdelivery.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
 import org.openlmis.pointofdelivery.domain.event.PointOfDeliveryEvent;
+import org.openlmis.pointofdelivery.domain.qualitychecks.Discrepancy;
+import org.openlmis.pointofdelivery.repository.custom.PointOfDeliveryEventsRepositoryCustom;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
 
 public interface PointOfDeliveryEventsRepository extends
-        PagingAndSortingRepository<PointOfDeliveryEvent, UUID> {
+        PagingAndSortingRepository<PointOfDeliveryEvent, UUID>,
+        PointOfDeliveryEventsRepositoryCustom {
   List<PointOfDeliveryEvent> findByDestinationId(@Param("destinationId") UUID destinationId);
+
+  Slice<PointOfDeliveryEvent> findByDestinationId(@Param("destinationId") UUID destinationId,
+      Pageable pageable);
+
+  /**
+   * Streams all events of the destination, newest first, with a database cursor. The stream must
+   * be consumed inside a transaction and closed afterwards.
+   */
+  @QueryHints({
+      @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+      @QueryHint(name = HINT_READONLY, value = "true")
+  })
+  @Query("SELECT e FROM PointOfDeliveryEvent e"
+      + " WHERE e.destinationId = :destinationId"
+      + " ORDER BY e.receivingDate DESC, e.id DESC")
+  Stream<PointOfDeliveryEvent> streamByDestinationId(@Param("destinationId") UUID destinationId);
+
+  /**
+   * Finds the events with the given ids together with their discrepancies, in a single query.
+   */
+  @EntityGraph(attributePaths = "discrepancies")
+  List<PointOfDeliveryEvent> findDistinctByIdIn(Collection<UUID> ids);
+
+  /**
+   * Finds the discrepancies of the events with the given ids, without reading the events.
+   */
+  @Query("SELECT d FROM Discrepancy d WHERE d.pointOfDeliveryEvent.id IN :eventIds")
+  List<Discrepancy> findDiscrepanciesByEventIdIn(@Param("eventIds") Collection<UUID> eventIds);
+
+  @Query("SELECT e FROM PointOfDeliveryEvent e"
+      + " WHERE e.destinationId = :destinationId"
+      + " AND (e.receivingDate > :receivingDate"
+      + " OR (e.receivingDate = :receivingDate AND e.id > :id))"
+      + " ORDER BY e.receivingDate, e.id")
+  Slice<PointOfDeliveryEvent> findByDestinationIdAfter(@Param("destinationId") UUID destinationId,
+      @Param("receivingDate") ZonedDateTime receivingDate, @Param("id") UUID id,
+      Pageable pageable);
+
+  @Query("SELECT e FROM PointOfDeliveryEvent e"
+      + " WHERE e.destinationId = :destinationId"
+      + " AND (e.receivingDate < :receivingDate"
+      + " OR (e.receivingDate = :receivingDate AND e.id < :id))"
+      + " ORDER BY e.receivingDate DESC, e.id DESC")
+  Slice<PointOfDeliveryEvent> findByDestinationIdBefore(@Param("destinationId") UUID destinationId,
+      @Param("receivingDate") ZonedDateTime receivingDate, @Param("id") UUID id,
+      Pageable pageable);
+
+  /**
+   * Finds events of the destination modified after the given position and before the given time,
+   * ordered by modification time and id.
+   */
+  @Query("SELECT e FROM PointOfDeliveryEvent e"
+      + " WHERE e.destinationId = :destinationId"
+      + " AND (e.lastModified > :since OR (e.lastModified = :since AND e.id > :sinceId))"
+      + " AND e.lastModified < :until"
+      + " ORDER BY e.lastModified, e.id")
+  List<PointOfDeliveryEvent> findChanges(@Param("destinationId") UUID destinationId,
+      @Param("since") ZonedDateTime since, @Param("sinceId") UUID sinceId,
+      @Param("until") ZonedDateTime until, Pageable pageable);
+
+  @Query("SELECT e.version FROM PointOfDeliveryEvent e WHERE e.id = :id")
+  Optional<Long> findVersionById(@Param("id") UUID id);
+
+  /**
+   * Leaves a tombstone for the current destination of the event if it is about to be moved to
+   * another one, without loading the event.
+   */
+  @Modifying
+  @Query(value = "INSERT INTO pointofdelivery.point_of_delivery_event_tombstones"
+      + " (id, eventid, destinationid, deleteddate)"
+      + " SELECT :tombstoneId, id, destinationid, :deletedDate"
+      + " FROM pointofdelivery.point_of_delivery_event"
+      + " WHERE id = :id AND destinationid IS NOT NULL AND destinationid <> :destinationId",
+      nativeQuery = true)
+  int insertTombstoneIfMoved(@Param("id") UUID id, @Param("destinationId") UUID destinationId,
+      @Param("tombstoneId") UUID tombstoneId, @Param("deletedDate") ZonedDateTime deletedDate);
 }
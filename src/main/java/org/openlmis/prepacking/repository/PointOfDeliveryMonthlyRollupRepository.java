@@ -0,0 +1,158 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.openlmis.pointofdelivery.domain.event.PointOfDeliveryMonthlyRollup;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+public interface PointOfDeliveryMonthlyRollupRepository extends
+    Repository<PointOfDeliveryMonthlyRollup, PointOfDeliveryMonthlyRollup.Key> {
+
+  String NONE = "CAST('00000000-0000-0000-0000-000000000000' AS uuid)";
+
+  String ROLLUP_COLUMNS = "destinationid, sourceid, month, eventcount,"
+      + " cartonsquantityonwaybill, cartonsquantityshipped,"
+      + " cartonsquantityaccepted, cartonsquantityrejected,"
+      + " containersquantityonwaybill, containersquantityshipped,"
+      + " containersquantityaccepted, containersquantityrejected, discrepancycount";
+
+  String ROLLUP_KEY = "coalesce(e.destinationid, " + NONE + ") AS destinationid,"
+      + " coalesce(e.sourceid, " + NONE + ") AS sourceid,"
+      + " CAST(date_trunc('month', e.receivingdate) AS date) AS month";
+
+  /**
+   * Adds the events to the totals of their months, or with sign -1 takes them out. It is called
+   * before an event is changed or deleted to take out what it contributed, and once it has been
+   * written to add it again. The events are not locked: the write that follows checks the
+   * version of the event, so a transaction that took out values another one has changed in the
+   * meantime fails and is rolled back. Rollups are upserted in the order of their key, so that
+   * concurrent writers lock them in the same order.
+   *
+   * @param ids  ids of the events.
+   * @param sign 1 to add the events, -1 to take them out.
+   * @return number of rollups changed.
+   */
+  @Modifying(flushAutomatically = true)
+  @Query(value = "WITH events AS ("
+      + " SELECT " + ROLLUP_KEY + ","
+      + " e.cartonsquantityonwaybill, e.cartonsquantityshipped,"
+      + " e.cartonsquantityaccepted, e.cartonsquantityrejected,"
+      + " e.containersquantityonwaybill, e.containersquantityshipped,"
+      + " e.containersquantityaccepted, e.containersquantityrejected,"
+      + " (SELECT count(*) FROM pointofdelivery.point_of_delivery_event_discrepencies d"
+      + " WHERE d.pointofdeliveryeventid = e.id) AS discrepancies"
+      + " FROM pointofdelivery.point_of_delivery_event e"
+      + " WHERE e.id IN (:ids))"
+      + " INSERT INTO pointofdelivery.point_of_delivery_event_monthly_rollups AS r"
+      + " (" + ROLLUP_COLUMNS + ")"
+      + " SELECT destinationid, sourceid, month, :sign * count(*),"
+      + " :sign * coalesce(sum(cartonsquantityonwaybill), 0),"
+      + " :sign * coalesce(sum(cartonsquantityshipped), 0),"
+      + " :sign * coalesce(sum(cartonsquantityaccepted), 0),"
+      + " :sign * coalesce(sum(cartonsquantityrejected), 0),"
+      + " :sign * coalesce(sum(containersquantityonwaybill), 0),"
+      + " :sign * coalesce(sum(containersquantityshipped), 0),"
+      + " :sign * coalesce(sum(containersquantityaccepted), 0),"
+      + " :sign * coalesce(sum(containersquantityrejected), 0),"
+      + " :sign * sum(discrepancies)"
+      + " FROM events GROUP BY destinationid, sourceid, month"
+      + " ORDER BY destinationid, sourceid, month"
+      + " ON CONFLICT (destinationid, sourceid, month) DO UPDATE SET"
+      + " eventcount = r.eventcount + EXCLUDED.eventcount,"
+      + " cartonsquantityonwaybill = r.cartonsquantityonwaybill"
+      + " + EXCLUDED.cartonsquantityonwaybill,"
+      + " cartonsquantityshipped = r.cartonsquantityshipped + EXCLUDED.cartonsquantityshipped,"
+      + " cartonsquantityaccepted = r.cartonsquantityaccepted"
+      + " + EXCLUDED.cartonsquantityaccepted,"
+      + " cartonsquantityrejected = r.cartonsquantityrejected"
+      + " + EXCLUDED.cartonsquantityrejected,"
+      + " containersquantityonwaybill = r.containersquantityonwaybill"
+      + " + EXCLUDED.containersquantityonwaybill,"
+      + " containersquantityshipped = r.containersquantityshipped"
+      + " + EXCLUDED.containersquantityshipped,"
+      + " containersquantityaccepted = r.containersquantityaccepted"
+      + " + EXCLUDED.containersquantityaccepted,"
+      + " containersquantityrejected = r.containersquantityrejected"
+      + " + EXCLUDED.containersquantityrejected,"
+      + " discrepancycount = r.discrepancycount + EXCLUDED.discrepancycount",
+      nativeQuery = true)
+  int addEvents(@Param("ids") Collection<UUID> ids, @Param("sign") int sign);
+
+  /**
+   * Locks the rollups against changes by other transactions until this one ends. Writers that
+   * have changed rollups before are waited for, writers that change them later wait.
+   */
+  @Modifying
+  @Query(value = "LOCK TABLE pointofdelivery.point_of_delivery_event_monthly_rollups"
+      + " IN EXCLUSIVE MODE", nativeQuery = true)
+  void lock();
+
+  @Query(value = "SELECT EXISTS (SELECT 1"
+      + " FROM pointofdelivery.point_of_delivery_event_monthly_rollups)", nativeQuery = true)
+  boolean existsAnyRollup();
+
+  @Modifying
+  @Query(value = "DELETE FROM pointofdelivery.point_of_delivery_event_monthly_rollups",
+      nativeQuery = true)
+  int deleteAllRollups();
+
+  /**
+   * Computes all rollups from the events.
+   *
+   * @return number of rollups inserted.
+   */
+  @Modifying(flushAutomatically = true)
+  @Query(value = "INSERT INTO pointofdelivery.point_of_delivery_event_monthly_rollups"
+      + " (" + ROLLUP_COLUMNS + ")"
+      + " SELECT " + ROLLUP_KEY + ", count(*),"
+      + " coalesce(sum(e.cartonsquantityonwaybill), 0),"
+      + " coalesce(sum(e.cartonsquantityshipped), 0),"
+      + " coalesce(sum(e.cartonsquantityaccepted), 0),"
+      + " coalesce(sum(e.cartonsquantityrejected), 0),"
+      + " coalesce(sum(e.containersquantityonwaybill), 0),"
+      + " coalesce(sum(e.containersquantityshipped), 0),"
+      + " coalesce(sum(e.containersquantityaccepted), 0),"
+      + " coalesce(sum(e.containersquantityrejected), 0),"
+      + " coalesce(sum(d.discrepancies), 0)"
+      + " FROM pointofdelivery.point_of_delivery_event e"
+      + " LEFT JOIN (SELECT pointofdeliveryeventid, count(*) AS discrepancies"
+      + " FROM pointofdelivery.point_of_delivery_event_discrepencies"
+      + " GROUP BY pointofdeliveryeventid) d ON d.pointofdeliveryeventid = e.id"
+      + " GROUP BY 1, 2, 3",
+      nativeQuery = true)
+  int insertAllRollups();
+
+  @Query("SELECT r FROM PointOfDeliveryMonthlyRollup r"
+      + " WHERE r.destinationId = :destinationId AND r.month BETWEEN :from AND :to"
+      + " AND r.eventCount > 0"
+      + " ORDER BY r.month, r.sourceId")
+  List<PointOfDeliveryMonthlyRollup> findByDestinationId(
+      @Param("destinationId") UUID destinationId,
+      @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+  @Query("SELECT r FROM PointOfDeliveryMonthlyRollup r"
+      + " WHERE r.month BETWEEN :from AND :to AND r.eventCount > 0"
+      + " ORDER BY r.month, r.destinationId, r.sourceId")
+  List<PointOfDeliveryMonthlyRollup> findAll(@Param("from") LocalDate from,
+      @Param("to") LocalDate to);
+}
@@ -0,0 +1,95 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.repository.custom;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import javax.persistence.Tuple;
+import org.openlmis.pointofdelivery.domain.event.PointOfDeliveryEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface PointOfDeliveryEventsRepositoryCustom {
+
+  /**
+   * Sets the given attributes of the event with a single UPDATE, without loading it. The version
+   * is incremented and the last modification date set, as if the event was updated through the
+   * persistence context. The event is locked first, so that the destination it is moved from is
+   * returned along with the one it is in.
+   *
+   * @param id              event id.
+   * @param expectedVersion version the event has to be at, null to update any version.
+   * @param attributes      values by attribute name.
+   * @param lastModified    new last modification date.
+   * @return destinations of the event before and after the update, either of them null if the
+   *         event has no destination, or an empty list if there is no such event at the expected
+   *         version.
+   */
+  List<UUID> updateAttributes(UUID id, Long expectedVersion, Map<String, Object> attributes,
+      ZonedDateTime lastModified);
+
+  /**
+   * Deletes the event in a single statement, leaving a tombstone for its destination. Its
+   * discrepancies are removed by the database through the ON DELETE CASCADE foreign key.
+   *
+   * @param id          event id.
+   * @param version     version the event has to be at.
+   * @param tombstoneId id of the tombstone.
+   * @param deletedDate deletion date of the tombstone.
+   * @return destination of the deleted event, null if it had none, or an empty list if there is
+   *         no such event at the version.
+   */
+  List<UUID> deleteLeavingTombstone(UUID id, long version, UUID tombstoneId,
+      ZonedDateTime deletedDate);
+
+  /**
+   * Finds when the events of the destination were last changed: the latest modification of one
+   * of its events or the latest removal of one, whichever is later. Both are read from the top
+   * of the destination's index on the events and on the tombstones, without reading the events.
+   *
+   * @param destinationId destination id.
+   * @return time of the latest change, or null if the destination has never had events.
+   */
+  ZonedDateTime findLastChangeByDestinationId(UUID destinationId);
+
+  /**
+   * Finds a page of events matching the specification, in the order of the pageable. Unlike
+   * {@code JpaSpecificationExecutor}, it does not count all matching events, one more event is
+   * read instead to tell whether there is a next page.
+   *
+   * @param specification criteria of the events, null for all events.
+   * @param pageable      page number, size and sort.
+   * @return the page of events.
+   */
+  Slice<PointOfDeliveryEvent> findSlice(Specification<PointOfDeliveryEvent> specification,
+      Pageable pageable);
+
+  /**
+   * Finds a page of events matching the specification like {@link #findSlice}, reading only the
+   * given attributes instead of whole events. Discrepancies are not read.
+   *
+   * @param specification criteria of the events, null for all events.
+   * @param attributes    names of the attributes to read, each one the alias of its element.
+   * @param pageable      page number, size and sort.
+   * @return the page of attribute tuples.
+   */
+  Slice<Tuple> findAttributesSlice(Specification<PointOfDeliveryEvent> specification,
+      Collection<String> attributes, Pageable pageable);
+}
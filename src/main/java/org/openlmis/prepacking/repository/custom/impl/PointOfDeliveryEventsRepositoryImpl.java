@@ -0,0 +1,200 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.repository.custom.impl;
+
+import static java.util.stream.Collectors.toList;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.PostgresUUIDType;
+import org.openlmis.pointofdelivery.domain.event.PointOfDeliveryEvent;
+import org.openlmis.pointofdelivery.domain.event.PointOfDeliveryEventTombstone;
+import org.openlmis.pointofdelivery.repository.custom.PointOfDeliveryEventsRepositoryCustom;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+public class PointOfDeliveryEventsRepositoryImpl implements PointOfDeliveryEventsRepositoryCustom {
+
+  private static final String EVENT_TABLE = "pointofdelivery.point_of_delivery_event";
+
+  private static final String ID = "id";
+  private static final String VERSION = "version";
+  private static final String LAST_MODIFIED = "lastModified";
+  private static final String DESTINATION_ID = "destinationId";
+  private static final String DELETED_DATE = "deletedDate";
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public List<UUID> updateAttributes(UUID id, Long expectedVersion,
+      Map<String, Object> attributes, ZonedDateTime lastModified) {
+    // columns are named after the attributes, see CustomPhysicalNamingStrategy
+    StringBuilder sql = new StringBuilder("UPDATE ").append(EVENT_TABLE).append(" e SET ");
+    attributes.keySet().forEach(attribute ->
+        sql.append(attribute).append(" = :").append(attribute).append(", "));
+    sql.append("version = e.version + 1, lastmodified = :lastModified")
+        .append(" FROM (SELECT id, destinationid FROM ").append(EVENT_TABLE)
+        .append(" WHERE id = :id FOR UPDATE) previous")
+        .append(" WHERE e.id = previous.id");
+    if (expectedVersion != null) {
+      sql.append(" AND e.version = :expectedVersion");
+    }
+    sql.append(" RETURNING previous.destinationid AS previousdestinationid, e.destinationid");
+
+    NativeQuery<?> update = createNativeQuery(sql.toString())
+        .addScalar("previousdestinationid", PostgresUUIDType.INSTANCE)
+        .addScalar("destinationid", PostgresUUIDType.INSTANCE);
+    attributes.forEach(update::setParameter);
+    update.setParameter("lastModified", lastModified);
+    update.setParameter(ID, id);
+    if (expectedVersion != null) {
+      update.setParameter("expectedVersion", expectedVersion);
+    }
+
+    return update.getResultList().stream()
+        .flatMap(row -> Arrays.stream((Object[]) row))
+        .map(UUID.class::cast)
+        .collect(toList());
+  }
+
+  @Override
+  public List<UUID> deleteLeavingTombstone(UUID id, long version, UUID tombstoneId,
+      ZonedDateTime deletedDate) {
+    NativeQuery<?> delete = createNativeQuery("WITH deleted AS ("
+        + " DELETE FROM " + EVENT_TABLE
+        + " WHERE id = :id AND version = :version"
+        + " RETURNING id, destinationid),"
+        + " tombstone AS ("
+        + " INSERT INTO pointofdelivery.point_of_delivery_event_tombstones"
+        + " (id, eventid, destinationid, deleteddate)"
+        + " SELECT :tombstoneId, id, destinationid, :deletedDate FROM deleted"
+        + " WHERE destinationid IS NOT NULL)"
+        + " SELECT destinationid FROM deleted")
+        .addScalar("destinationid", PostgresUUIDType.INSTANCE);
+    delete.setParameter(ID, id);
+    delete.setParameter(VERSION, version);
+    delete.setParameter("tombstoneId", tombstoneId);
+    delete.setParameter("deletedDate", deletedDate);
+
+    return delete.getResultList().stream()
+        .map(UUID.class::cast)
+        .collect(toList());
+  }
+
+  // Statement on the events, run once pending changes of events have been flushed
+  private NativeQuery<?> createNativeQuery(String sql) {
+    return entityManager.createNativeQuery(sql)
+        .unwrap(NativeQuery.class)
+        .addSynchronizedEntityClass(PointOfDeliveryEvent.class);
+  }
+
+  @Override
+  public ZonedDateTime findLastChangeByDestinationId(UUID destinationId) {
+    CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+
+    CriteriaQuery<ZonedDateTime> events = builder.createQuery(ZonedDateTime.class);
+    Root<PointOfDeliveryEvent> event = events.from(PointOfDeliveryEvent.class);
+    events.select(builder.greatest(event.<ZonedDateTime>get(LAST_MODIFIED)));
+    events.where(builder.equal(event.get(DESTINATION_ID), destinationId));
+    ZonedDateTime lastModified = entityManager.createQuery(events).getSingleResult();
+
+    CriteriaQuery<ZonedDateTime> tombstones = builder.createQuery(ZonedDateTime.class);
+    Root<PointOfDeliveryEventTombstone> tombstone =
+        tombstones.from(PointOfDeliveryEventTombstone.class);
+    tombstones.select(builder.greatest(tombstone.<ZonedDateTime>get(DELETED_DATE)));
+    tombstones.where(builder.equal(tombstone.get(DESTINATION_ID), destinationId));
+    ZonedDateTime lastDeleted = entityManager.createQuery(tombstones).getSingleResult();
+
+    return latest(lastModified, lastDeleted);
+  }
+
+  @Override
+  public Slice<PointOfDeliveryEvent> findSlice(Specification<PointOfDeliveryEvent> specification,
+      Pageable pageable) {
+    CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+    CriteriaQuery<PointOfDeliveryEvent> query = builder.createQuery(PointOfDeliveryEvent.class);
+    Root<PointOfDeliveryEvent> root = query.from(PointOfDeliveryEvent.class);
+
+    Predicate where = specification == null
+        ? null
+        : specification.toPredicate(root, query, builder);
+    if (where != null) {
+      query.where(where);
+    }
+    query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, builder));
+
+    List<PointOfDeliveryEvent> events = entityManager.createQuery(query)
+        .setFirstResult((int) pageable.getOffset())
+        .setMaxResults(pageable.getPageSize() + 1)
+        .getResultList();
+
+    boolean hasNext = events.size() > pageable.getPageSize();
+    return new SliceImpl<>(hasNext ? events.subList(0, pageable.getPageSize()) : events,
+        pageable, hasNext);
+  }
+
+  @Override
+  public Slice<Tuple> findAttributesSlice(Specification<PointOfDeliveryEvent> specification,
+      Collection<String> attributes, Pageable pageable) {
+    CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Tuple> query = builder.createTupleQuery();
+    Root<PointOfDeliveryEvent> root = query.from(PointOfDeliveryEvent.class);
+
+    query.multiselect(attributes.stream()
+        .<Selection<?>>map(attribute -> root.get(attribute).alias(attribute))
+        .collect(toList()));
+    Predicate where = specification == null
+        ? null
+        : specification.toPredicate(root, query, builder);
+    if (where != null) {
+      query.where(where);
+    }
+    query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, builder));
+
+    List<Tuple> tuples = entityManager.createQuery(query)
+        .setFirstResult((int) pageable.getOffset())
+        .setMaxResults(pageable.getPageSize() + 1)
+        .getResultList();
+
+    boolean hasNext = tuples.size() > pageable.getPageSize();
+    return new SliceImpl<>(hasNext ? tuples.subList(0, pageable.getPageSize()) : tuples,
+        pageable, hasNext);
+  }
+
+  private ZonedDateTime latest(ZonedDateTime first, ZonedDateTime second) {
+    if (first == null) {
+      return second;
+    }
+    return second == null || first.isAfter(second) ? first : second;
+  }
+}
@@ -18,6 +18,10 @@ package org.openlmis.pointofdelivery.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.type.MapType;
 import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.lang.reflect.Array;
 import java.net.URI;
 import java.util.ArrayList;
@@ -28,8 +32,22 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletResponse;
 import org.apache.commons.lang.StringUtils;
 import org.openlmis.pointofdelivery.dto.referencedata.ResultDto;
 import org.openlmis.pointofdelivery.service.referencedata.DataRetrievalException;
@@ -42,31 +60,79 @@ import org.openlmis.pointofdelivery.util.RequestParameters;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestOperations;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 @SuppressWarnings("PMD.TooManyMethods")
 public abstract class BaseCommunicationService<T> {
+  private static final String COALESCED_METRIC = "service.requests.coalesced";
+  private static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
   protected final Logger logger = LoggerFactory.getLogger(getClass());
 
+  // requests of findOne being sent, by result type and uri
+  private final ConcurrentMap<String, CompletableFuture<T>> inFlightCalls =
+      new ConcurrentHashMap<>();
+
   @Autowired
   private AuthService authService;
 
   @Autowired
   private ObjectMapper objectMapper;
 
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Autowired
+  private ServiceGuards serviceGuards;
+
+  @Value("${request.stale.maxSize}")
+  private long staleMaxSize;
+
+  @Value("${request.stale.ttlMinutes}")
+  private long staleTtlMinutes;
+
+  // objects last found by id, to answer with while the service is unavailable
+  private Cache<UUID, T> staleObjects;
+
   @Value("${request.maxUrlLength}")
   private int maxUrlLength;
 
-  private RestOperations restTemplate = new RestTemplate();
+  @Value("${request.maxParallelChunks}")
+  private int maxParallelChunks;
+
+  @Autowired
+  @Qualifier("serviceRequestExecutor")
+  private ExecutorService requestExecutor;
+
+  @Autowired
+  @Qualifier("serviceRestTemplate")
+  private RestOperations restTemplate;
+
+  @PostConstruct
+  void initStaleCache() {
+    staleObjects = CacheBuilder.newBuilder()
+        .maximumSize(staleMaxSize)
+        .expireAfterWrite(staleTtlMinutes, TimeUnit.MINUTES)
+        .build();
+  }
+
+  /**
+   * Name of the other service, e.g. referencedata, calls to which are guarded together.
+   */
+  protected abstract String getServiceName();
 
   protected abstract String getServiceUrl();
 
@@ -77,12 +143,41 @@ public abstract class BaseCommunicationService<T> {
   protected abstract Class<T[]> getArrayResultClass();
 
   /**
-   * Return one object from service.
+   * Return one object from service. While the service is unavailable, the object last found
+   * with this id is returned instead, if there is one, and the response to the current request
+   * is marked stale with a Warning header.
    *
    * @param id UUID of requesting object.
    * @return Requesting reference data object.
    */
   public T findOne(UUID id) {
+    try {
+      T found = retrieveOne(id);
+      if (null != found) {
+        staleObjects.put(id, found);
+      }
+      return found;
+    } catch (RuntimeException ex) {
+      T stale = ServiceGuard.isUnavailable(ex) ? staleObjects.getIfPresent(id) : null;
+      if (null == stale) {
+        throw ex;
+      }
+
+      logger.warn("{} service is unavailable, using stale {} {}: {}",
+          getServiceName(), getResultClass().getSimpleName(), id, ex.getMessage());
+      meterRegistry.counter("service.requests.stale", "service", getServiceName()).increment();
+      markResponseStale();
+      return stale;
+    }
+  }
+
+  /**
+   * Retrieves one object from service by id.
+   *
+   * @param id UUID of requesting object.
+   * @return Requesting reference data object, or null if it does not exist.
+   */
+  protected T retrieveOne(UUID id) {
     return findOne(id.toString(), RequestParameters.init());
   }
 
@@ -108,7 +203,8 @@ public abstract class BaseCommunicationService<T> {
   }
 
   /**
-   * Return one object from service.
+   * Return one object from service. Concurrent calls for the same object share a single
+   * request and its response or error, counted as service.requests.coalesced.
    *
    * @param resourceUrl Endpoint url.
    * @param parameters  Map of query parameters.
@@ -122,9 +218,62 @@ public abstract class BaseCommunicationService<T> {
         .init()
         .setAll(parameters);
 
+    URI uri = RequestHelper.createUri(url, params);
+    return coalesce(type.getName() + ' ' + uri, () -> doFindOne(uri, type, parameters));
+  }
+
+  /**
+   * Key under which retrievals of the object with the given id are coalesced. It is the same
+   * key {@link #findOne(String, RequestParameters)} uses for the object, so that subclasses
+   * retrieving objects another way still share calls with it.
+   *
+   * @param id UUID of the object.
+   * @return key of the object.
+   */
+  protected String getCoalescingKey(UUID id) {
+    URI uri = RequestHelper.createUri(
+        getServiceUrl() + getUrl() + id, RequestParameters.init());
+    return getResultClass().getName() + ' ' + uri;
+  }
+
+  /**
+   * Runs the call, unless a call with the same key is already running in another thread, in
+   * which case that call's response or error is shared, counted as service.requests.coalesced.
+   *
+   * @param key  identifies the retrieved object.
+   * @param call retrieves the object.
+   * @return the retrieved object.
+   */
+  protected T coalesce(String key, Supplier<T> call) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    CompletableFuture<T> inFlightCall = inFlightCalls.putIfAbsent(key, future);
+
+    if (null != inFlightCall) {
+      // the same object is being retrieved by another thread already, wait for its response
+      meterRegistry.counter(COALESCED_METRIC, "service", getServiceName()).increment();
+      try {
+        return inFlightCall.join();
+      } catch (CompletionException ex) {
+        throw Throwables.propagate(ex.getCause());
+      }
+    }
+
+    try {
+      T result = call.get();
+      future.complete(result);
+      return result;
+    } catch (RuntimeException | Error ex) {
+      future.completeExceptionally(ex);
+      throw ex;
+    } finally {
+      inFlightCalls.remove(key, future);
+    }
+  }
+
+  private T doFindOne(URI uri, Class<T> type, RequestParameters parameters) {
     try {
       return runWithTokenRetry(() -> restTemplate.exchange(
-          RequestHelper.createUri(url, params),
+          uri,
           HttpMethod.GET,
           createEntity(),
           type)).getBody();
@@ -171,10 +320,12 @@ public abstract class BaseCommunicationService<T> {
     logger.info("permissionStrings url: {}", url);
 
     try {
-      RequestHeaders headers = RequestHeaders.init().setIfNoneMatch(etag);
-      ResponseEntity<P[]> response = restTemplate.exchange(
-          url, HttpMethod.GET, RequestHelper.createEntity(null, addAuthHeader(headers)), type
-      );
+      ResponseEntity<P[]> response = runWithTokenRetry(() -> restTemplate.exchange(
+          url, HttpMethod.GET,
+          RequestHelper.createEntity(null,
+              addAuthHeader(RequestHeaders.init().setIfNoneMatch(etag))),
+          type
+      ));
       logger.info("permissionStrings responseEntity: {}", response);
 
       if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
@@ -272,14 +423,12 @@ public abstract class BaseCommunicationService<T> {
     TypeFactory factory = objectMapper.getTypeFactory();
     MapType mapType = factory.constructMapType(HashMap.class, keyType, valueType);
 
-    HttpEntity<Object> entity = createEntity();
-    List<Map<K, V>> maps = new ArrayList<>();
-
-    for (URI uri : RequestHelper.splitRequest(url, parameters, maxUrlLength)) {
-      ResponseEntity<Map> response = restTemplate.exchange(uri, HttpMethod.GET, entity, Map.class);
-      Map<K, V> map = objectMapper.convertValue(response.getBody(), mapType);
-      maps.add(map);
-    }
+    List<Map<K, V>> maps = serviceGuards.get(getServiceName()).call(() -> {
+      HttpEntity<Object> entity = createEntity();
+      return exchangeAll(RequestHelper.splitRequest(url, parameters, maxUrlLength),
+          uri -> objectMapper.convertValue(
+              restTemplate.exchange(uri, HttpMethod.GET, entity, Map.class).getBody(), mapType));
+    });
 
     return Merger
         .ofMaps(maps)
@@ -290,11 +439,8 @@ public abstract class BaseCommunicationService<T> {
   private <E> ResponseEntity<E[]> doListRequest(String url, RequestParameters parameters,
                                                 HttpMethod method, Class<E[]> type) {
     HttpEntity<Object> entity = createEntity();
-    List<E[]> arrays = new ArrayList<>();
-
-    for (URI uri : RequestHelper.splitRequest(url, parameters, maxUrlLength)) {
-      arrays.add(restTemplate.exchange(uri, method, entity, type).getBody());
-    }
+    List<E[]> arrays = exchangeAll(RequestHelper.splitRequest(url, parameters, maxUrlLength),
+        uri -> restTemplate.exchange(uri, method, entity, type).getBody());
 
     E[] body = Merger
         .ofArrays(arrays)
@@ -312,11 +458,8 @@ public abstract class BaseCommunicationService<T> {
     HttpEntity<Object> entity = createEntity(payload);
     ParameterizedTypeReference<PageDto<E>> parameterizedType =
         new DynamicPageTypeReference<>(type);
-    List<PageDto<E>> pages = new ArrayList<>();
-
-    for (URI uri : RequestHelper.splitRequest(url, parameters, maxUrlLength)) {
-      pages.add(restTemplate.exchange(uri, method, entity, parameterizedType).getBody());
-    }
+    List<PageDto<E>> pages = exchangeAll(RequestHelper.splitRequest(url, parameters, maxUrlLength),
+        uri -> restTemplate.exchange(uri, method, entity, parameterizedType).getBody());
 
     PageDto<E> body = Merger
         .ofPages(pages)
@@ -326,6 +469,89 @@ public abstract class BaseCommunicationService<T> {
     return new ResponseEntity<>(body, HttpStatus.OK);
   }
 
+  /**
+   * Calls all chunks of a request split by {@link RequestHelper#splitRequest} and returns their
+   * results in the order of the chunks, to be merged by {@link Merger}. Up to the configured
+   * number of chunks are called at the same time, one of them on the calling thread, so that a
+   * request of many ids takes about as long as its slowest chunk. The calling thread is already
+   * in the service bulkhead, every other thread takes a place of its own and is not started when
+   * there is none free. When a chunk fails, chunks not started yet are skipped and the first
+   * failure is thrown.
+   *
+   * @param uris     chunks of the request.
+   * @param exchange call of a single chunk.
+   * @return results of the chunks.
+   */
+  private <R> List<R> exchangeAll(URI[] uris, Function<URI, R> exchange) {
+    if (uris.length == 1) {
+      return Collections.singletonList(exchange.apply(uris[0]));
+    }
+
+    AtomicReferenceArray<R> results = new AtomicReferenceArray<>(uris.length);
+    AtomicInteger next = new AtomicInteger();
+    Runnable worker = () -> {
+      try {
+        for (int i = next.getAndIncrement(); i < uris.length; i = next.getAndIncrement()) {
+          results.set(i, exchange.apply(uris[i]));
+        }
+      } catch (RuntimeException ex) {
+        next.set(uris.length);
+        throw ex;
+      }
+    };
+
+    // when all threads are busy, the executor runs the worker on the calling thread instead
+    ServiceGuard guard = serviceGuards.get(getServiceName());
+    List<Future<?>> helpers = new ArrayList<>();
+    for (int i = 1; i < Math.min(maxParallelChunks, uris.length)
+        && guard.tryAcquireParallel(); i++) {
+      helpers.add(requestExecutor.submit(() -> {
+        try {
+          worker.run();
+        } finally {
+          guard.releaseParallel();
+        }
+      }));
+    }
+
+    RuntimeException failure = null;
+    try {
+      worker.run();
+    } catch (RuntimeException ex) {
+      failure = ex;
+    }
+    for (Future<?> helper : helpers) {
+      RuntimeException helperFailure = await(helper);
+      failure = failure == null ? helperFailure : failure;
+    }
+    if (failure != null) {
+      throw failure;
+    }
+
+    List<R> list = new ArrayList<>(uris.length);
+    for (int i = 0; i < uris.length; i++) {
+      list.add(results.get(i));
+    }
+    return list;
+  }
+
+  private RuntimeException await(Future<?> helper) {
+    try {
+      helper.get();
+      return null;
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return new IllegalStateException("Interrupted while waiting for a request", ex);
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof Error) {
+        throw (Error) ex.getCause();
+      }
+      return ex.getCause() instanceof RuntimeException
+          ? (RuntimeException) ex.getCause()
+          : new IllegalStateException(ex.getCause());
+    }
+  }
+
   private DataRetrievalException buildDataRetrievalException(HttpStatusCodeException ex) {
     return new DataRetrievalException(getResultClass().getSimpleName(), ex);
   }
@@ -353,15 +579,27 @@ public abstract class BaseCommunicationService<T> {
   }
 
   protected <P> ResponseEntity<P> runWithTokenRetry(HttpTask<P> task) {
-    try {
-      return task.run();
-    } catch (HttpStatusCodeException ex) {
-      if (HttpStatus.UNAUTHORIZED == ex.getStatusCode()) {
-        // the token has (most likely) expired - clear the cache and retry once
-        authService.clearTokenCache();
+    return serviceGuards.get(getServiceName()).call(() -> {
+      try {
         return task.run();
+      } catch (HttpStatusCodeException ex) {
+        if (HttpStatus.UNAUTHORIZED == ex.getStatusCode()) {
+          // the token has (most likely) expired - clear the cache and retry once
+          authService.clearTokenCache();
+          return task.run();
+        }
+        throw ex;
+      }
+    });
+  }
+
+  private static void markResponseStale() {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes instanceof ServletRequestAttributes) {
+      HttpServletResponse response = ((ServletRequestAttributes) attributes).getResponse();
+      if (null != response && !response.containsHeader(HttpHeaders.WARNING)) {
+        response.addHeader(HttpHeaders.WARNING, STALE_WARNING);
       }
-      throw ex;
     }
   }
 
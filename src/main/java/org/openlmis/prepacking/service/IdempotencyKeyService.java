@@ -0,0 +1,179 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.service;
+
+import static org.openlmis.pointofdelivery.i18n.MessageKeys.ERROR_IDEMPOTENCY_KEY_IN_USE;
+import static org.openlmis.pointofdelivery.i18n.MessageKeys.ERROR_IDEMPOTENCY_KEY_TOO_LONG;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.Clock;
+import java.time.ZonedDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import org.openlmis.pointofdelivery.domain.idempotency.IdempotencyKey;
+import org.openlmis.pointofdelivery.exception.ConflictMessageException;
+import org.openlmis.pointofdelivery.exception.ValidationMessageException;
+import org.openlmis.pointofdelivery.repository.IdempotencyKeyRepository;
+import org.openlmis.pointofdelivery.util.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps track of idempotency keys sent with requests that create point of delivery events, so
+ * that a retried request gets the originally created event back instead of creating a duplicate.
+ * Recently used keys are held in a bounded in-memory cache in front of the database table, which
+ * is what guarantees correctness when several instances of the service are running.
+ */
+@Service
+public class IdempotencyKeyService {
+  private static final Logger LOGGER = LoggerFactory.getLogger(IdempotencyKeyService.class);
+
+  @Autowired
+  private IdempotencyKeyRepository idempotencyKeyRepository;
+
+  @Autowired
+  private Clock clock;
+
+  @Value("${pointofdelivery.idempotency.ttlHours}")
+  private long ttlHours;
+
+  @Value("${pointofdelivery.idempotency.cacheSize}")
+  private long cacheSize;
+
+  // Keys with their event and creation date, so that they expire as they do in the database
+  private Cache<IdempotencyKey.Key, IdempotencyKey> cache;
+
+  @PostConstruct
+  void init() {
+    cache = CacheBuilder.newBuilder()
+        .maximumSize(cacheSize)
+        .expireAfterWrite(ttlHours, TimeUnit.HOURS)
+        .build();
+  }
+
+  /**
+   * Returns the id of the event already created for the given key. If the key has not been used
+   * yet, it is claimed for the current transaction, in which case the caller is expected to create
+   * the event and {@link #register(String, UUID)} it. Keys are looked up among the keys of the
+   * user or API client the request is authenticated as.
+   *
+   * @param key idempotency key sent by the client.
+   * @return id of the previously created event, or empty if the key has just been claimed.
+   * @throws ConflictMessageException if the key is held by a request still being processed.
+   */
+  public Optional<UUID> claimOrReplay(String key) {
+    if (key.length() > IdempotencyKey.MAX_LENGTH) {
+      throw new ValidationMessageException(
+          new Message(ERROR_IDEMPOTENCY_KEY_TOO_LONG, IdempotencyKey.MAX_LENGTH));
+    }
+
+    IdempotencyKey.Key ownedKey = new IdempotencyKey.Key(getCurrentOwner(), key);
+    ZonedDateTime now = ZonedDateTime.now(clock);
+    ZonedDateTime expiredBefore = now.minusHours(ttlHours);
+
+    Optional<UUID> eventId = findEventId(ownedKey, expiredBefore);
+    if (eventId.isPresent()) {
+      return eventId;
+    }
+
+    if (idempotencyKeyRepository.claim(ownedKey.getOwner(), key, now, expiredBefore) > 0) {
+      return Optional.empty();
+    }
+
+    // the claim waits for a concurrent request holding the key to finish, so the key has an
+    // event unless that request is still running, in which case the client has to come back
+    LOGGER.debug("Idempotency key {} was claimed by a concurrent request", ownedKey);
+    return Optional.of(findEventId(ownedKey, expiredBefore)
+        .orElseThrow(() -> new ConflictMessageException(
+            new Message(ERROR_IDEMPOTENCY_KEY_IN_USE, key))));
+  }
+
+  /**
+   * Stores the id of the event created for the given key. The key is put into the in-memory
+   * cache only once the current transaction commits.
+   *
+   * @param key     idempotency key sent by the client.
+   * @param eventId id of the created event.
+   */
+  public void register(String key, UUID eventId) {
+    IdempotencyKey.Key ownedKey = new IdempotencyKey.Key(getCurrentOwner(), key);
+    idempotencyKeyRepository.assignEvent(ownedKey.getOwner(), key, eventId);
+    idempotencyKeyRepository.findCreatedDate(ownedKey.getOwner(), key)
+        .map(createdDate -> new IdempotencyKey(ownedKey.getOwner(), key, eventId, createdDate))
+        .ifPresent(registered -> afterCommit(() -> cache.put(ownedKey, registered)));
+  }
+
+  /**
+   * Removes keys older than the configured time to live from the database.
+   */
+  @Transactional
+  @Scheduled(cron = "${pointofdelivery.idempotency.cleanup.cron}", zone = "${time.zoneId}")
+  public void deleteExpiredKeys() {
+    int deleted = idempotencyKeyRepository.deleteExpired(
+        ZonedDateTime.now(clock).minusHours(ttlHours));
+    LOGGER.debug("Deleted {} expired idempotency keys", deleted);
+  }
+
+  private Optional<UUID> findEventId(IdempotencyKey.Key ownedKey, ZonedDateTime expiredBefore) {
+    IdempotencyKey cached = cache.getIfPresent(ownedKey);
+    if (cached != null && !cached.getCreatedDate().isBefore(expiredBefore)) {
+      return Optional.of(cached.getEventId());
+    }
+
+    Optional<IdempotencyKey> stored = idempotencyKeyRepository.findWithEvent(
+        ownedKey.getOwner(), ownedKey.getKey(), expiredBefore);
+    stored.ifPresent(storedKey -> cache.put(ownedKey, storedKey));
+
+    return stored.map(IdempotencyKey::getEventId);
+  }
+
+  private void afterCommit(Runnable action) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+              action.run();
+            }
+          });
+    } else {
+      action.run();
+    }
+  }
+
+  private String getCurrentOwner() {
+    OAuth2Authentication authentication = (OAuth2Authentication) SecurityContextHolder
+        .getContext()
+        .getAuthentication();
+
+    if (authentication.isClientOnly()) {
+      return "client/" + authentication.getOAuth2Request().getClientId();
+    }
+    return "user/" + authentication.getPrincipal();
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+
+package org.openlmis.pointofdelivery.service;
+
+import static org.openlmis.pointofdelivery.i18n.MessageKeys.ERROR_NO_FOLLOWING_GENERAL_PERMISSION;
+
+import org.openlmis.pointofdelivery.dto.referencedata.ResultDto;
+import org.openlmis.pointofdelivery.dto.referencedata.RightDto;
+import org.openlmis.pointofdelivery.dto.referencedata.UserDto;
+import org.openlmis.pointofdelivery.exception.PermissionMessageException;
+import org.openlmis.pointofdelivery.service.referencedata.UserReferenceDataService;
+import org.openlmis.pointofdelivery.util.AuthenticationHelper;
+import org.openlmis.pointofdelivery.util.Message;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.stereotype.Service;
+
+/**
+ * Checks rights of the current user in the reference data service. Other services, calling with
+ * a token of their own client, are trusted and have every right.
+ */
+@Service
+public class PermissionService {
+  static final String SYSTEM_SETTINGS_MANAGE = "SYSTEM_SETTINGS_MANAGE";
+
+  @Autowired
+  private AuthenticationHelper authenticationHelper;
+
+  @Autowired
+  private UserReferenceDataService userReferenceDataService;
+
+  /**
+   * Checks that the current user can manage system settings, which administrative operations,
+   * e.g. rebuilding all rollups, require.
+   *
+   * @throws PermissionMessageException if the user does not have the right.
+   */
+  public void canManageSystemSettings() {
+    checkGeneralPermission(SYSTEM_SETTINGS_MANAGE);
+  }
+
+  private void checkGeneralPermission(String rightName) {
+    OAuth2Authentication authentication = (OAuth2Authentication) SecurityContextHolder
+        .getContext()
+        .getAuthentication();
+
+    if (authentication.isClientOnly()) {
+      return;
+    }
+
+    UserDto user = authenticationHelper.getCurrentUser();
+    RightDto right = authenticationHelper.getRight(rightName);
+    ResultDto<Boolean> result = userReferenceDataService.hasRight(user.getId(), right.getId(),
+        null, null, null);
+
+    if (null == result || !Boolean.TRUE.equals(result.getResult())) {
+      throw new PermissionMessageException(
+          new Message(ERROR_NO_FOLLOWING_GENERAL_PERMISSION, rightName));
+    }
+  }
+}
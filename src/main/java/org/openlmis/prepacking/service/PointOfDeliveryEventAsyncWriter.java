@@ -0,0 +1,269 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.service;
+
+import static org.openlmis.pointofdelivery.i18n.MessageKeys.ERROR_EVENT_QUEUE_FULL;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import org.openlmis.pointofdelivery.domain.event.PointOfDeliveryEvent;
+import org.openlmis.pointofdelivery.dto.PointOfDeliveryEventDto;
+import org.openlmis.pointofdelivery.dto.PointOfDeliveryEventSubmissionDto;
+import org.openlmis.pointofdelivery.exception.TooManyRequestsMessageException;
+import org.openlmis.pointofdelivery.i18n.MessageService;
+import org.openlmis.pointofdelivery.repository.PointOfDeliveryEventsRepository;
+import org.openlmis.pointofdelivery.util.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Saves point of delivery events in the background. Accepted events wait on a bounded queue that
+ * is drained by a pool of writers, each committing everything that has piled up since its
+ * previous commit in a single transaction. When the queue is full new events are rejected, so
+ * clients back off instead of the service running out of memory.
+ */
+@Service
+public class PointOfDeliveryEventAsyncWriter {
+  private static final Logger LOGGER = LoggerFactory.getLogger(
+      PointOfDeliveryEventAsyncWriter.class);
+
+  private static final String METRIC_PREFIX = "pod.events.async";
+
+  @Autowired
+  private PointOfDeliveryEventProcessContextBuilder contextBuilder;
+
+  @Autowired
+  private PointOfDeliveryEventsRepository pointOfDeliveryEventsRepository;
+
+  @Autowired
+  private PointOfDeliveryService pointOfDeliveryService;
+
+  @Autowired
+  private PointOfDeliveryRollupService rollupService;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private MessageService messageService;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Value("${pointofdelivery.async.queueCapacity}")
+  private int queueCapacity;
+
+  @Value("${pointofdelivery.async.writerThreads}")
+  private int writerThreads;
+
+  @Value("${pointofdelivery.async.maxGroupSize}")
+  private int maxGroupSize;
+
+  @Value("${pointofdelivery.async.statusTtlMinutes}")
+  private long statusTtlMinutes;
+
+  @Value("${pointofdelivery.async.statusCacheSize}")
+  private long statusCacheSize;
+
+  private BlockingQueue<QueuedEvent> queue;
+  private Cache<UUID, PointOfDeliveryEventSubmissionDto> submissions;
+  private ExecutorService writers;
+  private volatile boolean running;
+
+  private Timer commitTimer;
+  private DistributionSummary groupSize;
+  private Counter rejected;
+  private Counter failed;
+
+  @PostConstruct
+  void start() {
+    queue = new ArrayBlockingQueue<>(queueCapacity);
+    submissions = CacheBuilder.newBuilder()
+        .maximumSize(statusCacheSize)
+        .expireAfterWrite(statusTtlMinutes, TimeUnit.MINUTES)
+        .build();
+
+    meterRegistry.gaugeCollectionSize(METRIC_PREFIX + ".queue.depth", Tags.empty(), queue);
+    commitTimer = meterRegistry.timer(METRIC_PREFIX + ".commit");
+    groupSize = meterRegistry.summary(METRIC_PREFIX + ".commit.size");
+    rejected = meterRegistry.counter(METRIC_PREFIX + ".rejected");
+    failed = meterRegistry.counter(METRIC_PREFIX + ".failed");
+
+    running = true;
+    writers = Executors.newFixedThreadPool(writerThreads, new ThreadFactoryBuilder()
+        .setNameFormat("pod-event-writer-%d")
+        .setDaemon(true)
+        .build());
+    for (int i = 0; i < writerThreads; i++) {
+      writers.submit(this::drain);
+    }
+  }
+
+  /**
+   * Stops accepting events and lets the writers commit what is still queued.
+   */
+  @PreDestroy
+  void stop() throws InterruptedException {
+    running = false;
+    writers.shutdown();
+    if (!writers.awaitTermination(30, TimeUnit.SECONDS)) {
+      LOGGER.warn("{} queued point of delivery events were not saved on shutdown", queue.size());
+      writers.shutdownNow();
+    }
+  }
+
+  /**
+   * Queue a pod event to be saved in the background. The event is converted, and the data it
+   * needs from reference data is retrieved, before this method returns, as that requires the
+   * security context of the current request.
+   *
+   * @param pointOfDeliveryEventDto point of delivery event dto.
+   * @return id of the submission, used to check whether the event has been saved.
+   * @throws TooManyRequestsMessageException if the queue is full.
+   */
+  public UUID submit(PointOfDeliveryEventDto pointOfDeliveryEventDto) {
+    pointOfDeliveryEventDto.setContext(contextBuilder.buildContext(pointOfDeliveryEventDto));
+    PointOfDeliveryEvent event = pointOfDeliveryEventDto.toPointOfDeliveryEvent();
+
+    UUID submissionId = UUID.randomUUID();
+    submissions.put(submissionId, PointOfDeliveryEventSubmissionDto.queued(submissionId));
+
+    if (!running || !queue.offer(new QueuedEvent(submissionId, event))) {
+      submissions.invalidate(submissionId);
+      rejected.increment();
+      throw new TooManyRequestsMessageException(
+          new Message(ERROR_EVENT_QUEUE_FULL, queueCapacity));
+    }
+
+    return submissionId;
+  }
+
+  /**
+   * Get state of a submission.
+   *
+   * @param submissionId id returned by {@link #submit(PointOfDeliveryEventDto)}.
+   * @return the submission, or null if it is not known or has expired.
+   */
+  public PointOfDeliveryEventSubmissionDto getSubmission(UUID submissionId) {
+    return submissions.getIfPresent(submissionId);
+  }
+
+  private void drain() {
+    List<QueuedEvent> group = new ArrayList<>(maxGroupSize);
+
+    while (running || !queue.isEmpty()) {
+      try {
+        QueuedEvent first = queue.poll(1, TimeUnit.SECONDS);
+        if (first == null) {
+          continue;
+        }
+
+        group.add(first);
+        queue.drainTo(group, maxGroupSize - 1);
+        commit(group);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (RuntimeException ex) {
+        LOGGER.error("Unexpected error while saving queued point of delivery events", ex);
+      } finally {
+        group.clear();
+      }
+    }
+  }
+
+  private void commit(List<QueuedEvent> group) {
+    groupSize.record(group.size());
+
+    try {
+      commitTimer.record(() -> save(group));
+    } catch (RuntimeException ex) {
+      // one bad event fails the whole group, save its events one by one to isolate it
+      LOGGER.debug("Saving group of pod events failed, retrying one at a time", ex);
+      for (QueuedEvent queued : group) {
+        try {
+          clearIdentity(queued.event);
+          save(Collections.singletonList(queued));
+        } catch (RuntimeException itemEx) {
+          failed.increment();
+          submissions.put(queued.submissionId, PointOfDeliveryEventSubmissionDto
+              .failed(queued.submissionId, messageService.describe(itemEx)));
+        }
+      }
+    }
+  }
+
+  private void save(List<QueuedEvent> group) {
+    List<PointOfDeliveryEvent> events = new ArrayList<>(group.size());
+    group.forEach(queued -> events.add(queued.event));
+
+    TransactionTemplate template = new TransactionTemplate(transactionManager);
+    template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    template.execute(status -> {
+      pointOfDeliveryEventsRepository.saveAll(events);
+      rollupService.addEvents(events.stream()
+          .map(PointOfDeliveryEvent::getId)
+          .collect(Collectors.toList()));
+      return null;
+    });
+    pointOfDeliveryService.evictCachedEvents(events.stream()
+        .map(PointOfDeliveryEvent::getDestinationId)
+        .collect(Collectors.toSet()));
+
+    group.forEach(queued -> submissions.put(queued.submissionId,
+        PointOfDeliveryEventSubmissionDto.saved(queued.submissionId, queued.event.getId())));
+    LOGGER.debug("Saved group of {} point of delivery events", events.size());
+  }
+
+  // the rolled back transaction has given the event and its discrepancies ids and a version,
+  // which would make them look like rows that are already stored
+  private static void clearIdentity(PointOfDeliveryEvent event) {
+    event.setId(null);
+    event.setVersion(null);
+    event.getDiscrepancies().forEach(discrepancy -> discrepancy.setId(null));
+  }
+
+  @AllArgsConstructor
+  private static final class QueuedEvent {
+    private final UUID submissionId;
+    private final PointOfDeliveryEvent event;
+  }
+}
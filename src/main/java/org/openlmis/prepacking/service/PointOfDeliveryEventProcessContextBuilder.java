@@ -18,6 +18,9 @@ package org.openlmis.pointofdelivery.service;
 import static org.slf4j.LoggerFactory.getLogger;
 import static org.slf4j.ext.XLoggerFactory.getXLogger;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.function.Supplier;
 import lombok.AllArgsConstructor;
@@ -25,6 +28,7 @@ import lombok.NoArgsConstructor;
 
 import org.openlmis.pointofdelivery.dto.PointOfDeliveryEventDto;
 import org.openlmis.pointofdelivery.dto.referencedata.FacilityDto;
+import org.openlmis.pointofdelivery.dto.referencedata.UserDto;
 import org.openlmis.pointofdelivery.service.referencedata.FacilityReferenceDataService;
 import org.openlmis.pointofdelivery.util.AuthenticationHelper;
 import org.openlmis.pointofdelivery.util.LazyResource;
@@ -110,4 +114,43 @@ public class PointOfDeliveryEventProcessContextBuilder {
     return context;
   }
 
+  /**
+   * Puts a context on every event of a bulk upload. For user tokens the current user is shared by
+   * the whole batch, so it is retrieved from reference data once and not once per event, and the
+   * destination facility is shared by the events sent to the same destination. Client-only tokens
+   * carry the receiving user on each event, and as no remote calls are needed to resolve it, those
+   * events keep a context of their own.
+   *
+   * @param pointOfDeliveryEventDtos events submitted in one batch.
+   */
+  public void buildContext(List<PointOfDeliveryEventDto> pointOfDeliveryEventDtos) {
+    XLOGGER.entry(pointOfDeliveryEventDtos.size());
+
+    OAuth2Authentication authentication = (OAuth2Authentication) SecurityContextHolder
+        .getContext()
+        .getAuthentication();
+
+    if (authentication.isClientOnly()) {
+      pointOfDeliveryEventDtos.forEach(dto -> dto.setContext(buildContext(dto)));
+      return;
+    }
+
+    LOGGER.info("build shared context for {} pod events", pointOfDeliveryEventDtos.size());
+    LazyResource<UserDto> currentUser = new LazyResource<>(authenticationHelper::getCurrentUser);
+    LazyResource<UUID> currentUserId = new LazyResource<>(() -> currentUser.get().getId());
+    LazyResource<String> currentUserNames = new LazyResource<>(
+        () -> currentUser.get().getFirstName() + ", " + currentUser.get().getLastName());
+    Map<UUID, LazyResource<FacilityDto>> facilities = new HashMap<>();
+
+    for (PointOfDeliveryEventDto dto : pointOfDeliveryEventDtos) {
+      PointOfDeliveryEventProcessContext context = new PointOfDeliveryEventProcessContext();
+      context.setCurrentUserId(currentUserId);
+      context.setCurrentUserNames(currentUserNames);
+      context.setFacility(facilities.computeIfAbsent(dto.getDestinationId(),
+          facilityId -> new LazyResource<>(new ReferenceDataSupplier<>(
+              facilityService, facilityId))));
+      dto.setContext(context);
+    }
+  }
+
 }
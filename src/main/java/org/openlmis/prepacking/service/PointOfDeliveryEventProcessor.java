@@ -15,11 +15,22 @@
 
 package org.openlmis.pointofdelivery.service;
 
+import static org.openlmis.pointofdelivery.i18n.MessageKeys.ERROR_EVENT_BATCH_TOO_LARGE;
+
+import com.google.common.collect.Lists;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.openlmis.pointofdelivery.domain.event.PointOfDeliveryEvent;
 import org.openlmis.pointofdelivery.dto.PointOfDeliveryEventDto;
+import org.openlmis.pointofdelivery.dto.PointOfDeliveryEventResultDto;
+import org.openlmis.pointofdelivery.exception.ValidationMessageException;
+import org.openlmis.pointofdelivery.i18n.MessageService;
 import org.openlmis.pointofdelivery.repository.PointOfDeliveryEventsRepository;
+import org.openlmis.pointofdelivery.util.Message;
 import org.openlmis.pointofdelivery.util.PointOfDeliveryEventProcessContext;
 
 import org.slf4j.Logger;
@@ -28,7 +39,11 @@ import org.slf4j.ext.XLogger;
 import org.slf4j.ext.XLoggerFactory;
 import org.slf4j.profiler.Profiler;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * A service that is in charge of saving point of delivery events
@@ -48,6 +63,24 @@ public class PointOfDeliveryEventProcessor {
   @Autowired
   private PointOfDeliveryEventsRepository pointOfDeliveryEventsRepository;
 
+  @Autowired
+  private PointOfDeliveryService pointOfDeliveryService;
+
+  @Autowired
+  private PointOfDeliveryRollupService rollupService;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private MessageService messageService;
+
+  @Value("${pointofdelivery.batch.chunkSize}")
+  private int batchChunkSize;
+
+  @Value("${pointofdelivery.batch.maxSize}")
+  private int batchMaxSize;
+
   /**
    * Validate and persist pod event.
    *
@@ -83,8 +116,100 @@ public class PointOfDeliveryEventProcessor {
     UUID savedEventId = pointOfDeliveryEventsRepository.save(
             pointOfDeliveryEvent).getId();
     LOGGER.debug("Saved point of delivery event with id " + savedEventId);
+    rollupService.addEvents(Collections.singleton(savedEventId));
+    pointOfDeliveryService.evictCachedEvents(
+        Collections.singleton(pointOfDeliveryEvent.getDestinationId()));
 
     return savedEventId;
   }
 
+  /**
+   * Persist a bulk upload of pod events. The events share one process context and are written
+   * in chunks, each chunk in its own transaction with batched inserts. An event that can not be
+   * converted or saved is reported as failed without rolling back the rest of the batch.
+   *
+   * @param pointOfDeliveryEventDtos point of delivery event dtos.
+   * @return the outcome of every event, in the order they were submitted.
+   */
+  public List<PointOfDeliveryEventResultDto> processBatch(
+      List<PointOfDeliveryEventDto> pointOfDeliveryEventDtos) {
+    XLOGGER.entry(pointOfDeliveryEventDtos.size());
+    if (pointOfDeliveryEventDtos.size() > batchMaxSize) {
+      throw new ValidationMessageException(new Message(ERROR_EVENT_BATCH_TOO_LARGE,
+          pointOfDeliveryEventDtos.size(), batchMaxSize));
+    }
+
+    Profiler profiler = new Profiler("PROCESS_BATCH");
+    profiler.setLogger(XLOGGER);
+
+    profiler.start("BUILD_CONTEXT");
+    contextBuilder.buildContext(pointOfDeliveryEventDtos);
+
+    PointOfDeliveryEventResultDto[] results =
+        new PointOfDeliveryEventResultDto[pointOfDeliveryEventDtos.size()];
+    List<Integer> indexes = new ArrayList<>(pointOfDeliveryEventDtos.size());
+    for (int index = 0; index < pointOfDeliveryEventDtos.size(); index++) {
+      indexes.add(index);
+    }
+
+    profiler.start("DB_SAVE");
+    for (List<Integer> chunk : Lists.partition(indexes, batchChunkSize)) {
+      try {
+        saveChunk(pointOfDeliveryEventDtos, chunk, results);
+      } catch (RuntimeException ex) {
+        // one bad row fails the whole chunk, save its events one by one to isolate it; every
+        // attempt converts the dtos again, as the rolled back entities already have ids
+        LOGGER.debug("Saving chunk of pod events failed, retrying one at a time", ex);
+        for (Integer index : chunk) {
+          try {
+            saveChunk(pointOfDeliveryEventDtos, Collections.singletonList(index), results);
+          } catch (RuntimeException itemEx) {
+            results[index] = PointOfDeliveryEventResultDto.failure(
+                index, messageService.describe(itemEx));
+          }
+        }
+      }
+    }
+
+    profiler.stop().log();
+    List<PointOfDeliveryEventResultDto> response = Lists.newArrayList(results);
+    XLOGGER.exit(response);
+    return response;
+  }
+
+  private void saveChunk(List<PointOfDeliveryEventDto> pointOfDeliveryEventDtos,
+      List<Integer> chunk, PointOfDeliveryEventResultDto[] results) {
+    List<Integer> converted = new ArrayList<>(chunk.size());
+    List<PointOfDeliveryEvent> events = new ArrayList<>(chunk.size());
+
+    for (Integer index : chunk) {
+      try {
+        events.add(pointOfDeliveryEventDtos.get(index).toPointOfDeliveryEvent());
+        converted.add(index);
+      } catch (RuntimeException ex) {
+        results[index] = PointOfDeliveryEventResultDto.failure(
+            index, messageService.describe(ex));
+      }
+    }
+
+    TransactionTemplate template = new TransactionTemplate(transactionManager);
+    template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    template.execute(status -> {
+      pointOfDeliveryEventsRepository.saveAll(events);
+      rollupService.addEvents(events.stream()
+          .map(PointOfDeliveryEvent::getId)
+          .collect(Collectors.toList()));
+      return null;
+    });
+    pointOfDeliveryService.evictCachedEvents(events.stream()
+        .map(PointOfDeliveryEvent::getDestinationId)
+        .collect(Collectors.toSet()));
+
+    for (int i = 0; i < converted.size(); i++) {
+      int index = converted.get(i);
+      results[index] = PointOfDeliveryEventResultDto.success(index, events.get(i).getId());
+    }
+    LOGGER.debug("Saved chunk of {} point of delivery events", events.size());
+  }
+
 }
@@ -0,0 +1,135 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.openlmis.pointofdelivery.dto.PointOfDeliveryEventDto;
+import org.openlmis.pointofdelivery.dto.PointOfDeliveryEventResultDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Imports point of delivery events from newline delimited JSON, one event per line. Lines are
+ * parsed one at a time and saved in fixed-size chunks, and the outcome of every line is written
+ * back as soon as its chunk has been saved, so memory use does not depend on the upload size.
+ */
+@Service
+public class PointOfDeliveryEventStreamProcessor {
+  private static final Logger LOGGER = LoggerFactory.getLogger(
+      PointOfDeliveryEventStreamProcessor.class);
+
+  private static final byte NEW_LINE = '\n';
+
+  @Autowired
+  private PointOfDeliveryEventProcessor pointOfDeliveryEventProcessor;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Value("${pointofdelivery.batch.chunkSize}")
+  private int chunkSize;
+
+  /**
+   * Read pod events from the input and write the outcome of each of them to the output, also as
+   * newline delimited JSON. The index of each outcome is the zero-based number of the line the
+   * event was read from. Blank lines are skipped.
+   *
+   * @param input  newline delimited pod events.
+   * @param output where the outcome of every event is written to.
+   */
+  public void process(InputStream input, OutputStream output) throws IOException {
+    ObjectReader reader = objectMapper.readerFor(PointOfDeliveryEventDto.class);
+    ObjectWriter writer = objectMapper.writerFor(PointOfDeliveryEventResultDto.class)
+        .without(SerializationFeature.INDENT_OUTPUT);
+
+    BufferedReader lines = new BufferedReader(
+        new InputStreamReader(input, StandardCharsets.UTF_8));
+    List<Line> chunk = new ArrayList<>(chunkSize);
+    int lineIndex = 0;
+
+    for (String text = lines.readLine(); text != null; text = lines.readLine(), lineIndex++) {
+      if (StringUtils.isBlank(text)) {
+        continue;
+      }
+
+      try {
+        chunk.add(new Line(lineIndex, reader.readValue(text), null));
+      } catch (JsonProcessingException ex) {
+        chunk.add(new Line(lineIndex, null, PointOfDeliveryEventResultDto
+            .failure(lineIndex, ex.getOriginalMessage())));
+      }
+
+      if (chunk.size() == chunkSize) {
+        flush(chunk, writer, output);
+      }
+    }
+
+    flush(chunk, writer, output);
+    LOGGER.debug("Imported {} lines of point of delivery events", lineIndex);
+  }
+
+  private void flush(List<Line> chunk, ObjectWriter writer, OutputStream output)
+      throws IOException {
+    List<PointOfDeliveryEventDto> dtos = new ArrayList<>(chunk.size());
+    chunk.stream()
+        .filter(line -> line.result == null)
+        .forEach(line -> dtos.add(line.dto));
+
+    if (!dtos.isEmpty()) {
+      List<PointOfDeliveryEventResultDto> results =
+          pointOfDeliveryEventProcessor.processBatch(dtos);
+
+      int next = 0;
+      for (Line line : chunk) {
+        if (line.result == null) {
+          line.result = results.get(next++);
+          line.result.setIndex(line.index);
+        }
+      }
+    }
+
+    for (Line line : chunk) {
+      output.write(writer.writeValueAsBytes(line.result));
+      output.write(NEW_LINE);
+    }
+    output.flush();
+    chunk.clear();
+  }
+
+  @AllArgsConstructor
+  private static final class Line {
+    private final int index;
+    private final PointOfDeliveryEventDto dto;
+    private PointOfDeliveryEventResultDto result;
+  }
+}
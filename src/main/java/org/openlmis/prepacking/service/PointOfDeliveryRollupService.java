@@ -0,0 +1,188 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.service;
+
+import static java.util.stream.Collectors.toList;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.openlmis.pointofdelivery.domain.event.PointOfDeliveryMonthlyRollup;
+import org.openlmis.pointofdelivery.domain.qualitychecks.DiscrepancyMonthlyRollup;
+import org.openlmis.pointofdelivery.dto.DiscrepancyMonthlyRollupDto;
+import org.openlmis.pointofdelivery.dto.PointOfDeliveryMonthlyRollupDto;
+import org.openlmis.pointofdelivery.dto.requisition.RejectionReasonDto;
+import org.openlmis.pointofdelivery.repository.DiscrepancyMonthlyRollupRepository;
+import org.openlmis.pointofdelivery.repository.PointOfDeliveryMonthlyRollupRepository;
+import org.openlmis.pointofdelivery.service.requisition.RejectionReasonCatalog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps monthly totals of point of delivery events per destination and source, and of their
+ * discrepancies per destination, rejection reason and shipment type. Writers take
+ * events out of the totals before changing or deleting them and add them once they have been
+ * written, in the same transaction, so the totals never have to be computed from the events.
+ */
+@Service
+public class PointOfDeliveryRollupService {
+  private static final Logger LOGGER = LoggerFactory.getLogger(
+      PointOfDeliveryRollupService.class);
+
+  @Autowired
+  private PointOfDeliveryMonthlyRollupRepository rollupRepository;
+
+  @Autowired
+  private DiscrepancyMonthlyRollupRepository discrepancyRollupRepository;
+
+  @Autowired
+  private RejectionReasonCatalog rejectionReasonCatalog;
+
+  /**
+   * Add written events to the totals of their months. Must be called in the transaction that
+   * has written them.
+   *
+   * @param eventIds ids of created or updated events.
+   */
+  public void addEvents(Collection<UUID> eventIds) {
+    if (!eventIds.isEmpty()) {
+      rollupRepository.addEvents(eventIds, 1);
+      discrepancyRollupRepository.addEvents(eventIds, 1);
+    }
+  }
+
+  /**
+   * Take events out of the totals of their months, before they are changed or deleted. The
+   * events are not locked, so the change or delete that follows in the same transaction must
+   * check the version of the events, to fail if another transaction has changed them since.
+   *
+   * @param eventIds ids of events about to be updated or deleted.
+   */
+  public void removeEvents(Collection<UUID> eventIds) {
+    if (!eventIds.isEmpty()) {
+      rollupRepository.addEvents(eventIds, -1);
+      discrepancyRollupRepository.addEvents(eventIds, -1);
+    }
+  }
+
+  /**
+   * Get monthly totals within the given months, both included.
+   *
+   * @param destinationId destination id, or null for all destinations.
+   * @param from first month.
+   * @param to last month.
+   * @return totals ordered by month, destination and source.
+   */
+  @Transactional(readOnly = true)
+  public List<PointOfDeliveryMonthlyRollupDto> getRollups(UUID destinationId, YearMonth from,
+      YearMonth to) {
+    List<PointOfDeliveryMonthlyRollup> rollups = destinationId == null
+        ? rollupRepository.findAll(from.atDay(1), to.atDay(1))
+        : rollupRepository.findByDestinationId(destinationId, from.atDay(1), to.atDay(1));
+
+    return rollups.stream()
+        .map(PointOfDeliveryMonthlyRollupDto::newInstance)
+        .collect(toList());
+  }
+
+  /**
+   * Get monthly discrepancy totals within the given months, both included. Each rejection
+   * reason is looked up once in the catalog, however many totals refer to it.
+   *
+   * @param destinationId destination id, or null for all destinations.
+   * @param from first month.
+   * @param to last month.
+   * @return totals ordered by month, destination and descending discrepancy count.
+   */
+  @Transactional(readOnly = true)
+  public List<DiscrepancyMonthlyRollupDto> getDiscrepancyRollups(UUID destinationId,
+      YearMonth from, YearMonth to) {
+    List<DiscrepancyMonthlyRollup> rollups = destinationId == null
+        ? discrepancyRollupRepository.findAll(from.atDay(1), to.atDay(1))
+        : discrepancyRollupRepository.findByDestinationId(destinationId, from.atDay(1),
+            to.atDay(1));
+
+    Map<UUID, RejectionReasonDto> reasons = new HashMap<>();
+    return rollups.stream()
+        .map(rollup -> DiscrepancyMonthlyRollupDto.newInstance(rollup,
+            reasons.computeIfAbsent(rollup.getRejectionReasonId(), this::findRejectionReason)))
+        .collect(toList());
+  }
+
+  /**
+   * Compute all totals again from the events, for instance after events have been written
+   * directly to the database. Writers wait until the totals have been rebuilt.
+   *
+   * @return number of monthly totals.
+   */
+  @Transactional
+  public int rebuild() {
+    rollupRepository.lock();
+    discrepancyRollupRepository.lock();
+    int deleted = rollupRepository.deleteAllRollups();
+    int inserted = rollupRepository.insertAllRollups();
+    LOGGER.info("Rebuilt point of delivery rollups, {} replaced by {}", deleted, inserted);
+
+    deleted = discrepancyRollupRepository.deleteAllRollups();
+    int discrepancyRollups = discrepancyRollupRepository.insertAllRollups();
+    LOGGER.info("Rebuilt discrepancy rollups, {} replaced by {}", deleted, discrepancyRollups);
+    return inserted;
+  }
+
+  /**
+   * Compute the totals from the events if there are none yet, so that events written before the
+   * totals were introduced are counted when they are changed or deleted later. It runs before the
+   * service accepts requests and, like {@link #rebuild()}, blocks writers of other instances
+   * until it is done, which happens once, on the first start with existing events.
+   */
+  @Transactional
+  @EventListener(ContextRefreshedEvent.class)
+  public void backfill() {
+    if (rollupRepository.existsAnyRollup()) {
+      return;
+    }
+
+    rollupRepository.lock();
+    discrepancyRollupRepository.lock();
+    // another instance may have computed them while this one was waiting for the lock
+    if (rollupRepository.existsAnyRollup()) {
+      return;
+    }
+
+    int inserted = rollupRepository.insertAllRollups();
+    int discrepancyRollups = discrepancyRollupRepository.insertAllRollups();
+    LOGGER.info("Computed {} point of delivery rollups and {} discrepancy rollups of existing "
+        + "events", inserted, discrepancyRollups);
+  }
+
+  private RejectionReasonDto findRejectionReason(UUID id) {
+    if (PointOfDeliveryMonthlyRollup.NONE.equals(id)) {
+      return null;
+    }
+
+    RejectionReasonDto reason = rejectionReasonCatalog.find(id);
+    // keep the id of reasons since removed from the requisition service
+    return reason != null ? reason : RejectionReasonDto.builder().id(id).build();
+  }
+}
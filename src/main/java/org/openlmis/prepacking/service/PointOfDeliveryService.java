@@ -15,31 +15,157 @@
 
 package org.openlmis.pointofdelivery.service;
 
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static org.openlmis.pointofdelivery.i18n.MessageKeys.ERROR_CURSOR_EXPIRED;
+import static org.openlmis.pointofdelivery.i18n.MessageKeys.ERROR_EVENT_DESTINATIONS_MISSING;
+import static org.openlmis.pointofdelivery.i18n.MessageKeys.ERROR_EVENT_DESTINATIONS_TOO_MANY;
+import static org.openlmis.pointofdelivery.i18n.MessageKeys.ERROR_EVENT_FIELDS_INVALID;
+import static org.openlmis.pointofdelivery.i18n.MessageKeys.ERROR_EVENT_NOT_FOUND;
+import static org.openlmis.pointofdelivery.i18n.MessageKeys.ERROR_EVENT_PATCH_DISCREPANCIES;
+import static org.openlmis.pointofdelivery.i18n.MessageKeys.ERROR_EVENT_PATCH_EMPTY;
+import static org.openlmis.pointofdelivery.i18n.MessageKeys.ERROR_EVENT_SEARCH_SORT_INVALID;
+import static org.openlmis.pointofdelivery.i18n.MessageKeys.ERROR_EVENT_SORT_INVALID;
+import static org.openlmis.pointofdelivery.i18n.MessageKeys.ERROR_EVENT_VERSION_MISMATCH;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.OptimisticLockException;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 
 import org.openlmis.pointofdelivery.domain.event.PointOfDeliveryEvent;
+import org.openlmis.pointofdelivery.domain.event.PointOfDeliveryEventTombstone;
 import org.openlmis.pointofdelivery.domain.qualitychecks.Discrepancy;
 import org.openlmis.pointofdelivery.dto.DiscrepancyDto;
+import org.openlmis.pointofdelivery.dto.PointOfDeliveryEventChangesDto;
 import org.openlmis.pointofdelivery.dto.PointOfDeliveryEventDto;
+import org.openlmis.pointofdelivery.dto.PointOfDeliveryEventSearchParams;
+import org.openlmis.pointofdelivery.dto.ResourceVersionDto;
+import org.openlmis.pointofdelivery.dto.requisition.RejectionReasonDto;
+import org.openlmis.pointofdelivery.exception.GoneMessageException;
+import org.openlmis.pointofdelivery.exception.PreconditionFailedMessageException;
 import org.openlmis.pointofdelivery.exception.ResourceNotFoundException;
+import org.openlmis.pointofdelivery.exception.ValidationMessageException;
+import org.openlmis.pointofdelivery.repository.PointOfDeliveryEventSpecifications;
+import org.openlmis.pointofdelivery.repository.PointOfDeliveryEventTombstoneRepository;
 import org.openlmis.pointofdelivery.repository.PointOfDeliveryEventsRepository;
-import org.openlmis.pointofdelivery.service.requisition.RejectionReasonService;
+import org.openlmis.pointofdelivery.service.requisition.RejectionReasonCatalog;
+import org.openlmis.pointofdelivery.util.KeysetCursor;
+import org.openlmis.pointofdelivery.util.KeysetPageDto;
 import org.openlmis.pointofdelivery.util.Message;
 import org.openlmis.pointofdelivery.util.PointOfDeliveryEventProcessContext;
+import org.openlmis.pointofdelivery.util.TimeOrderedUuidGenerationStrategy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 public class PointOfDeliveryService {
   private static final Logger LOGGER = LoggerFactory.getLogger(PointOfDeliveryService.class);
+  private static final String DESTINATION_ID = "destinationId";
+  private static final String RECEIVING_DATE = "receivingDate";
+  private static final String ID = "id";
+  private static final int STREAM_CHUNK_SIZE = 100;
+  private static final String EVENTS_CACHE_METRIC = "pod.events.pages";
+  private static final String EVENTS_VERSIONS_METRIC = "pod.events.versions";
+  private static final String DISCREPANCIES = "discrepancies";
+
+  // Fields a listing can be limited to, in the order of the full dto
+  private static final Set<String> EVENT_FIELDS = ImmutableSet.of(
+      ID, "sourceId", "sourceFreeText", DESTINATION_ID, "destinationFreeText",
+      "receivedByUserId", "receivedByUserNames", RECEIVING_DATE, "referenceNumber",
+      "packingDate", "packedBy",
+      "cartonsQuantityOnWaybill", "cartonsQuantityShipped",
+      "cartonsQuantityAccepted", "cartonsQuantityRejected",
+      "containersQuantityOnWaybill", "containersQuantityShipped",
+      "containersQuantityAccepted", "containersQuantityRejected",
+      "remarks", DISCREPANCIES, "version");
+
+  // Attributes search results can be sorted by, each of them leads an index
+  private static final Set<String> SEARCH_SORT_PROPERTIES = ImmutableSet.of(
+      RECEIVING_DATE, "packingDate", "referenceNumber", "lastModified");
+
+  // Attributes that can be changed by a partial update, the rest is set by the service
+  private static final Map<String, Function<PointOfDeliveryEventDto, Object>>
+      PATCHABLE_ATTRIBUTES = ImmutableMap.<String, Function<PointOfDeliveryEventDto, Object>>
+      builder()
+      .put("sourceId", PointOfDeliveryEventDto::getSourceId)
+      .put("sourceFreeText", PointOfDeliveryEventDto::getSourceFreeText)
+      .put(DESTINATION_ID, PointOfDeliveryEventDto::getDestinationId)
+      .put("destinationFreeText", PointOfDeliveryEventDto::getDestinationFreeText)
+      .put("referenceNumber", PointOfDeliveryEventDto::getReferenceNumber)
+      .put("packingDate", PointOfDeliveryEventDto::getPackingDate)
+      .put("packedBy", PointOfDeliveryEventDto::getPackedBy)
+      .put("cartonsQuantityOnWaybill", PointOfDeliveryEventDto::getCartonsQuantityOnWaybill)
+      .put("cartonsQuantityShipped", PointOfDeliveryEventDto::getCartonsQuantityShipped)
+      .put("cartonsQuantityAccepted", PointOfDeliveryEventDto::getCartonsQuantityAccepted)
+      .put("cartonsQuantityRejected", PointOfDeliveryEventDto::getCartonsQuantityRejected)
+      .put("containersQuantityOnWaybill",
+          PointOfDeliveryEventDto::getContainersQuantityOnWaybill)
+      .put("containersQuantityShipped", PointOfDeliveryEventDto::getContainersQuantityShipped)
+      .put("containersQuantityAccepted", PointOfDeliveryEventDto::getContainersQuantityAccepted)
+      .put("containersQuantityRejected", PointOfDeliveryEventDto::getContainersQuantityRejected)
+      .put("remarks", PointOfDeliveryEventDto::getRemarks)
+      .build();
+
+  // Attributes a partial update has to change monthly rollups for
+  private static final Set<String> ROLLUP_ATTRIBUTES = ImmutableSet.of(
+      "sourceId", DESTINATION_ID,
+      "cartonsQuantityOnWaybill", "cartonsQuantityShipped",
+      "cartonsQuantityAccepted", "cartonsQuantityRejected",
+      "containersQuantityOnWaybill", "containersQuantityShipped",
+      "containersQuantityAccepted", "containersQuantityRejected");
+
+  private final TimeOrderedUuidGenerationStrategy uuidGenerator =
+      new TimeOrderedUuidGenerationStrategy();
 
   @Autowired
   private PointOfDeliveryEventsRepository pointOfDeliveryEventsRepository;
@@ -48,22 +174,558 @@ public class PointOfDeliveryService {
   private PointOfDeliveryEventProcessContextBuilder contextBuilder;
 
   @Autowired
-  private RejectionReasonService rejectionReasonService;
+  private RejectionReasonCatalog rejectionReasonCatalog;
+
+  @Autowired
+  private PointOfDeliveryEventTombstoneRepository tombstoneRepository;
+
+  @Autowired
+  private PointOfDeliveryRollupService rollupService;
+
+  @Autowired
+  private Clock clock;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Value("${pointofdelivery.events.maxPageSize}")
+  private int eventsMaxPageSize;
+
+  @Value("${pointofdelivery.events.maxDestinations}")
+  private int eventsMaxDestinations;
+
+  @Value("${pointofdelivery.sync.maxPageSize}")
+  private int syncMaxPageSize;
+
+  @Value("${pointofdelivery.sync.settleSeconds}")
+  private long syncSettleSeconds;
+
+  @Value("${pointofdelivery.sync.tombstoneRetentionDays}")
+  private long tombstoneRetentionDays;
+
+  @Value("${pointofdelivery.events.cacheSize}")
+  private long eventsCacheSize;
+
+  @Value("${pointofdelivery.events.cacheTtlSeconds}")
+  private long eventsCacheTtlSeconds;
+
+  @Value("${pointofdelivery.events.versionCacheTtlSeconds}")
+  private long eventsVersionCacheTtlSeconds;
+
+  // Pages of events with the version of the list they were read at, dropped for a destination
+  // whenever one of its events is written
+  private Cache<EventsPageKey, CachedEventsPage> eventsCache;
+
+  // Versions of the lists of events by destination, dropped whenever one of its events is
+  // written through this instance. Writes through other instances are seen once they expire.
+  private Cache<UUID, ResourceVersionDto> eventsVersions;
+
+  // Writes of events committed through this instance, to tell whether one may have been missed
+  // by a version while it was read
+  private final AtomicLong eventsWrites = new AtomicLong();
+
+  @PostConstruct
+  void initEventsCache() {
+    eventsCache = CacheBuilder.newBuilder()
+        .maximumSize(eventsCacheSize)
+        .expireAfterWrite(eventsCacheTtlSeconds, TimeUnit.SECONDS)
+        .recordStats()
+        .build();
+    GuavaCacheMetrics.monitor(meterRegistry, eventsCache, EVENTS_CACHE_METRIC);
+
+    eventsVersions = CacheBuilder.newBuilder()
+        .maximumSize(eventsCacheSize)
+        .expireAfterWrite(eventsVersionCacheTtlSeconds, TimeUnit.SECONDS)
+        .recordStats()
+        .build();
+    GuavaCacheMetrics.monitor(meterRegistry, eventsVersions, EVENTS_VERSIONS_METRIC);
+  }
 
   /**
-   * Get a list of Point of Delivery events.
+   * Get a page of Point of Delivery events of the destination, ordered by receiving date, newest
+   * first unless sorted otherwise. The page is selected either by page number or, at the same
+   * cost for every page, by the cursor returned with the previous page. Pages are cached for the
+   * configured time at most, and served only while the list is still at the same version.
    *
    * @param destinationId destination id.
-   * @return a list of pod events.
+   * @param pageable page number, size capped by the configured maximum, and sort direction.
+   * @param cursor cursor of the previous page, or null to use the page number.
+   * @param version current version of the list, see {@link #getPointOfDeliveryEventsVersion}.
+   * @return page of pod events.
    */
-  public List<PointOfDeliveryEventDto> getPointOfDeliveryEventsByDestinationId(UUID destinationId) {
-    List<PointOfDeliveryEvent> pointOfDeliveryEvents = pointOfDeliveryEventsRepository
-        .findByDestinationId(destinationId);
-    
-    if (pointOfDeliveryEvents == null) {
-      return Collections.emptyList();
+  public KeysetPageDto<PointOfDeliveryEventDto> getPointOfDeliveryEvents(UUID destinationId,
+      Pageable pageable, String cursor, ResourceVersionDto version) {
+    Direction direction = getReceivingDateDirection(pageable.getSort());
+    int size = Math.min(pageable.getPageSize(), eventsMaxPageSize);
+
+    EventsPageKey key = new EventsPageKey(destinationId, cursor,
+        cursor == null ? pageable.getPageNumber() : 0, size, direction);
+    CachedEventsPage cached = eventsCache.getIfPresent(key);
+    if (cached != null && cached.version.equals(version)) {
+      return cached.page;
+    }
+
+    // read after the version, so a page cached with a version is never older than it
+    KeysetPageDto<PointOfDeliveryEventDto> page = loadPointOfDeliveryEvents(key);
+    eventsCache.put(key, new CachedEventsPage(version, page));
+
+    return page;
+  }
+
+  /**
+   * Get the version of the list of Point of Delivery events of the destination, computed from
+   * the time of its latest change without reading the events. The version is kept in memory
+   * until an event of the destination is written through this instance, or for the configured
+   * time at most, so that polling the list does not reach the database.
+   *
+   * <p>Within the settle window of the latest change the version differs on every call, and is
+   * not kept: a transaction that is still running may commit a change stamped with an earlier
+   * time, which would leave the latest change, and so the version, as it was.
+   *
+   * @param destinationId destination id.
+   * @return version of the list.
+   */
+  public ResourceVersionDto getPointOfDeliveryEventsVersion(UUID destinationId) {
+    ResourceVersionDto cached = eventsVersions.getIfPresent(destinationId);
+    if (cached != null) {
+      return cached;
+    }
+
+    long writes = eventsWrites.get();
+    ZonedDateTime lastChange = pointOfDeliveryEventsRepository
+        .findLastChangeByDestinationId(destinationId);
+    if (lastChange == null) {
+      return cacheVersion(destinationId, new ResourceVersionDto("0", null), writes);
+    }
+
+    String value = String.valueOf(ChronoUnit.MICROS.between(Instant.EPOCH, lastChange));
+    ZonedDateTime now = ZonedDateTime.now(clock);
+    if (lastChange.isAfter(now.minusSeconds(syncSettleSeconds))) {
+      value += "-" + ChronoUnit.MICROS.between(Instant.EPOCH, now);
+      return new ResourceVersionDto(value, lastChange);
+    }
+    return cacheVersion(destinationId, new ResourceVersionDto(value, lastChange), writes);
+  }
+
+  private ResourceVersionDto cacheVersion(UUID destinationId, ResourceVersionDto version,
+      long writes) {
+    eventsVersions.put(destinationId, version);
+    // a write committed while the version was read may not be in it, and its eviction may have
+    // run before the version was kept
+    if (eventsWrites.get() != writes) {
+      eventsVersions.invalidate(destinationId);
+    }
+    return version;
+  }
+
+  /**
+   * Get the version of a Point of Delivery event, without reading its discrepancies.
+   *
+   * @param id point of delivery event id.
+   * @return version of the event.
+   * @throws ResourceNotFoundException if there is no event with the given id.
+   */
+  public ResourceVersionDto getPointOfDeliveryEventVersion(UUID id) {
+    return pointOfDeliveryEventsRepository.findById(id)
+        .map(event -> new ResourceVersionDto(
+            String.valueOf(event.getVersion()), event.getLastModified()))
+        .orElseThrow(() -> new ResourceNotFoundException(
+            new Message(ERROR_EVENT_NOT_FOUND, id)));
+  }
+
+  /**
+   * Drop cached versions and pages of events of the given destinations, which are no longer at
+   * the version they were read at. Within a transaction, they are dropped once it commits.
+   *
+   * @param destinationIds ids of destinations whose events have been written.
+   */
+  public void evictCachedEvents(Collection<UUID> destinationIds) {
+    afterCommit(() -> {
+      eventsWrites.incrementAndGet();
+      eventsVersions.invalidateAll(destinationIds);
+      evictPages(key -> destinationIds.contains(key.destinationId));
+    });
+  }
+
+  private void evictPages(Predicate<EventsPageKey> filter) {
+    int evicted = 0;
+    for (Iterator<EventsPageKey> keys = eventsCache.asMap().keySet().iterator(); keys.hasNext();) {
+      if (filter.test(keys.next())) {
+        keys.remove();
+        evicted++;
+      }
+    }
+    meterRegistry.counter(EVENTS_CACHE_METRIC + ".invalidated").increment(evicted);
+  }
+
+  private void afterCommit(Runnable action) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+              action.run();
+            }
+          });
+    } else {
+      action.run();
+    }
+  }
+
+  private KeysetPageDto<PointOfDeliveryEventDto> loadPointOfDeliveryEvents(EventsPageKey key) {
+    UUID destinationId = key.destinationId;
+    String cursor = key.cursor;
+    Direction direction = key.direction;
+    int size = key.size;
+
+    Slice<PointOfDeliveryEvent> slice;
+    if (cursor == null) {
+      slice = pointOfDeliveryEventsRepository.findByDestinationId(destinationId, PageRequest.of(
+          key.page, size, Sort.by(direction, RECEIVING_DATE, ID)));
+    } else {
+      KeysetCursor position = KeysetCursor.decode(cursor);
+      slice = direction.isAscending()
+          ? pointOfDeliveryEventsRepository.findByDestinationIdAfter(destinationId,
+              position.getTimestamp(), position.getId(), PageRequest.of(0, size))
+          : pointOfDeliveryEventsRepository.findByDestinationIdBefore(destinationId,
+              position.getTimestamp(), position.getId(), PageRequest.of(0, size));
+    }
+
+    return toKeysetPage(slice, size);
+  }
+
+  /**
+   * Creates a page of events ordered by receiving date and id, with their discrepancies, and the
+   * cursor of the next page if there is one.
+   */
+  private KeysetPageDto<PointOfDeliveryEventDto> toKeysetPage(Slice<PointOfDeliveryEvent> slice,
+      int size) {
+    List<PointOfDeliveryEvent> events = withDiscrepancies(slice.getContent());
+    String nextCursor = null;
+    if (slice.hasNext()) {
+      PointOfDeliveryEvent lastEvent = events.get(events.size() - 1);
+      nextCursor = new KeysetCursor(lastEvent.getReceivingDate(), lastEvent.getId()).encode();
+    }
+
+    return new KeysetPageDto<>(
+        podToDto(events), size, events.size(), !slice.hasNext(), nextCursor);
+  }
+
+  /**
+   * Get a page of Point of Delivery events of any of the destinations, e.g. all facilities of a
+   * supervisor, ordered by receiving date across all of them. Pages are selected like
+   * {@link #getPointOfDeliveryEvents}, with a single query for all destinations. Pages are not
+   * cached, as each set of destinations is requested by few users.
+   *
+   * @param destinationIds destination ids, at most the configured maximum.
+   * @param pageable page number, size capped by the configured maximum, and sort direction.
+   * @param cursor cursor of the previous page, or null to use the page number.
+   * @return page of pod events.
+   */
+  @Transactional(readOnly = true)
+  public KeysetPageDto<PointOfDeliveryEventDto> getPointOfDeliveryEventsOfDestinations(
+      Set<UUID> destinationIds, Pageable pageable, String cursor) {
+    if (destinationIds == null || destinationIds.isEmpty()) {
+      throw new ValidationMessageException(new Message(ERROR_EVENT_DESTINATIONS_MISSING));
+    }
+    if (destinationIds.size() > eventsMaxDestinations) {
+      throw new ValidationMessageException(new Message(ERROR_EVENT_DESTINATIONS_TOO_MANY,
+          destinationIds.size(), eventsMaxDestinations));
+    }
+
+    Direction direction = getReceivingDateDirection(pageable.getSort());
+    int size = Math.min(pageable.getPageSize(), eventsMaxPageSize);
+    KeysetCursor position = cursor == null ? null : KeysetCursor.decode(cursor);
+
+    Slice<PointOfDeliveryEvent> slice = pointOfDeliveryEventsRepository.findSlice(
+        PointOfDeliveryEventSpecifications.listedAfter(destinationIds, direction, position),
+        PageRequest.of(position == null ? pageable.getPageNumber() : 0, size,
+            Sort.by(direction, RECEIVING_DATE, ID)));
+
+    return toKeysetPage(slice, size);
+  }
+
+  /**
+   * Loads discrepancies of all the given events with one query, instead of one query per event
+   * when they are mapped to dtos.
+   *
+   * @param events events of a page.
+   * @return the same events, in the same order, with their discrepancies.
+   */
+  private List<PointOfDeliveryEvent> withDiscrepancies(List<PointOfDeliveryEvent> events) {
+    if (events.isEmpty()) {
+      return events;
+    }
+
+    Map<UUID, PointOfDeliveryEvent> loaded = pointOfDeliveryEventsRepository
+        .findDistinctByIdIn(events.stream().map(PointOfDeliveryEvent::getId).collect(toList()))
+        .stream()
+        .collect(toMap(PointOfDeliveryEvent::getId, identity()));
+
+    return events.stream()
+        .map(event -> loaded.getOrDefault(event.getId(), event))
+        .collect(toList());
+  }
+
+  /**
+   * Get a page of Point of Delivery events of the destination like
+   * {@link #getPointOfDeliveryEvents}, with only the given fields. Only the columns of those
+   * fields are read, and discrepancies are read and their rejection reasons resolved only if
+   * they are asked for. The id is always included. Pages are not cached.
+   *
+   * @param destinationId destination id.
+   * @param fields names of the fields of {@link PointOfDeliveryEventDto} to include.
+   * @param pageable page number, size capped by the configured maximum, and sort direction.
+   * @param cursor cursor of the previous page, or null to use the page number.
+   * @return page of pod events, each one the values of its fields by field name.
+   */
+  @Transactional(readOnly = true)
+  public KeysetPageDto<Map<String, Object>> getPointOfDeliveryEventFields(UUID destinationId,
+      Set<String> fields, Pageable pageable, String cursor) {
+    for (String field : fields) {
+      if (!EVENT_FIELDS.contains(field)) {
+        throw new ValidationMessageException(new Message(ERROR_EVENT_FIELDS_INVALID,
+            field, String.join(", ", EVENT_FIELDS)));
+      }
+    }
+
+    Direction direction = getReceivingDateDirection(pageable.getSort());
+    int size = Math.min(pageable.getPageSize(), eventsMaxPageSize);
+    KeysetCursor position = cursor == null ? null : KeysetCursor.decode(cursor);
+
+    // id and receiving date make the cursor, the rest are the columns asked for
+    Set<String> attributes = new LinkedHashSet<>(Arrays.asList(ID, RECEIVING_DATE));
+    EVENT_FIELDS.stream()
+        .filter(fields::contains)
+        .filter(field -> !DISCREPANCIES.equals(field))
+        .forEach(attributes::add);
+
+    Slice<Tuple> slice = pointOfDeliveryEventsRepository.findAttributesSlice(
+        PointOfDeliveryEventSpecifications.listedAfter(destinationId, direction, position),
+        attributes,
+        PageRequest.of(position == null ? pageable.getPageNumber() : 0, size,
+            Sort.by(direction, RECEIVING_DATE, ID)));
+
+    Map<UUID, List<Discrepancy>> discrepancies = fields.contains(DISCREPANCIES)
+        ? findDiscrepancies(slice.getContent())
+        : Collections.emptyMap();
+    Map<UUID, RejectionReasonDto> reasons = findRejectionReasons(discrepancies.values().stream()
+        .flatMap(List::stream));
+
+    List<Map<String, Object>> content = new ArrayList<>(slice.getNumberOfElements());
+    for (Tuple tuple : slice) {
+      UUID id = tuple.get(ID, UUID.class);
+      Map<String, Object> event = new LinkedHashMap<>();
+      event.put(ID, id);
+      for (String field : EVENT_FIELDS) {
+        if (DISCREPANCIES.equals(field) && fields.contains(field)) {
+          event.put(field, discrepaciesToDtos(
+              discrepancies.getOrDefault(id, Collections.emptyList()), reasons));
+        } else if (!ID.equals(field) && fields.contains(field)) {
+          event.put(field, tuple.get(field));
+        }
+      }
+      content.add(event);
+    }
+
+    String nextCursor = null;
+    if (slice.hasNext()) {
+      Tuple last = slice.getContent().get(slice.getNumberOfElements() - 1);
+      nextCursor = new KeysetCursor(last.get(RECEIVING_DATE, ZonedDateTime.class),
+          last.get(ID, UUID.class)).encode();
+    }
+
+    return new KeysetPageDto<>(content, size, content.size(), !slice.hasNext(), nextCursor);
+  }
+
+  private Map<UUID, List<Discrepancy>> findDiscrepancies(List<Tuple> events) {
+    if (events.isEmpty()) {
+      return Collections.emptyMap();
+    }
+
+    return pointOfDeliveryEventsRepository
+        .findDiscrepanciesByEventIdIn(events.stream()
+            .map(event -> event.get(ID, UUID.class))
+            .collect(toList()))
+        .stream()
+        .collect(groupingBy(discrepancy -> discrepancy.getPointOfDeliveryEvent().getId()));
+  }
+
+  /**
+   * Search Point of Delivery events by any combination of criteria, newest received first
+   * unless sorted otherwise. Pages are selected by number and matching events are not counted,
+   * so the returned page has no cursor.
+   *
+   * @param params search criteria, those not set are not applied.
+   * @param pageable page number, size capped by the configured maximum, and sort.
+   * @return page of matching pod events.
+   */
+  @Transactional(readOnly = true)
+  public KeysetPageDto<PointOfDeliveryEventDto> searchPointOfDeliveryEvents(
+      PointOfDeliveryEventSearchParams params, Pageable pageable) {
+    int size = Math.min(pageable.getPageSize(), eventsMaxPageSize);
+    Sort sort = getSearchSort(pageable.getSort());
+
+    Slice<PointOfDeliveryEvent> slice = pointOfDeliveryEventsRepository.findSlice(
+        PointOfDeliveryEventSpecifications.matching(params),
+        PageRequest.of(pageable.getPageNumber(), size, sort));
+
+    List<PointOfDeliveryEvent> events = withDiscrepancies(slice.getContent());
+    return new KeysetPageDto<>(podToDto(events), size, events.size(), !slice.hasNext(), null);
+  }
+
+  /**
+   * Validates sort of a search and makes it total, ordering events that are equal otherwise by
+   * id in the direction of the last order.
+   */
+  private Sort getSearchSort(Sort sort) {
+    if (sort.isUnsorted()) {
+      return Sort.by(Direction.DESC, RECEIVING_DATE, ID);
+    }
+
+    Direction direction = Direction.ASC;
+    for (Sort.Order order : sort) {
+      if (!SEARCH_SORT_PROPERTIES.contains(order.getProperty())) {
+        throw new ValidationMessageException(new Message(ERROR_EVENT_SEARCH_SORT_INVALID,
+            order.getProperty(), String.join(", ", SEARCH_SORT_PROPERTIES)));
+      }
+      direction = order.getDirection();
+    }
+    return sort.and(Sort.by(direction, ID));
+  }
+
+  private Direction getReceivingDateDirection(Sort sort) {
+    Direction direction = Direction.DESC;
+    for (Sort.Order order : sort) {
+      if (!RECEIVING_DATE.equals(order.getProperty())) {
+        throw new ValidationMessageException(
+            new Message(ERROR_EVENT_SORT_INVALID, order.getProperty()));
+      }
+      direction = order.getDirection();
+    }
+    return direction;
+  }
+
+  /**
+   * Stream all Point of Delivery events of the destination, newest first, without holding them in
+   * memory. Events are read with a database cursor and handed over in chunks, together with their
+   * discrepancies, which are loaded with one query per chunk.
+   *
+   * @param destinationId destination id.
+   * @param consumer consumer of the chunks of pod events.
+   */
+  @Transactional(readOnly = true)
+  public void streamPointOfDeliveryEvents(UUID destinationId,
+      Consumer<List<PointOfDeliveryEventDto>> consumer) {
+    try (Stream<PointOfDeliveryEvent> events =
+        pointOfDeliveryEventsRepository.streamByDestinationId(destinationId)) {
+      List<PointOfDeliveryEvent> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+      events.forEach(event -> {
+        chunk.add(event);
+        if (chunk.size() == STREAM_CHUNK_SIZE) {
+          streamChunk(chunk, consumer);
+        }
+      });
+      streamChunk(chunk, consumer);
+    }
+  }
+
+  private void streamChunk(List<PointOfDeliveryEvent> chunk,
+      Consumer<List<PointOfDeliveryEventDto>> consumer) {
+    if (!chunk.isEmpty()) {
+      consumer.accept(podToDto(withDiscrepancies(chunk)));
+      chunk.clear();
+      // detach streamed events, so that the persistence context does not grow with the result
+      entityManager.clear();
+    }
+  }
+
+  /**
+   * Get Point of Delivery events of the destination that have been changed or removed since
+   * the position the client has reached in its previous sync.
+   *
+   * <p>Changes from the last few seconds are left for the next sync: a transaction that is still
+   * running may commit an event stamped with an earlier time than the ones already returned,
+   * and that event would otherwise be skipped by the cursor.
+   *
+   * @param destinationId destination id.
+   * @param cursor cursor returned by the previous sync, or null to sync from the beginning.
+   * @param size maximum number of changes to return, or null for the configured maximum.
+   * @return changed events, ids of removed events and the cursor for the next sync.
+   * @throws GoneMessageException if tombstones after the cursor have already been removed.
+   */
+  public PointOfDeliveryEventChangesDto getChanges(UUID destinationId, String cursor,
+      Integer size) {
+    KeysetCursor since = cursor == null ? KeysetCursor.start() : KeysetCursor.decode(cursor);
+    if (cursor != null) {
+      checkTombstonesKept(destinationId, since, cursor);
+    }
+    int limit = size == null ? syncMaxPageSize : Math.max(1, Math.min(size, syncMaxPageSize));
+    ZonedDateTime until = ZonedDateTime.now(clock).minusSeconds(syncSettleSeconds);
+
+    // one extra row from each table tells whether anything is left after this page
+    PageRequest page = PageRequest.of(0, limit + 1);
+    List<PointOfDeliveryEvent> events = pointOfDeliveryEventsRepository.findChanges(
+        destinationId, since.getTimestamp(), since.getId(), until, page);
+    List<PointOfDeliveryEventTombstone> tombstones = tombstoneRepository.findChanges(
+        destinationId, since.getTimestamp(), since.getId(), until, page);
+
+    List<PointOfDeliveryEvent> changed = new ArrayList<>();
+    List<UUID> deleted = new ArrayList<>();
+    KeysetCursor position = since;
+    int eventIndex = 0;
+    int tombstoneIndex = 0;
+
+    while (changed.size() + deleted.size() < limit
+        && (eventIndex < events.size() || tombstoneIndex < tombstones.size())) {
+      KeysetCursor nextEvent = eventIndex < events.size()
+          ? new KeysetCursor(events.get(eventIndex).getLastModified(),
+              events.get(eventIndex).getId())
+          : null;
+      KeysetCursor nextTombstone = tombstoneIndex < tombstones.size()
+          ? new KeysetCursor(tombstones.get(tombstoneIndex).getDeletedDate(),
+              tombstones.get(tombstoneIndex).getId())
+          : null;
+
+      if (nextTombstone == null
+          || nextEvent != null && nextEvent.compareTo(nextTombstone) < 0) {
+        changed.add(events.get(eventIndex++));
+        position = nextEvent;
+      } else {
+        deleted.add(tombstones.get(tombstoneIndex++).getEventId());
+        position = nextTombstone;
+      }
+    }
+
+    boolean hasMore = eventIndex < events.size() || tombstoneIndex < tombstones.size();
+    return new PointOfDeliveryEventChangesDto(
+        podToDto(changed), deleted, position.encode(), hasMore);
+  }
+
+  // a cursor at or before the latest removed tombstone of the destination may have missed it
+  private void checkTombstonesKept(UUID destinationId, KeysetCursor since, String cursor) {
+    Optional<ZonedDateTime> lastExpiredDate =
+        tombstoneRepository.findLastExpiredDate(destinationId);
+    if (lastExpiredDate.isPresent() && !since.getTimestamp().isAfter(lastExpiredDate.get())) {
+      throw new GoneMessageException(new Message(ERROR_CURSOR_EXPIRED, cursor));
     }
-    return podToDto(pointOfDeliveryEvents);
+  }
+
+  /**
+   * Removes tombstones older than the configured retention from the database, remembering for
+   * each destination the latest of them. Clients whose cursor is not past it are told to sync
+   * from the beginning.
+   */
+  @Transactional
+  @Scheduled(cron = "${pointofdelivery.sync.tombstoneCleanup.cron}", zone = "${time.zoneId}")
+  public void deleteExpiredTombstones() {
+    int destinations = tombstoneRepository.deleteExpired(
+        ZonedDateTime.now(clock).minusDays(tombstoneRetentionDays));
+    LOGGER.debug("Deleted expired point of delivery event tombstones of {} destinations",
+        destinations);
   }
 
   /**
@@ -77,12 +739,30 @@ public class PointOfDeliveryService {
   }
 
   /**
-   * Save or update POD.
+   * Get a Point of Delivery event by id.
+   *
+   * @param id point of delivery event id.
+   * @return the pod event.
+   * @throws ResourceNotFoundException if there is no event with the given id.
+   */
+  public PointOfDeliveryEventDto getPointOfDeliveryEvent(UUID id) {
+    return pointOfDeliveryEventsRepository.findById(id)
+        .map(this::podToDto)
+        .orElseThrow(() -> new ResourceNotFoundException(
+            new Message(ERROR_EVENT_NOT_FOUND, id)));
+  }
+
+  /**
+   * Save or update POD. The update fails if the event is no longer at the version the client
+   * has read, or if it is changed by another transaction while this one is running.
    *
    * @param dto POD event dto.
+   * @param expectedVersion version the client has read, null to update any version.
    * @return the saved POD event.
+   * @throws PreconditionFailedMessageException if the event has been changed in the meantime.
    */
-  public PointOfDeliveryEventDto updatePointOfDeliveryEvent(PointOfDeliveryEventDto dto, UUID id) {
+  public PointOfDeliveryEventDto updatePointOfDeliveryEvent(PointOfDeliveryEventDto dto, UUID id,
+      Long expectedVersion) {
     //LOGGER.info("update POS event");
     //physicalInventoryValidator.validateDraft(dto, id);
     //checkPermission(dto.getProgramId(), dto.getFacilityId());
@@ -95,21 +775,114 @@ public class PointOfDeliveryService {
 
     if (existingPodEventOpt.isPresent()) {
       PointOfDeliveryEvent existingPodEvent = existingPodEventOpt.get();
+      if (expectedVersion != null && !expectedVersion.equals(existingPodEvent.getVersion())) {
+        throw new PreconditionFailedMessageException(
+            new Message(ERROR_EVENT_VERSION_MISMATCH, id));
+      }
+
       PointOfDeliveryEventProcessContext context = contextBuilder.buildContext(dto);
       dto.setContext(context);
       PointOfDeliveryEvent incomingPodEvent = dto.toPointOfDeliveryEvent();
 
+      // Clients syncing the old destination have to drop the event when it is moved
+      if (incomingPodEvent.getDestinationId() != null
+          && !incomingPodEvent.getDestinationId().equals(existingPodEvent.getDestinationId())) {
+        saveTombstone(existingPodEvent);
+      }
+
+      // taken out of its rollup as it is now, and added again once it has been written
+      rollupService.removeEvents(Collections.singleton(id));
+
       // Update the Existing PodEvent object with values incoming DTO data
+      final UUID previousDestinationId = existingPodEvent.getDestinationId();
       existingPodEvent = copyAttributes(existingPodEvent, incomingPodEvent);
+      // discrepancies do not own the event, so changing only them would not update its version
+      existingPodEvent.updateLastModified();
     
-      //save updated pod event
+      //save updated pod event, flushed so that the returned version is the new one
       pointOfDeliveryEventsRepository.save(existingPodEvent);
+      try {
+        entityManager.flush();
+      } catch (OptimisticLockException | ObjectOptimisticLockingFailureException ex) {
+        throw new PreconditionFailedMessageException(ex,
+            new Message(ERROR_EVENT_VERSION_MISMATCH, id));
+      }
+      rollupService.addEvents(Collections.singleton(id));
+      evictCachedEvents(Arrays.asList(previousDestinationId, existingPodEvent.getDestinationId()));
       return podToDto(existingPodEvent);
     } else {
       return null;
     }
   }
 
+  /**
+   * Partially update POD. Attributes present in the dto are written with a single UPDATE,
+   * without loading the event. Discrepancies can only be replaced with a full update. When the
+   * monthly totals change and no version is expected, the update is made at the version the
+   * event has when it is taken out of the totals, so that it fails if the event is changed by
+   * another transaction in between.
+   *
+   * @param id POD event id.
+   * @param dto POD event dto with the attributes to change, the rest being null.
+   * @param expectedVersion version the client has read, null to update any version.
+   * @return the new version of the event if it is known, that is if expected version was given.
+   * @throws ResourceNotFoundException if there is no event with the given id.
+   * @throws PreconditionFailedMessageException if the event is no longer at expected version.
+   */
+  @Transactional
+  public Long patchPointOfDeliveryEvent(UUID id, PointOfDeliveryEventDto dto,
+      Long expectedVersion) {
+    if (dto.getDiscrepancies() != null) {
+      throw new ValidationMessageException(ERROR_EVENT_PATCH_DISCREPANCIES);
+    }
+
+    Map<String, Object> attributes = new LinkedHashMap<>();
+    PATCHABLE_ATTRIBUTES.forEach((name, getter) -> {
+      Object value = getter.apply(dto);
+      if (value != null) {
+        attributes.put(name, value);
+      }
+    });
+
+    if (attributes.isEmpty()) {
+      throw new ValidationMessageException(ERROR_EVENT_PATCH_EMPTY);
+    }
+
+    boolean changesRollup = attributes.keySet().stream().anyMatch(ROLLUP_ATTRIBUTES::contains);
+    Long version = expectedVersion;
+    if (changesRollup) {
+      // the update has to be at the version taken out of the rollups, see removeEvents
+      if (version == null) {
+        version = findVersion(id);
+      }
+      rollupService.removeEvents(Collections.singleton(id));
+    }
+
+    ZonedDateTime now = ZonedDateTime.now(clock).truncatedTo(ChronoUnit.MICROS);
+    if (attributes.containsKey(DESTINATION_ID)) {
+      pointOfDeliveryEventsRepository.insertTombstoneIfMoved(
+          id, dto.getDestinationId(), uuidGenerator.generate(), now);
+    }
+
+    List<UUID> destinationIds = pointOfDeliveryEventsRepository
+        .updateAttributes(id, version, attributes, now);
+
+    if (destinationIds.isEmpty()) {
+      if (!pointOfDeliveryEventsRepository.existsById(id)) {
+        throw new ResourceNotFoundException(new Message(ERROR_EVENT_NOT_FOUND, id));
+      }
+      throw new PreconditionFailedMessageException(
+          new Message(ERROR_EVENT_VERSION_MISMATCH, id));
+    }
+
+    if (changesRollup) {
+      rollupService.addEvents(Collections.singleton(id));
+    }
+
+    evictCachedEvents(destinationIds);
+    return expectedVersion == null ? null : expectedVersion + 1;
+  }
+
   private PointOfDeliveryEvent copyAttributes(
       PointOfDeliveryEvent existingPodEvent, PointOfDeliveryEvent incomingPodEvent) {
     if (incomingPodEvent.getSourceId() != null) {
@@ -175,27 +948,46 @@ public class PointOfDeliveryService {
   }
 
   /**
-   * Delete POD.
+   * Delete POD. The delete fails if the event is changed by another transaction while this one
+   * is running.
    *
    * @param id POD event id.
+   * @throws ResourceNotFoundException if there is no event with the given id.
+   * @throws PreconditionFailedMessageException if the event has been changed in the meantime.
    */
+  @Transactional
   public void deletePointOfDeliveryEvent(UUID id) {
-    //LOGGER.info("update POS event");
-    //physicalInventoryValidator.validateDraft(dto, id);
-    //checkPermission(dto.getProgramId(), dto.getFacilityId());
+    LOGGER.info("Attempting to delete pod event with id = " + id);
+    // deleted at the version taken out of the rollups, see removeEvents
+    long version = findVersion(id);
+    rollupService.removeEvents(Collections.singleton(id));
+    List<UUID> destinationIds = pointOfDeliveryEventsRepository.deleteLeavingTombstone(id,
+        version, uuidGenerator.generate(), ZonedDateTime.now(clock).truncatedTo(ChronoUnit.MICROS));
 
-    //checkIfDraftExists(dto, id);
-    
-    LOGGER.info("Attempting to fetch pod event with id = " + id);
-    Optional<PointOfDeliveryEvent> existingPodEventOpt = 
-        pointOfDeliveryEventsRepository.findById(id);
+    if (destinationIds.isEmpty()) {
+      if (!pointOfDeliveryEventsRepository.existsById(id)) {
+        throw new ResourceNotFoundException(new Message(ERROR_EVENT_NOT_FOUND, id));
+      }
+      throw new PreconditionFailedMessageException(
+          new Message(ERROR_EVENT_VERSION_MISMATCH, id));
+    }
 
-    if (existingPodEventOpt.isPresent()) {
-      //delete pod event
-      pointOfDeliveryEventsRepository.delete(existingPodEventOpt.get());
-    } else {
-      throw new ResourceNotFoundException(new Message("Point of delivery event not found ", id));
+    evictCachedEvents(destinationIds);
+  }
+
+  private long findVersion(UUID id) {
+    return pointOfDeliveryEventsRepository.findVersionById(id)
+        .orElseThrow(() -> new ResourceNotFoundException(
+            new Message(ERROR_EVENT_NOT_FOUND, id)));
+  }
+
+  private void saveTombstone(PointOfDeliveryEvent pointOfDeliveryEvent) {
+    if (pointOfDeliveryEvent.getDestinationId() == null) {
+      return;
     }
+    tombstoneRepository.save(new PointOfDeliveryEventTombstone(
+        pointOfDeliveryEvent.getId(), pointOfDeliveryEvent.getDestinationId(),
+        ZonedDateTime.now(clock).truncatedTo(ChronoUnit.MICROS)));
   }
 
   /**
@@ -207,18 +999,27 @@ public class PointOfDeliveryService {
   private List<PointOfDeliveryEventDto> podToDto(
         Collection<PointOfDeliveryEvent> pointOfDeliveryEvents) {
 
+    Map<UUID, RejectionReasonDto> reasons = findRejectionReasons(pointOfDeliveryEvents.stream()
+        .flatMap(event -> event.getDiscrepancies().stream()));
     List<PointOfDeliveryEventDto> podDtos = new ArrayList<>(pointOfDeliveryEvents.size());
-    pointOfDeliveryEvents.forEach(i -> podDtos.add(podToDto(i)));
+    pointOfDeliveryEvents.forEach(i -> podDtos.add(podToDto(i, reasons)));
     return podDtos;
   }
 
+  private PointOfDeliveryEventDto podToDto(PointOfDeliveryEvent pointOfDeliveryEvent) {
+    return podToDto(pointOfDeliveryEvent,
+        findRejectionReasons(pointOfDeliveryEvent.getDiscrepancies().stream()));
+  }
+
   /**
    * Create dto from jpa model.
    *
    * @param pointOfDeliveryEvent inventory jpa model.
+   * @param reasons rejection reasons of its discrepancies, see {@link #findRejectionReasons}.
    * @return created dto.
    */
-  private PointOfDeliveryEventDto podToDto(PointOfDeliveryEvent pointOfDeliveryEvent) {
+  private PointOfDeliveryEventDto podToDto(PointOfDeliveryEvent pointOfDeliveryEvent,
+      Map<UUID, RejectionReasonDto> reasons) {
     return PointOfDeliveryEventDto.builder()
       .id(pointOfDeliveryEvent.getId())
       .sourceId(pointOfDeliveryEvent.getSourceId())
@@ -240,7 +1041,8 @@ public class PointOfDeliveryService {
       .containersQuantityAccepted(pointOfDeliveryEvent.getContainersQuantityAccepted())
       .containersQuantityRejected(pointOfDeliveryEvent.getContainersQuantityRejected())
       .remarks(pointOfDeliveryEvent.getRemarks())
-      .discrepancies(discrepaciesToDtos(pointOfDeliveryEvent.getDiscrepancies()))
+      .discrepancies(discrepaciesToDtos(pointOfDeliveryEvent.getDiscrepancies(), reasons))
+      .version(pointOfDeliveryEvent.getVersion())
       .build();
   }
 
@@ -248,13 +1050,14 @@ public class PointOfDeliveryService {
    * Create from jpa model.
    *
    * @param discrepancies inventory jpa model.
+   * @param reasons rejection reasons of the discrepancies.
    * @return created dto.
    */
   private List<DiscrepancyDto> discrepaciesToDtos(
-        Collection<Discrepancy> discrepancies) {
+        Collection<Discrepancy> discrepancies, Map<UUID, RejectionReasonDto> reasons) {
 
     List<DiscrepancyDto> discrepacyDtos = new ArrayList<>(discrepancies.size());
-    discrepancies.forEach(i -> discrepacyDtos.add(discrepancyToDto(i)));
+    discrepancies.forEach(i -> discrepacyDtos.add(discrepancyToDto(i, reasons)));
     return discrepacyDtos;
   }
 
@@ -262,18 +1065,51 @@ public class PointOfDeliveryService {
    * Create dto from jpa model.
    *
    * @param discrepancy inventory jpa model.
+   * @param reasons rejection reasons by id.
    * @return created dto.
    */
-  private DiscrepancyDto discrepancyToDto(Discrepancy discrepancy) {
+  private DiscrepancyDto discrepancyToDto(Discrepancy discrepancy,
+      Map<UUID, RejectionReasonDto> reasons) {
 
     return DiscrepancyDto.builder()
       .id(discrepancy.getId())
-      .rejectionReason(
-          rejectionReasonService.findOne(discrepancy.getRejectionReasonId()))
+      .rejectionReason(reasons.get(discrepancy.getRejectionReasonId()))
       .shipmentType(discrepancy.getShipmentType())
       .quantityAffected(discrepancy.getQuantityAffected())
       .comments(discrepancy.getComments())
       .build();
   }
 
+  /**
+   * Looks up the rejection reasons of the discrepancies in the catalog, each one once however
+   * many discrepancies refer to it.
+   *
+   * @param discrepancies discrepancies of the events being returned.
+   * @return rejection reasons by id, null for reasons that do not exist.
+   */
+  private Map<UUID, RejectionReasonDto> findRejectionReasons(Stream<Discrepancy> discrepancies) {
+    Map<UUID, RejectionReasonDto> reasons = new HashMap<>();
+    discrepancies
+        .map(Discrepancy::getRejectionReasonId)
+        .filter(Objects::nonNull)
+        .distinct()
+        .forEach(reasonId -> reasons.put(reasonId, rejectionReasonCatalog.find(reasonId)));
+    return reasons;
+  }
+
+  @AllArgsConstructor
+  private static final class CachedEventsPage {
+    private final ResourceVersionDto version;
+    private final KeysetPageDto<PointOfDeliveryEventDto> page;
+  }
+
+  @AllArgsConstructor
+  @EqualsAndHashCode
+  private static final class EventsPageKey {
+    private final UUID destinationId;
+    private final String cursor;
+    private final int page;
+    private final int size;
+    private final Direction direction;
+  }
 }
@@ -0,0 +1,223 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.service;
+
+import static org.openlmis.pointofdelivery.i18n.MessageKeys.ERROR_SERVICE_UNAVAILABLE;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openlmis.pointofdelivery.exception.ServiceUnavailableMessageException;
+import org.openlmis.pointofdelivery.service.referencedata.DataRetrievalException;
+import org.openlmis.pointofdelivery.util.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * Circuit breaker and bulkhead of the calls to one other service, so that a slow or failing
+ * service does not tie up every request thread of this one.
+ *
+ * <p>At most the configured number of calls are in progress at once; a call waits a short time
+ * for a place and is rejected otherwise. After the configured number of consecutive failures
+ * (the service could not be reached, timed out or answered with a server error) the breaker
+ * opens and calls are rejected without being sent. Once the open duration has passed, a single
+ * trial call is let through: the breaker closes when it succeeds and opens again when it fails.
+ *
+ * <p>Transitions are counted as service.circuitBreaker.transitions, the current state is
+ * published as service.circuitBreaker.state (0 closed, 1 open, 2 half open) and rejected calls
+ * are counted as service.requests.rejected.
+ */
+public class ServiceGuard {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ServiceGuard.class);
+  private static final String METRIC_PREFIX = "service.circuitBreaker";
+  private static final String SERVICE_TAG = "service";
+
+  public enum State {
+    CLOSED, OPEN, HALF_OPEN
+  }
+
+  private final String service;
+  private final int failureThreshold;
+  private final Duration openDuration;
+  private final long bulkheadWaitMillis;
+  private final Semaphore bulkhead;
+  private final Clock clock;
+  private final MeterRegistry meterRegistry;
+
+  private final Counter rejectedOpen;
+  private final Counter rejectedBulkhead;
+
+  private State state = State.CLOSED;
+  private int failures;
+  private Instant openedAt;
+  private boolean trialInProgress;
+
+  /**
+   * Creates the guard of a service and registers its metrics.
+   *
+   * @param service            name of the service.
+   * @param failureThreshold   consecutive failures opening the breaker.
+   * @param openDuration       time calls are rejected for before a trial call.
+   * @param maxConcurrentCalls calls in progress at most.
+   * @param bulkheadWaitMillis time a call waits for a place before it is rejected.
+   * @param clock              clock.
+   * @param meterRegistry      registry of the metrics.
+   */
+  public ServiceGuard(String service, int failureThreshold, Duration openDuration,
+      int maxConcurrentCalls, long bulkheadWaitMillis, Clock clock, MeterRegistry meterRegistry) {
+    this.service = service;
+    this.failureThreshold = failureThreshold;
+    this.openDuration = openDuration;
+    this.bulkheadWaitMillis = bulkheadWaitMillis;
+    this.bulkhead = new Semaphore(maxConcurrentCalls);
+    this.clock = clock;
+    this.meterRegistry = meterRegistry;
+
+    Tags tags = Tags.of(SERVICE_TAG, service);
+    meterRegistry.gauge(METRIC_PREFIX + ".state", tags, this, guard -> guard.getState().ordinal());
+    meterRegistry.gauge("service.bulkhead.available", tags, bulkhead, Semaphore::availablePermits);
+    rejectedOpen = meterRegistry.counter("service.requests.rejected",
+        tags.and("reason", "circuitBreaker"));
+    rejectedBulkhead = meterRegistry.counter("service.requests.rejected",
+        tags.and("reason", "bulkhead"));
+  }
+
+  /**
+   * Whether the exception means the service is unavailable, rather than that it rejected the
+   * request.
+   */
+  public static boolean isUnavailable(RuntimeException ex) {
+    if (ex instanceof DataRetrievalException) {
+      return ((DataRetrievalException) ex).getStatus().is5xxServerError();
+    }
+
+    return ex instanceof ResourceAccessException
+        || ex instanceof HttpServerErrorException
+        || ex instanceof ServiceUnavailableMessageException;
+  }
+
+  /**
+   * Makes the call if the breaker and bulkhead allow it.
+   *
+   * @param call call of the service.
+   * @return result of the call.
+   * @throws ServiceUnavailableMessageException if the call is rejected.
+   */
+  public <R> R call(Supplier<R> call) {
+    acquire();
+    try {
+      allow();
+      boolean succeeded = false;
+      try {
+        R result = call.get();
+        succeeded = true;
+        return result;
+      } catch (RuntimeException ex) {
+        succeeded = !isUnavailable(ex);
+        throw ex;
+      } finally {
+        record(succeeded);
+      }
+    } finally {
+      bulkhead.release();
+    }
+  }
+
+  /**
+   * Takes one more place in the bulkhead for a call made in parallel with an allowed call, so
+   * that every call in progress holds a place. Does not wait, the allowed call can be made
+   * without its parallel ones.
+   *
+   * @return whether the place was taken, then to be given back by {@link #releaseParallel()}.
+   */
+  public boolean tryAcquireParallel() {
+    return bulkhead.tryAcquire();
+  }
+
+  public void releaseParallel() {
+    bulkhead.release();
+  }
+
+  public synchronized State getState() {
+    return state;
+  }
+
+  private void acquire() {
+    boolean acquired;
+    try {
+      acquired = bulkhead.tryAcquire(bulkheadWaitMillis, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      acquired = false;
+    }
+
+    if (!acquired) {
+      rejectedBulkhead.increment();
+      throw unavailable();
+    }
+  }
+
+  private synchronized void allow() {
+    if (State.OPEN == state && !clock.instant().isBefore(openedAt.plus(openDuration))) {
+      transition(State.HALF_OPEN);
+      trialInProgress = true;
+      return;
+    }
+
+    if (State.OPEN == state || (State.HALF_OPEN == state && trialInProgress)) {
+      rejectedOpen.increment();
+      throw unavailable();
+    }
+  }
+
+  private synchronized void record(boolean succeeded) {
+    trialInProgress = false;
+
+    if (succeeded) {
+      failures = 0;
+      if (State.CLOSED != state) {
+        transition(State.CLOSED);
+      }
+      return;
+    }
+
+    failures++;
+    if (State.HALF_OPEN == state || (State.CLOSED == state && failures >= failureThreshold)) {
+      openedAt = clock.instant();
+      transition(State.OPEN);
+    }
+  }
+
+  private void transition(State to) {
+    LOGGER.warn("Circuit breaker of the {} service changed from {} to {}", service, state, to);
+    meterRegistry.counter(METRIC_PREFIX + ".transitions",
+        SERVICE_TAG, service, "from", state.name(), "to", to.name()).increment();
+    state = to;
+  }
+
+  private ServiceUnavailableMessageException unavailable() {
+    return new ServiceUnavailableMessageException(
+        new Message(ERROR_SERVICE_UNAVAILABLE, service));
+  }
+}
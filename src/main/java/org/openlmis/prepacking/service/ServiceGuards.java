@@ -0,0 +1,64 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Guards of the other services, one per service, all configured alike.
+ */
+@Component
+public class ServiceGuards {
+
+  @Autowired
+  private Clock clock;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Value("${request.circuitBreaker.failureThreshold}")
+  private int failureThreshold;
+
+  @Value("${request.circuitBreaker.openSeconds}")
+  private long openSeconds;
+
+  @Value("${request.bulkhead.maxConcurrentCalls}")
+  private int maxConcurrentCalls;
+
+  @Value("${request.bulkhead.waitMillis}")
+  private long bulkheadWaitMillis;
+
+  private final ConcurrentMap<String, ServiceGuard> guards = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the guard of the service, created on first use.
+   *
+   * @param service name of the service.
+   * @return guard of the service.
+   */
+  public ServiceGuard get(String service) {
+    return guards.computeIfAbsent(service, name -> new ServiceGuard(name, failureThreshold,
+        Duration.ofSeconds(openSeconds), maxConcurrentCalls, bulkheadWaitMillis, clock,
+        meterRegistry));
+  }
+}
@@ -15,13 +15,59 @@
 
 package org.openlmis.pointofdelivery.service.referencedata;
 
+import static org.openlmis.pointofdelivery.i18n.MessageKeys.ERROR_SERVICE_UNAVAILABLE;
+
+import com.google.common.base.Throwables;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import javax.annotation.PostConstruct;
+import org.openlmis.pointofdelivery.exception.ServiceUnavailableMessageException;
 import org.openlmis.pointofdelivery.service.BaseCommunicationService;
+import org.openlmis.pointofdelivery.util.BatchLoader;
+import org.openlmis.pointofdelivery.util.Message;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 
 public abstract class BaseReferenceDataService<T> extends BaseCommunicationService<T> {
   @Value("${referencedata.url}")
   private String referenceDataUrl;
 
+  @Value("${referencedata.batch.maxSize}")
+  private int batchMaxSize;
+
+  @Value("${referencedata.batch.windowMillis}")
+  private long batchWindowMillis;
+
+  @Autowired
+  @Qualifier("serviceBatchScheduler")
+  private ScheduledExecutorService batchScheduler;
+
+  @Autowired
+  @Qualifier("serviceBatchExecutor")
+  private ExecutorService batchExecutor;
+
+  private BatchLoader<UUID, T> batchLoader;
+
+  @PostConstruct
+  void initBatchLoader() {
+    if (this instanceof BulkLookup) {
+      @SuppressWarnings("unchecked")
+      BulkLookup<T> bulkLookup = (BulkLookup<T>) this;
+      batchLoader = new BatchLoader<>(bulkLookup::findByIds, batchMaxSize, batchWindowMillis,
+          batchScheduler, batchExecutor);
+    }
+  }
+
+  @Override
+  protected String getServiceName() {
+    return "referencedata";
+  }
+
   protected String getServiceUrl() {
     return referenceDataUrl;
   }
@@ -31,4 +77,35 @@ public abstract class BaseReferenceDataService<T> extends BaseCommunicationServi
   protected abstract Class<T> getResultClass();
 
   protected abstract Class<T[]> getArrayResultClass();
+
+  /**
+   * Retrieves one object from service by id. For services implementing {@link BulkLookup},
+   * lookups of single objects requested within a short window are retrieved together by
+   * {@link BulkLookup#findByIds(Collection)}. Concurrent lookups of the same object share one
+   * call either way. When all batch threads are busy and their queue is full, the lookup fails as
+   * if the service were unavailable.
+   *
+   * @param id UUID of requesting object.
+   * @return Requesting reference data object, or null if it does not exist.
+   */
+  @Override
+  protected T retrieveOne(UUID id) {
+    if (null == batchLoader) {
+      return super.retrieveOne(id);
+    }
+
+    return coalesce(getCoalescingKey(id), () -> loadBatched(id));
+  }
+
+  private T loadBatched(UUID id) {
+    try {
+      return batchLoader.load(id).join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RejectedExecutionException) {
+        throw new ServiceUnavailableMessageException(
+            new Message(ERROR_SERVICE_UNAVAILABLE, getServiceName()));
+      }
+      throw Throwables.propagate(ex.getCause());
+    }
+  }
 }
@@ -0,0 +1,37 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.service.referencedata;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Reference data service able to look up many objects by their ids in one request. Single
+ * lookups by id of such services are batched, see {@link BaseReferenceDataService#retrieveOne}.
+ *
+ * @param <T> type of the objects.
+ */
+public interface BulkLookup<T> {
+
+  /**
+   * Finds objects by their ids in one request.
+   *
+   * @param ids ids to look for.
+   * @return map of ids and objects, without the ids that do not exist.
+   */
+  Map<UUID, T> findByIds(Collection<UUID> ids);
+}
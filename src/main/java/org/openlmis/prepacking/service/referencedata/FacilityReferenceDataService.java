@@ -26,7 +26,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
 
 @Service
-public class FacilityReferenceDataService extends BaseReferenceDataService<FacilityDto> {
+public class FacilityReferenceDataService extends BaseReferenceDataService<FacilityDto>
+    implements BulkLookup<FacilityDto> {
 
   @Override
   protected String getUrl() {
@@ -42,13 +43,14 @@ public class FacilityReferenceDataService extends BaseReferenceDataService<Facil
   protected Class<FacilityDto[]> getArrayResultClass() {
     return FacilityDto[].class;
   }
-  
+
   /**
    * Finds facilities by their ids.
    *
    * @param ids ids to look for.
    * @return map of ids and facilities
    */
+  @Override
   public Map<UUID, FacilityDto> findByIds(Collection<UUID> ids) {
     RequestParameters parameters = RequestParameters
         .init()
@@ -20,6 +20,8 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.openlmis.pointofdelivery.dto.referencedata.ResultDto;
 import org.openlmis.pointofdelivery.dto.referencedata.UserDto;
 import org.openlmis.pointofdelivery.service.ServiceResponse;
@@ -28,7 +30,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
 
 @Service
-public class UserReferenceDataService extends BaseReferenceDataService<UserDto> {
+public class UserReferenceDataService extends BaseReferenceDataService<UserDto>
+    implements BulkLookup<UserDto> {
 
   @Override
   protected String getUrl() {
@@ -45,6 +48,22 @@ public class UserReferenceDataService extends BaseReferenceDataService<UserDto>
     return UserDto[].class;
   }
 
+  /**
+   * Finds users by their ids.
+   *
+   * @param ids ids to look for.
+   * @return map of ids and users
+   */
+  @Override
+  public Map<UUID, UserDto> findByIds(Collection<UUID> ids) {
+    Map<String, Object> payload = Collections.singletonMap("id", ids);
+
+    Page<UserDto> users = getPage("search", Collections.singletonMap("size", ids.size()),
+        payload);
+    return users.getContent().stream()
+        .collect(Collectors.toMap(UserDto::getId, Function.identity()));
+  }
+
   public Collection<UserDto> findUsers(Map<String, Object> parameters) {
     return findAll("search", parameters);
   }
@@ -22,6 +22,11 @@ public abstract class BaseRequisitionService<T> extends BaseCommunicationService
   @Value("${requisition.url}")
   private String requisitionUrl;
 
+  @Override
+  protected String getServiceName() {
+    return "requisition";
+  }
+
   protected String getServiceUrl() {
     return requisitionUrl;
   }
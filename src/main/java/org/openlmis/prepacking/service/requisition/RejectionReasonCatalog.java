@@ -0,0 +1,128 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.service.requisition;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.openlmis.pointofdelivery.dto.requisition.RejectionReasonDto;
+import org.openlmis.pointofdelivery.service.ServiceResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory copy of all rejection reasons of the requisition service, so that discrepancies can
+ * be mapped without a remote call each. The whole list is fetched in one request and revalidated
+ * with its ETag, periodically and whenever an unknown reason is looked up. Lookups of unknown
+ * reasons trigger at most one refresh per configured interval, whether it succeeds or not; when
+ * a refresh fails, the reasons loaded before keep being served.
+ */
+@Component
+public class RejectionReasonCatalog {
+  private static final Logger LOGGER = LoggerFactory.getLogger(RejectionReasonCatalog.class);
+
+  @Autowired
+  private RejectionReasonService rejectionReasonService;
+
+  @Autowired
+  private Clock clock;
+
+  @Value("${pointofdelivery.rejectionReasons.missRefreshSeconds}")
+  private long missRefreshSeconds;
+
+  private volatile ImmutableMap<UUID, RejectionReasonDto> reasons = ImmutableMap.of();
+
+  private String etag;
+
+  private Instant refreshedAt;
+
+  /**
+   * Returns the rejection reason with the given id, reloading the catalog if it is not known.
+   *
+   * @param id id of the rejection reason.
+   * @return the rejection reason, or null if it does not exist.
+   */
+  public RejectionReasonDto find(UUID id) {
+    if (id == null) {
+      return null;
+    }
+
+    RejectionReasonDto reason = reasons.get(id);
+    if (reason == null) {
+      refreshOnMiss(id);
+      reason = reasons.get(id);
+    }
+
+    return reason;
+  }
+
+  /**
+   * Revalidates the catalog with the requisition service. Failures are logged and the current
+   * catalog is kept.
+   */
+  @Scheduled(fixedDelayString = "${pointofdelivery.rejectionReasons.refreshMillis}",
+      initialDelayString = "${pointofdelivery.rejectionReasons.refreshMillis}")
+  public void scheduledRefresh() {
+    try {
+      refresh();
+    } catch (RuntimeException ex) {
+      LOGGER.warn("Could not refresh rejection reasons, keeping the current ones", ex);
+    }
+  }
+
+  private synchronized void refreshOnMiss(UUID id) {
+    if (reasons.containsKey(id)) {
+      // loaded by a concurrent lookup
+      return;
+    }
+
+    if (refreshedAt != null
+        && refreshedAt.plusSeconds(missRefreshSeconds).isAfter(clock.instant())) {
+      LOGGER.debug("Rejection reason {} not found, catalog refreshed recently", id);
+      return;
+    }
+
+    try {
+      refresh();
+    } catch (RuntimeException ex) {
+      LOGGER.warn("Could not refresh rejection reasons on a miss of {}, keeping the current ones",
+          id, ex);
+    }
+  }
+
+  private synchronized void refresh() {
+    ServiceResponse<List<RejectionReasonDto>> response;
+    try {
+      response = rejectionReasonService.findAll(etag);
+    } finally {
+      // failed refreshes count too, so that misses do not call an unavailable service each
+      refreshedAt = clock.instant();
+    }
+
+    if (response.isModified()) {
+      reasons = Maps.uniqueIndex(response.getBody(), RejectionReasonDto::getId);
+      etag = response.getETag();
+      LOGGER.debug("Loaded {} rejection reasons", reasons.size());
+    }
+  }
+}
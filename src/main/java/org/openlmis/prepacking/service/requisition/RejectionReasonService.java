@@ -15,8 +15,10 @@
 
 package org.openlmis.pointofdelivery.service.requisition;
 
+import java.util.List;
 import java.util.UUID;
 import org.openlmis.pointofdelivery.dto.requisition.RejectionReasonDto;
+import org.openlmis.pointofdelivery.service.ServiceResponse;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -48,4 +50,14 @@ public class RejectionReasonService extends BaseRequisitionService<RejectionReas
     return findOne(id);
   }
 
+  /**
+   * Return all rejection reasons from the requisition service, unless they have not changed.
+   *
+   * @param etag ETag of the previously returned rejection reasons, or null.
+   * @return response with all rejection reasons, or not modified one without body.
+   */
+  public ServiceResponse<List<RejectionReasonDto>> findAll(String etag) {
+    return tryFindAll("", RejectionReasonDto[].class, etag);
+  }
+
 }
@@ -0,0 +1,130 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Collects single lookups by key into batches loaded with one bulk call. A batch is loaded when
+ * the configured window has passed since its first key was requested, or as soon as it reaches
+ * the maximum size, on the thread requesting its last key. Keys requested again before their
+ * batch is loaded share the same future. Keys missing from the result of the bulk call are
+ * completed with null; when the bulk call fails, every future of the batch fails with its error.
+ * When the executor rejects the bulk call of a batch whose window has passed, every future of the
+ * batch fails with the {@link RejectedExecutionException}.
+ *
+ * @param <K> type of the keys.
+ * @param <V> type of the loaded values.
+ */
+public class BatchLoader<K, V> {
+  private final Function<Set<K>, Map<K, V>> bulkLoad;
+  private final int maxBatchSize;
+  private final long windowMillis;
+  private final ScheduledExecutorService scheduler;
+  private final Executor executor;
+
+  private Map<K, CompletableFuture<V>> batch = new LinkedHashMap<>();
+
+  /**
+   * Creates a loader of batches.
+   *
+   * @param bulkLoad     loads the values of a set of keys in one call.
+   * @param maxBatchSize number of keys loaded at most in one call.
+   * @param windowMillis time to wait for more keys after the first key of a batch.
+   * @param scheduler    schedules loading a batch when its window has passed.
+   * @param executor     runs the bulk calls of batches loaded when their window has passed;
+   *                     should reject calls when saturated rather than run them on the
+   *                     scheduler thread.
+   */
+  public BatchLoader(Function<Set<K>, Map<K, V>> bulkLoad, int maxBatchSize, long windowMillis,
+      ScheduledExecutorService scheduler, Executor executor) {
+    this.bulkLoad = bulkLoad;
+    this.maxBatchSize = maxBatchSize;
+    this.windowMillis = windowMillis;
+    this.scheduler = scheduler;
+    this.executor = executor;
+  }
+
+  /**
+   * Adds the key to the current batch.
+   *
+   * @param key key to load.
+   * @return future completed with the value of the key once its batch is loaded.
+   */
+  public CompletableFuture<V> load(K key) {
+    CompletableFuture<V> future;
+    Map<K, CompletableFuture<V>> full = null;
+
+    synchronized (this) {
+      future = batch.get(key);
+      if (null != future) {
+        return future;
+      }
+
+      future = new CompletableFuture<>();
+      batch.put(key, future);
+
+      if (batch.size() >= maxBatchSize) {
+        full = batch;
+        batch = new LinkedHashMap<>();
+      } else if (batch.size() == 1) {
+        Map<K, CompletableFuture<V>> scheduled = batch;
+        scheduler.schedule(() -> dispatch(scheduled), windowMillis, TimeUnit.MILLISECONDS);
+      }
+    }
+
+    if (null != full) {
+      run(full);
+    }
+
+    return future;
+  }
+
+  private void dispatch(Map<K, CompletableFuture<V>> scheduled) {
+    synchronized (this) {
+      if (batch != scheduled) {
+        // already loaded because it became full
+        return;
+      }
+      batch = new LinkedHashMap<>();
+    }
+
+    try {
+      executor.execute(() -> run(scheduled));
+    } catch (RejectedExecutionException ex) {
+      // never load on the scheduler thread, that would hold up the windows of all other batches
+      scheduled.values().forEach(future -> future.completeExceptionally(ex));
+    }
+  }
+
+  private void run(Map<K, CompletableFuture<V>> loaded) {
+    try {
+      Map<K, V> values = bulkLoad.apply(Collections.unmodifiableSet(loaded.keySet()));
+      loaded.forEach((key, future) -> future.complete(values.get(key)));
+    } catch (RuntimeException | Error ex) {
+      loaded.values().forEach(future -> future.completeExceptionally(ex));
+    }
+  }
+}
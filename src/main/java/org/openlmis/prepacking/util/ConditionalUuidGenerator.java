@@ -15,13 +15,49 @@
 
 package org.openlmis.pointofdelivery.util;
 
+import com.google.common.collect.ImmutableMap;
 import java.io.Serializable;
+import java.util.Map;
+import java.util.Properties;
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
 import org.hibernate.engine.spi.SharedSessionContractImplementor;
 import org.hibernate.id.UUIDGenerator;
+import org.hibernate.id.uuid.StandardRandomStrategy;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
 import org.openlmis.pointofdelivery.domain.BaseEntity;
 
+/**
+ * Generates ids of entities that do not have one yet, with the strategy named by the
+ * {@value #STRATEGY_SETTING} setting: {@code timeOrdered}, the default, or {@code random}.
+ */
 public class ConditionalUuidGenerator extends UUIDGenerator {
 
+  public static final String STRATEGY_SETTING = "pointofdelivery.idStrategy";
+
+  static final String TIME_ORDERED = "timeOrdered";
+  static final String RANDOM = "random";
+
+  private static final Map<String, String> STRATEGIES = ImmutableMap.of(
+      TIME_ORDERED, TimeOrderedUuidGenerationStrategy.class.getName(),
+      RANDOM, StandardRandomStrategy.class.getName());
+
+  @Override
+  public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) {
+    String name = serviceRegistry.getService(ConfigurationService.class)
+        .getSetting(STRATEGY_SETTING, StandardConverters.STRING, TIME_ORDERED);
+    String strategy = STRATEGIES.get(name);
+    if (strategy == null) {
+      throw new MappingException("Unknown " + STRATEGY_SETTING + ": " + name
+          + ", expected one of " + STRATEGIES.keySet());
+    }
+
+    params.setProperty(UUID_GEN_STRATEGY_CLASS, strategy);
+    super.configure(type, params, serviceRegistry);
+  }
+
   @Override
   public Serializable generate(SharedSessionContractImplementor session, Object object) {
     if ((((BaseEntity) object).getId()) == null) {
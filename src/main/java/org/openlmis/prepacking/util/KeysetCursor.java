@@ -0,0 +1,97 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.openlmis.pointofdelivery.i18n.MessageKeys.ERROR_CURSOR_INVALID;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.openlmis.pointofdelivery.exception.ValidationMessageException;
+
+/**
+ * Position in a list ordered by a timestamp and then by id, handed to clients as an opaque
+ * string so they can continue reading the list from where they stopped.
+ */
+@Getter
+@AllArgsConstructor
+public final class KeysetCursor implements Comparable<KeysetCursor> {
+  private static final String SEPARATOR = "|";
+
+  private final ZonedDateTime timestamp;
+  private final UUID id;
+
+  /**
+   * Position before every entry of the list.
+   */
+  public static KeysetCursor start() {
+    return new KeysetCursor(
+        ZonedDateTime.ofInstant(Instant.EPOCH, ZoneOffset.UTC), new UUID(0, 0));
+  }
+
+  /**
+   * Decodes cursor sent by a client.
+   *
+   * @param cursor cursor created by {@link #encode()}.
+   * @return the decoded cursor.
+   * @throws ValidationMessageException if the cursor has not been created by this class.
+   */
+  public static KeysetCursor decode(String cursor) {
+    try {
+      String decoded = new String(Base64.getUrlDecoder().decode(cursor), UTF_8);
+      int separator = decoded.indexOf(SEPARATOR);
+
+      return new KeysetCursor(
+          ZonedDateTime.ofInstant(Instant.parse(decoded.substring(0, separator)), ZoneOffset.UTC),
+          UUID.fromString(decoded.substring(separator + 1)));
+    } catch (IllegalArgumentException | DateTimeParseException
+        | StringIndexOutOfBoundsException ex) {
+      throw new ValidationMessageException(ex, new Message(ERROR_CURSOR_INVALID, cursor));
+    }
+  }
+
+  /**
+   * Encodes the cursor into a string that can be given to clients.
+   */
+  public String encode() {
+    String raw = timestamp.toInstant() + SEPARATOR + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(UTF_8));
+  }
+
+  /**
+   * Orders cursors the way the database orders rows by timestamp and id. Postgres compares uuids
+   * as unsigned bytes, unlike {@link UUID#compareTo(UUID)}.
+   */
+  @Override
+  public int compareTo(KeysetCursor other) {
+    int result = timestamp.toInstant().compareTo(other.timestamp.toInstant());
+    if (result == 0) {
+      result = Long.compareUnsigned(
+          id.getMostSignificantBits(), other.id.getMostSignificantBits());
+    }
+    if (result == 0) {
+      result = Long.compareUnsigned(
+          id.getLeastSignificantBits(), other.id.getLeastSignificantBits());
+    }
+    return result;
+  }
+}
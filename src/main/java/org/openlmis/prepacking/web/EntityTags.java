@@ -0,0 +1,69 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.web;
+
+/**
+ * Conversion between entity versions and the entity tags sent in ETag and If-Match headers.
+ */
+final class EntityTags {
+  static final String ANY = "*";
+
+  private static final String WEAK_PREFIX = "W/";
+  private static final String QUOTE = "\"";
+
+  private EntityTags() {
+    throw new UnsupportedOperationException();
+  }
+
+  static String fromVersion(Long version) {
+    return strong(String.valueOf(version));
+  }
+
+  static String strong(String value) {
+    return QUOTE + value + QUOTE;
+  }
+
+  /**
+   * Creates a tag of a representation that is only semantically equivalent for the same value,
+   * such as a list whose items are assembled from other services.
+   */
+  static String weak(String value) {
+    return WEAK_PREFIX + strong(value);
+  }
+
+  /**
+   * Reads version from an entity tag. Weak tags are accepted too, since proxies that compress
+   * responses turn strong tags into weak ones.
+   *
+   * @param entityTag tag created by {@link #fromVersion(Long)}.
+   * @return the version, or null if the tag has not been created from a version.
+   */
+  static Long toVersion(String entityTag) {
+    String tag = entityTag.trim();
+    if (tag.startsWith(WEAK_PREFIX)) {
+      tag = tag.substring(WEAK_PREFIX.length());
+    }
+    if (tag.length() < 2 || !tag.startsWith(QUOTE) || !tag.endsWith(QUOTE)) {
+      return null;
+    }
+
+    try {
+      return Long.valueOf(tag.substring(1, tag.length() - 1));
+    } catch (NumberFormatException ex) {
+      return null;
+    }
+  }
+}
@@ -15,36 +15,73 @@
 
 package org.openlmis.pointofdelivery.web;
 
+import static org.openlmis.pointofdelivery.i18n.MessageKeys.ERROR_EVENT_SUBMISSION_NOT_FOUND;
+import static org.openlmis.pointofdelivery.i18n.MessageKeys.ERROR_EVENT_VERSION_MISMATCH;
+import static org.springframework.http.HttpStatus.ACCEPTED;
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.NO_CONTENT;
 import static org.springframework.http.HttpStatus.OK;
 import static org.springframework.web.bind.annotation.RequestMethod.GET;
 import static org.springframework.web.bind.annotation.RequestMethod.POST;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.openlmis.pointofdelivery.dto.PointOfDeliveryEventChangesDto;
+import org.openlmis.pointofdelivery.dto.PointOfDeliveryEventDestinationsDto;
 import org.openlmis.pointofdelivery.dto.PointOfDeliveryEventDto;
+import org.openlmis.pointofdelivery.dto.PointOfDeliveryEventResultDto;
+import org.openlmis.pointofdelivery.dto.PointOfDeliveryEventSearchParams;
+import org.openlmis.pointofdelivery.dto.PointOfDeliveryEventSubmissionDto;
+import org.openlmis.pointofdelivery.dto.ResourceVersionDto;
+import org.openlmis.pointofdelivery.exception.PreconditionFailedMessageException;
+import org.openlmis.pointofdelivery.exception.ResourceNotFoundException;
+import org.openlmis.pointofdelivery.service.IdempotencyKeyService;
 // import org.openlmis.pointofdelivery.service.PermissionService;
+import org.openlmis.pointofdelivery.service.PointOfDeliveryEventAsyncWriter;
 import org.openlmis.pointofdelivery.service.PointOfDeliveryEventProcessor;
+import org.openlmis.pointofdelivery.service.PointOfDeliveryEventStreamProcessor;
 import org.openlmis.pointofdelivery.service.PointOfDeliveryService;
+import org.openlmis.pointofdelivery.util.KeysetPageDto;
+import org.openlmis.pointofdelivery.util.Message;
 import org.openlmis.pointofdelivery.web.BaseController;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.profiler.Profiler;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 // import org.springframework.security.core.context.SecurityContextHolder;
 // import org.springframework.security.oauth2.provider.OAuth2Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 /**
  * Controller used to perform CRUD operations on point of delivery event.
@@ -53,6 +90,10 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 @RequestMapping("/api/podEvents")
 public class PointOfDeliveryController extends BaseController {
   public static final String ID_PATH_VARIABLE = "/{id}";
+  public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+  public static final String NDJSON = "application/x-ndjson";
+  private static final String GZIP = "gzip";
+  private static final byte[] NEW_LINE = {'\n'};
   private static final Logger LOGGER = LoggerFactory.getLogger(PointOfDeliveryController.class);
 
   //   @Autowired
@@ -64,16 +105,30 @@ public class PointOfDeliveryController extends BaseController {
   @Autowired
   private PointOfDeliveryService pointOfDeliveryService;
 
+  @Autowired
+  private IdempotencyKeyService idempotencyKeyService;
+
+  @Autowired
+  private PointOfDeliveryEventAsyncWriter pointOfDeliveryEventAsyncWriter;
+
+  @Autowired
+  private PointOfDeliveryEventStreamProcessor pointOfDeliveryEventStreamProcessor;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
   /**
    * Create point of delivery event.
    *
    * @param pointOfDeliveryEventDto a pod event bound to request body.
+   * @param idempotencyKey optional key identifying retries of the same request.
    * @return created pod event's ID.
    */
   @Transactional
   @RequestMapping(method = POST)
   public ResponseEntity<UUID> createPointOfDeliveryEvent(
-        @RequestBody PointOfDeliveryEventDto pointOfDeliveryEventDto) {
+        @RequestBody PointOfDeliveryEventDto pointOfDeliveryEventDto,
+        @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
 
     LOGGER.debug("Try to create a point of delivery event");
 
@@ -81,9 +136,24 @@ public class PointOfDeliveryController extends BaseController {
 
     //checkPermission(pointOfDeliveryEventDto, profiler.startNested("CHECK_PERMISSION"));
 
+    if (idempotencyKey != null) {
+      profiler.start("CHECK_IDEMPOTENCY_KEY");
+      Optional<UUID> replayedPodId = idempotencyKeyService.claimOrReplay(idempotencyKey);
+
+      if (replayedPodId.isPresent()) {
+        LOGGER.debug("Replaying point of delivery event {}", replayedPodId.get());
+        return stopProfiler(profiler, new ResponseEntity<>(replayedPodId.get(), CREATED));
+      }
+    }
+
     profiler.start("PROCESS");
     UUID createdPodId = pointOfDeliveryEventProcessor.process(pointOfDeliveryEventDto);
 
+    if (idempotencyKey != null) {
+      profiler.start("REGISTER_IDEMPOTENCY_KEY");
+      idempotencyKeyService.register(idempotencyKey, createdPodId);
+    }
+
     profiler.start("CREATE_RESPONSE");
     ResponseEntity<UUID> response = new ResponseEntity<>(createdPodId, CREATED);
 
@@ -91,39 +161,405 @@ public class PointOfDeliveryController extends BaseController {
   }
 
   /**
-   * List point of delivery event.
+   * Accept point of delivery event to be saved asynchronously. The request returns as soon as
+   * the event is queued, without waiting for it to be written to the database.
+   *
+   * @param pointOfDeliveryEventDto a pod event bound to request body.
+   * @return id of the submission, with the location where its state can be checked.
+   */
+  @RequestMapping(method = POST, params = "async=true")
+  public ResponseEntity<UUID> submitPointOfDeliveryEvent(
+        @RequestBody PointOfDeliveryEventDto pointOfDeliveryEventDto) {
+
+    LOGGER.debug("Try to submit a point of delivery event");
+
+    Profiler profiler = getProfiler("SUBMIT_POD_EVENT", pointOfDeliveryEventDto);
+
+    profiler.start("SUBMIT");
+    UUID submissionId = pointOfDeliveryEventAsyncWriter.submit(pointOfDeliveryEventDto);
+
+    profiler.start("CREATE_RESPONSE");
+    URI location = ServletUriComponentsBuilder.fromCurrentRequestUri()
+        .path("/submissions/{id}")
+        .buildAndExpand(submissionId)
+        .toUri();
+    ResponseEntity<UUID> response = ResponseEntity.status(ACCEPTED)
+        .location(location)
+        .body(submissionId);
+
+    return stopProfiler(profiler, response);
+  }
+
+  /**
+   * Get state of an asynchronously submitted point of delivery event.
+   *
+   * @param id submission id.
+   * @return the submission, including id of the saved event once it has been saved.
+   */
+  @RequestMapping(value = "/submissions/{id}", method = GET)
+  public ResponseEntity<PointOfDeliveryEventSubmissionDto> getSubmission(@PathVariable UUID id) {
+    PointOfDeliveryEventSubmissionDto submission =
+        pointOfDeliveryEventAsyncWriter.getSubmission(id);
+
+    if (submission == null) {
+      throw new ResourceNotFoundException(new Message(ERROR_EVENT_SUBMISSION_NOT_FOUND, id));
+    }
+    return new ResponseEntity<>(submission, OK);
+  }
+
+  /**
+   * Create point of delivery events in bulk. Every event is processed on its own, so events
+   * that fail do not prevent the others from being saved.
+   *
+   * @param pointOfDeliveryEventDtos pod events bound to request body.
+   * @return the outcome of every submitted event, in submission order.
+   */
+  @RequestMapping(value = "/batch", method = POST)
+  public ResponseEntity<List<PointOfDeliveryEventResultDto>> createPointOfDeliveryEvents(
+        @RequestBody List<PointOfDeliveryEventDto> pointOfDeliveryEventDtos) {
+
+    LOGGER.debug("Try to create {} point of delivery events", pointOfDeliveryEventDtos.size());
+
+    Profiler profiler = getProfiler("CREATE_POD_EVENTS_BATCH", pointOfDeliveryEventDtos.size());
+
+    profiler.start("PROCESS");
+    List<PointOfDeliveryEventResultDto> results =
+        pointOfDeliveryEventProcessor.processBatch(pointOfDeliveryEventDtos);
+
+    profiler.start("CREATE_RESPONSE");
+    ResponseEntity<List<PointOfDeliveryEventResultDto>> response =
+        new ResponseEntity<>(results, OK);
+
+    return stopProfiler(profiler, response);
+  }
+
+  /**
+   * Import point of delivery events from newline delimited JSON, one event per line. The body may
+   * be gzip compressed. The outcome of every line is streamed back, also as newline delimited
+   * JSON, while the rest of the upload is still being read.
+   *
+   * @param request  request with newline delimited pod events as body.
+   * @param response response the outcome of every line is written to.
+   */
+  @RequestMapping(value = "/batch", method = POST, consumes = NDJSON)
+  public void importPointOfDeliveryEvents(HttpServletRequest request,
+        HttpServletResponse response) throws IOException {
+
+    LOGGER.debug("Try to import point of delivery events");
+
+    InputStream input = request.getInputStream();
+    if (GZIP.equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING))) {
+      input = new GZIPInputStream(input);
+    }
+
+    response.setStatus(OK.value());
+    response.setContentType(NDJSON);
+
+    Profiler profiler = getProfiler("IMPORT_POD_EVENTS");
+    profiler.start("PROCESS");
+    pointOfDeliveryEventStreamProcessor.process(input, response.getOutputStream());
+
+    stopProfiler(profiler, null);
+  }
+
+  /**
+   * List all point of delivery events of a destination, newest first, as a JSON array. This is
+   * the response clients got before events could be paged, so it is kept for requests without a
+   * page, size or cursor. Events are written while they are still being read from the database.
+   * The version of the list is returned as ETag and Last-Modified, and if the client already has
+   * it, the response is 304 without the events being read.
    *
    * @param destinationId a destination facility id.
-   * @return List of pod events.
+   * @param webRequest request with the optional If-None-Match and If-Modified-Since headers.
+   * @return streamed array of pod events, or null if not modified.
+   */
+  @RequestMapping(method = GET, params = {"!page", "!size", "!cursor", "!fields"},
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> getAllPointOfDeliveryEvents(
+      @RequestParam() UUID destinationId, WebRequest webRequest) {
+
+    LOGGER.debug("Try to load all point of delivery events");
+
+    Profiler profiler = getProfiler("LIST_ALL_POD_EVENTS", destinationId);
+
+    profiler.start("CHECK_VERSION");
+    ResourceVersionDto version =
+        pointOfDeliveryService.getPointOfDeliveryEventsVersion(destinationId);
+    if (isNotModified(webRequest, EntityTags.weak(version.getValue()), version)) {
+      return stopProfiler(profiler, null);
+    }
+
+    profiler.start("CREATE_RESPONSE");
+    ObjectWriter writer = objectMapper.writerFor(PointOfDeliveryEventDto.class)
+        .without(SerializationFeature.INDENT_OUTPUT);
+    StreamingResponseBody body = output -> {
+      output.write('[');
+      boolean[] first = {true};
+      try {
+        pointOfDeliveryService.streamPointOfDeliveryEvents(destinationId, chunk -> {
+          try {
+            for (PointOfDeliveryEventDto event : chunk) {
+              if (!first[0]) {
+                output.write(',');
+              }
+              first[0] = false;
+              output.write(writer.writeValueAsBytes(event));
+            }
+            output.flush();
+          } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+          }
+        });
+      } catch (UncheckedIOException ex) {
+        throw ex.getCause();
+      }
+      output.write(']');
+    };
+    ResponseEntity<StreamingResponseBody> response = ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(body);
+
+    return stopProfiler(profiler, response);
+  }
+
+  /**
+   * List point of delivery events of a destination, a page at a time, when a page, size or
+   * cursor is given. The version of the list is returned as ETag and Last-Modified, and if the
+   * client already has it, the response is 304 without the page being read.
+   *
+   * @param destinationId a destination facility id.
+   * @param cursor cursor returned with the previous page, instead of a page number.
+   * @param pageable page number, size and sort direction of receiving date.
+   * @param webRequest request with the optional If-None-Match and If-Modified-Since headers.
+   * @return page of pod events, or null if not modified.
    */
   @RequestMapping(method = GET)
-  public ResponseEntity<List<PointOfDeliveryEventDto>> getPointOfDeliveryEvents(
-      @RequestParam() UUID destinationId) {
+  public ResponseEntity<KeysetPageDto<PointOfDeliveryEventDto>> getPointOfDeliveryEvents(
+      @RequestParam() UUID destinationId,
+      @RequestParam(required = false) String cursor,
+      Pageable pageable, WebRequest webRequest) {
 
     LOGGER.debug("Try to load point of delivery events");
 
-    List<PointOfDeliveryEventDto> podsToReturn = 
-        pointOfDeliveryService.getPointOfDeliveryEventsByDestinationId(destinationId);
-    
-    return new ResponseEntity<>(podsToReturn, OK);
-    // Profiler profiler = getProfiler("LIST_POD_EVENTS", pointOfDeliveryEventDto);
+    Profiler profiler = getProfiler("LIST_POD_EVENTS", destinationId, cursor, pageable);
 
-    //checkPermission(pointOfDeliveryEventDto, profiler.startNested("CHECK_PERMISSION"));
+    profiler.start("CHECK_VERSION");
+    ResourceVersionDto version =
+        pointOfDeliveryService.getPointOfDeliveryEventsVersion(destinationId);
+    if (isNotModified(webRequest, EntityTags.weak(version.getValue()), version)) {
+      return stopProfiler(profiler, null);
+    }
+
+    profiler.start("PROCESS");
+    KeysetPageDto<PointOfDeliveryEventDto> page = pointOfDeliveryService
+        .getPointOfDeliveryEvents(destinationId, pageable, cursor, version);
+
+    profiler.start("CREATE_RESPONSE");
+    ResponseEntity<KeysetPageDto<PointOfDeliveryEventDto>> response =
+        new ResponseEntity<>(page, OK);
+
+    return stopProfiler(profiler, response);
+  }
+
+  /**
+   * List point of delivery events of a destination like {@link #getPointOfDeliveryEvents}, with
+   * only the given fields of each event, e.g. for list screens. Discrepancies are read only if
+   * they are asked for.
+   *
+   * @param destinationId a destination facility id.
+   * @param fields fields to include, the id is always included.
+   * @param cursor cursor returned with the previous page, instead of a page number.
+   * @param pageable page number, size and sort direction of receiving date.
+   * @param webRequest request with the optional If-None-Match and If-Modified-Since headers.
+   * @return page of pod events with the given fields, or null if not modified.
+   */
+  @RequestMapping(method = GET, params = "fields")
+  public ResponseEntity<KeysetPageDto<Map<String, Object>>> getPointOfDeliveryEventFields(
+      @RequestParam() UUID destinationId,
+      @RequestParam Set<String> fields,
+      @RequestParam(required = false) String cursor,
+      Pageable pageable, WebRequest webRequest) {
 
-    // profiler.start("PROCESS");
-    // UUID createdPodId = pointOfDeliveryEventProcessor.process(pointOfDeliveryEventDto);
+    LOGGER.debug("Try to load fields of point of delivery events");
 
-    // profiler.start("CREATE_RESPONSE");
-    // ResponseEntity<UUID> response = new ResponseEntity<>(createdPodId, CREATED);
+    Profiler profiler = getProfiler("LIST_POD_EVENT_FIELDS", destinationId, fields, cursor,
+        pageable);
 
-    //return stopProfiler(profiler, response);
+    profiler.start("CHECK_VERSION");
+    ResourceVersionDto version =
+        pointOfDeliveryService.getPointOfDeliveryEventsVersion(destinationId);
+    if (isNotModified(webRequest, EntityTags.weak(version.getValue()), version)) {
+      return stopProfiler(profiler, null);
+    }
+
+    profiler.start("PROCESS");
+    KeysetPageDto<Map<String, Object>> page = pointOfDeliveryService
+        .getPointOfDeliveryEventFields(destinationId, fields, pageable, cursor);
+
+    profiler.start("CREATE_RESPONSE");
+    ResponseEntity<KeysetPageDto<Map<String, Object>>> response =
+        new ResponseEntity<>(page, OK);
+
+    return stopProfiler(profiler, response);
+  }
+
+  /**
+   * Search point of delivery events by any combination of criteria, a page at a time.
+   *
+   * @param params search criteria bound to query parameters.
+   * @param pageable page number, size and sort.
+   * @return page of matching pod events.
+   */
+  @RequestMapping(value = "/search", method = GET)
+  public ResponseEntity<KeysetPageDto<PointOfDeliveryEventDto>> searchPointOfDeliveryEvents(
+      PointOfDeliveryEventSearchParams params, Pageable pageable) {
+
+    LOGGER.debug("Try to search point of delivery events");
+
+    Profiler profiler = getProfiler("SEARCH_POD_EVENTS", params, pageable);
+
+    profiler.start("PROCESS");
+    KeysetPageDto<PointOfDeliveryEventDto> page =
+        pointOfDeliveryService.searchPointOfDeliveryEvents(params, pageable);
+
+    profiler.start("CREATE_RESPONSE");
+    ResponseEntity<KeysetPageDto<PointOfDeliveryEventDto>> response =
+        new ResponseEntity<>(page, OK);
+
+    return stopProfiler(profiler, response);
+  }
+
+  /**
+   * List point of delivery events of several destinations together, a page at a time, newest
+   * received first unless sorted otherwise. All destinations are read with one query per page.
+   *
+   * @param destinations destination facility ids.
+   * @param cursor cursor returned with the previous page, instead of a page number.
+   * @param pageable page number, size and sort direction of receiving date.
+   * @return page of pod events of any of the destinations.
+   */
+  @RequestMapping(value = "/search", method = POST)
+  public ResponseEntity<KeysetPageDto<PointOfDeliveryEventDto>> listDestinationsEvents(
+      @RequestBody PointOfDeliveryEventDestinationsDto destinations,
+      @RequestParam(required = false) String cursor,
+      Pageable pageable) {
+
+    LOGGER.debug("Try to load point of delivery events of several destinations");
+
+    Profiler profiler = getProfiler("LIST_POD_EVENTS_OF_DESTINATIONS", destinations, cursor,
+        pageable);
+
+    profiler.start("PROCESS");
+    KeysetPageDto<PointOfDeliveryEventDto> page = pointOfDeliveryService
+        .getPointOfDeliveryEventsOfDestinations(destinations.getDestinationIds(), pageable,
+            cursor);
+
+    profiler.start("CREATE_RESPONSE");
+    ResponseEntity<KeysetPageDto<PointOfDeliveryEventDto>> response =
+        new ResponseEntity<>(page, OK);
+
+    return stopProfiler(profiler, response);
   }
 
   /**
-   * Update a POD event.
+   * Export all point of delivery events of a destination as newline delimited JSON, one event per
+   * line, newest first. Events are written while they are still being read from the database, so
+   * the whole history of a destination is never held in memory.
+   *
+   * @param destinationId a destination facility id.
+   * @return streamed pod events.
+   */
+  @RequestMapping(method = GET, produces = NDJSON)
+  public ResponseEntity<StreamingResponseBody> exportPointOfDeliveryEvents(
+      @RequestParam() UUID destinationId) {
+
+    LOGGER.debug("Try to export point of delivery events");
+
+    Profiler profiler = getProfiler("EXPORT_POD_EVENTS", destinationId);
+
+    profiler.start("CREATE_RESPONSE");
+    ObjectWriter writer = objectMapper.writerFor(PointOfDeliveryEventDto.class);
+    StreamingResponseBody body = output -> {
+      try {
+        pointOfDeliveryService.streamPointOfDeliveryEvents(destinationId, chunk -> {
+          try {
+            for (PointOfDeliveryEventDto event : chunk) {
+              output.write(writer.writeValueAsBytes(event));
+              output.write(NEW_LINE);
+            }
+            output.flush();
+          } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+          }
+        });
+      } catch (UncheckedIOException ex) {
+        throw ex.getCause();
+      }
+    };
+    ResponseEntity<StreamingResponseBody> response = ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType(NDJSON))
+        .body(body);
+
+    return stopProfiler(profiler, response);
+  }
+
+  /**
+   * Get changes of point of delivery events of a destination, for clients keeping a local copy.
+   * Changes are returned in pages; the cursor from every response is sent with the next request.
+   *
+   * @param destinationId a destination facility id.
+   * @param cursor cursor returned by the previous request, absent for the first sync.
+   * @param size maximum number of changes to return.
+   * @return changed and deleted pod events with the cursor to continue from.
+   */
+  @RequestMapping(value = "/changes", method = GET)
+  public ResponseEntity<PointOfDeliveryEventChangesDto> getPointOfDeliveryEventChanges(
+      @RequestParam UUID destinationId,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer size) {
+
+    LOGGER.debug("Try to load changes of point of delivery events");
+
+    Profiler profiler = getProfiler("GET_POD_EVENT_CHANGES", destinationId, cursor);
+
+    profiler.start("PROCESS");
+    PointOfDeliveryEventChangesDto changes =
+        pointOfDeliveryService.getChanges(destinationId, cursor, size);
+
+    profiler.start("CREATE_RESPONSE");
+    ResponseEntity<PointOfDeliveryEventChangesDto> response = new ResponseEntity<>(changes, OK);
+
+    return stopProfiler(profiler, response);
+  }
+
+  /**
+   * Get a POD event. Its version is returned as ETag, to be sent back as If-Match on update, and
+   * as If-None-Match to get 304 instead of the event if it has not changed.
+   *
+   * @param id POD event id.
+   * @param webRequest request with the optional If-None-Match and If-Modified-Since headers.
+   * @return the POD dto, or null if not modified.
+   */
+  @RequestMapping(value = ID_PATH_VARIABLE, method = GET)
+  public ResponseEntity<PointOfDeliveryEventDto> getPointOfDeliveryEvent(@PathVariable UUID id,
+      WebRequest webRequest) {
+    ResourceVersionDto version = pointOfDeliveryService.getPointOfDeliveryEventVersion(id);
+    if (isNotModified(webRequest, EntityTags.strong(version.getValue()), version)) {
+      return null;
+    }
+
+    PointOfDeliveryEventDto podEvent = pointOfDeliveryService.getPointOfDeliveryEvent(id);
+
+    return ResponseEntity.ok().body(podEvent);
+  }
+
+  /**
+   * Update a POD event. When If-Match is given, the update is only applied if the event is still
+   * at the version the tag was created from.
    *
    * @param id POD event id.
    * @param dto POD dto.
+   * @param ifMatch optional ETag of the version the changes are based on.
    * @return created POD dto.
    */
   @Transactional
@@ -131,10 +567,42 @@ public class PointOfDeliveryController extends BaseController {
   @ResponseStatus(OK)
   @ResponseBody
   public ResponseEntity<PointOfDeliveryEventDto> updatePointOfDeliveryEvent(@PathVariable UUID id,
-                                                    @RequestBody PointOfDeliveryEventDto dto) {
+      @RequestBody PointOfDeliveryEventDto dto,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    Long expectedVersion = toExpectedVersion(id, ifMatch);
+
     PointOfDeliveryEventDto updatedPodEvent = pointOfDeliveryService
-        .updatePointOfDeliveryEvent(dto, id);
-    return new ResponseEntity<>(updatedPodEvent, OK);
+        .updatePointOfDeliveryEvent(dto, id, expectedVersion);
+
+    if (updatedPodEvent == null) {
+      return new ResponseEntity<>(null, OK);
+    }
+    return ResponseEntity.ok()
+        .eTag(EntityTags.fromVersion(updatedPodEvent.getVersion()))
+        .body(updatedPodEvent);
+  }
+
+  /**
+   * Partially update a POD event. Only attributes present in the body are changed, with a single
+   * statement, and nothing is returned. If-Match works as for a full update.
+   *
+   * @param id POD event id.
+   * @param dto POD dto with the attributes to change.
+   * @param ifMatch optional ETag of the version the changes are based on.
+   * @return no content, with the new ETag when If-Match has been given.
+   */
+  @PatchMapping(ID_PATH_VARIABLE)
+  public ResponseEntity<Void> patchPointOfDeliveryEvent(@PathVariable UUID id,
+      @RequestBody PointOfDeliveryEventDto dto,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    Long newVersion = pointOfDeliveryService
+        .patchPointOfDeliveryEvent(id, dto, toExpectedVersion(id, ifMatch));
+
+    ResponseEntity.HeadersBuilder<?> response = ResponseEntity.noContent();
+    if (newVersion != null) {
+      response.eTag(EntityTags.fromVersion(newVersion));
+    }
+    return response.build();
   }
 
   /**
@@ -148,4 +616,28 @@ public class PointOfDeliveryController extends BaseController {
     pointOfDeliveryService.deletePointOfDeliveryEvent(id);
   }
 
+  /**
+   * Checks conditional request headers against the version of the resource. Either way, the
+   * version is set as ETag and Last-Modified of the response, which is 304 if not modified.
+   */
+  private boolean isNotModified(WebRequest webRequest, String entityTag,
+      ResourceVersionDto version) {
+    long lastModified = version.getLastModified() == null
+        ? -1 : version.getLastModified().toInstant().toEpochMilli();
+    return webRequest.checkNotModified(entityTag, lastModified);
+  }
+
+  private Long toExpectedVersion(UUID id, String ifMatch) {
+    if (ifMatch == null || EntityTags.ANY.equals(ifMatch.trim())) {
+      return null;
+    }
+
+    Long expectedVersion = EntityTags.toVersion(ifMatch);
+    if (expectedVersion == null) {
+      throw new PreconditionFailedMessageException(
+          new Message(ERROR_EVENT_VERSION_MISMATCH, id));
+    }
+    return expectedVersion;
+  }
+
 }
@@ -0,0 +1,132 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.web;
+
+import static org.springframework.http.HttpStatus.NO_CONTENT;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.web.bind.annotation.RequestMethod.GET;
+import static org.springframework.web.bind.annotation.RequestMethod.POST;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+import org.openlmis.pointofdelivery.dto.DiscrepancyMonthlyRollupDto;
+import org.openlmis.pointofdelivery.dto.PointOfDeliveryMonthlyRollupDto;
+import org.openlmis.pointofdelivery.service.PermissionService;
+import org.openlmis.pointofdelivery.service.PointOfDeliveryRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.profiler.Profiler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Controller serving monthly totals of point of delivery events.
+ */
+@Controller
+@RequestMapping("/api/podEvents/rollups")
+public class PointOfDeliveryRollupController extends BaseController {
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(PointOfDeliveryRollupController.class);
+
+  @Autowired
+  private PointOfDeliveryRollupService rollupService;
+
+  @Autowired
+  private PermissionService permissionService;
+
+  /**
+   * Get monthly totals of point of delivery events per destination and source.
+   *
+   * @param destinationId a destination facility id, absent for all destinations.
+   * @param from first month, e.g. 2026-01.
+   * @param to last month, included.
+   * @return totals ordered by month, destination and source.
+   */
+  @RequestMapping(method = GET)
+  public ResponseEntity<List<PointOfDeliveryMonthlyRollupDto>> getRollups(
+      @RequestParam(required = false) UUID destinationId,
+      @RequestParam YearMonth from,
+      @RequestParam YearMonth to) {
+
+    LOGGER.debug("Try to load monthly rollups of point of delivery events");
+
+    Profiler profiler = getProfiler("GET_POD_ROLLUPS", destinationId, from, to);
+
+    profiler.start("PROCESS");
+    List<PointOfDeliveryMonthlyRollupDto> rollups =
+        rollupService.getRollups(destinationId, from, to);
+
+    profiler.start("CREATE_RESPONSE");
+    ResponseEntity<List<PointOfDeliveryMonthlyRollupDto>> response =
+        new ResponseEntity<>(rollups, OK);
+
+    return stopProfiler(profiler, response);
+  }
+
+  /**
+   * Get monthly totals of discrepancies per destination, rejection reason and shipment type,
+   * e.g. to find the top rejection reasons of a facility in a month or the quantity affected
+   * per shipment type.
+   *
+   * @param destinationId a destination facility id, absent for all destinations.
+   * @param from first month, e.g. 2026-01.
+   * @param to last month, included.
+   * @return totals ordered by month, destination and descending discrepancy count.
+   */
+  @RequestMapping(value = "/discrepancies", method = GET)
+  public ResponseEntity<List<DiscrepancyMonthlyRollupDto>> getDiscrepancyRollups(
+      @RequestParam(required = false) UUID destinationId,
+      @RequestParam YearMonth from,
+      @RequestParam YearMonth to) {
+
+    LOGGER.debug("Try to load monthly rollups of point of delivery discrepancies");
+
+    Profiler profiler = getProfiler("GET_POD_DISCREPANCY_ROLLUPS", destinationId, from, to);
+
+    profiler.start("PROCESS");
+    List<DiscrepancyMonthlyRollupDto> rollups =
+        rollupService.getDiscrepancyRollups(destinationId, from, to);
+
+    profiler.start("CREATE_RESPONSE");
+    ResponseEntity<List<DiscrepancyMonthlyRollupDto>> response =
+        new ResponseEntity<>(rollups, OK);
+
+    return stopProfiler(profiler, response);
+  }
+
+  /**
+   * Compute all monthly totals again from the events. Events can not be written until it is
+   * done, so it requires the right to manage system settings.
+   */
+  @RequestMapping(value = "/rebuild", method = POST)
+  @ResponseStatus(NO_CONTENT)
+  public void rebuildRollups() {
+    Profiler profiler = getProfiler("REBUILD_POD_ROLLUPS");
+
+    profiler.start("CHECK_PERMISSION");
+    permissionService.canManageSystemSettings();
+
+    profiler.start("PROCESS");
+    rollupService.rebuild();
+
+    stopProfiler(profiler, null);
+  }
+}
@@ -0,0 +1,29 @@
+-- WHEN COMMITTING OR REVIEWING THIS FILE: Make sure that the timestamp in the file name (that serves as a version) is the latest timestamp, and that no new migration have been added in the meanwhile.
+-- Adding migrations out of order may cause this migration to never execute or behave in an unexpected way.
+-- Migrations should NOT BE EDITED. Add a new migration to apply changes.
+
+-- Discrepancies are deleted by the database together with their event. Tables are created by
+-- Hibernate after migrations have run, so on a new database there is nothing to change here and
+-- Hibernate creates the foreign key with ON DELETE CASCADE itself.
+DO $$
+DECLARE
+  constraint_name text;
+BEGIN
+  IF to_regclass('pointofdelivery.point_of_delivery_event_discrepencies') IS NULL THEN
+    RETURN;
+  END IF;
+
+  FOR constraint_name IN
+    SELECT conname FROM pg_constraint
+    WHERE conrelid = 'pointofdelivery.point_of_delivery_event_discrepencies'::regclass
+      AND confrelid = 'pointofdelivery.point_of_delivery_event'::regclass
+      AND contype = 'f'
+  LOOP
+    EXECUTE 'ALTER TABLE pointofdelivery.point_of_delivery_event_discrepencies DROP CONSTRAINT '
+      || quote_ident(constraint_name);
+  END LOOP;
+
+  ALTER TABLE pointofdelivery.point_of_delivery_event_discrepencies
+    ADD CONSTRAINT pod_event_discrepancies_event_fk FOREIGN KEY (pointofdeliveryeventid)
+    REFERENCES pointofdelivery.point_of_delivery_event (id) ON DELETE CASCADE;
+END $$;
@@ -0,0 +1,16 @@
+-- WHEN COMMITTING OR REVIEWING THIS FILE: Make sure that the timestamp in the file name (that serves as a version) is the latest timestamp, and that no new migration have been added in the meanwhile.
+-- Adding migrations out of order may cause this migration to never execute or behave in an unexpected way.
+-- Migrations should NOT BE EDITED. Add a new migration to apply changes.
+
+-- Trigram operator classes for the text search indexes added by the next migration. Creating the
+-- extension needs the rights of the migration user, the service itself needs none of them.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- On a new database the events table is created by Hibernate only after migrations have run.
+-- The indexed columns are created here so that the indexes can be too, Hibernate adds the
+-- remaining columns to the empty table.
+CREATE TABLE IF NOT EXISTS pointofdelivery.point_of_delivery_event (
+  id uuid NOT NULL PRIMARY KEY,
+  referencenumber varchar(255),
+  remarks varchar(255)
+);
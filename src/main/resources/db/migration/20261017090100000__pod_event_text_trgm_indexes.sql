@@ -0,0 +1,14 @@
+-- WHEN COMMITTING OR REVIEWING THIS FILE: Make sure that the timestamp in the file name (that serves as a version) is the latest timestamp, and that no new migration have been added in the meanwhile.
+-- Adding migrations out of order may cause this migration to never execute or behave in an unexpected way.
+-- Migrations should NOT BE EDITED. Add a new migration to apply changes.
+
+-- Trigram indexes letting reference numbers and remarks of events be searched by any part of
+-- them, ignoring case. Indexes are built concurrently, so Flyway runs this migration outside of a
+-- transaction and events can still be written while they are built; the build reads the table
+-- twice and waits for transactions already writing to it. Should the build fail, Postgres keeps
+-- an invalid index that IF NOT EXISTS would skip, so drop it before the migration is repaired.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS pod_event_reference_number_trgm_idx
+  ON pointofdelivery.point_of_delivery_event USING gin (lower(referencenumber) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS pod_event_remarks_trgm_idx
+  ON pointofdelivery.point_of_delivery_event USING gin (lower(remarks) gin_trgm_ops);
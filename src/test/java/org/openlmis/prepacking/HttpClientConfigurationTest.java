@@ -0,0 +1,110 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.Assert.assertEquals;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+public class HttpClientConfigurationTest {
+  private static final String PATH = "/api/facilities";
+
+  @Rule
+  public WireMockRule wireMockRule = new WireMockRule(wireMockConfig().dynamicPort());
+
+  private SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private PoolingHttpClientConnectionManager connectionManager;
+  private CloseableHttpClient httpClient;
+  private RestTemplate restTemplate;
+  private String url;
+
+  @Before
+  public void setUp() {
+    HttpClientConfiguration configuration = new HttpClientConfiguration();
+    ReflectionTestUtils.setField(configuration, "maxConnections", 10);
+    ReflectionTestUtils.setField(configuration, "maxConnectionsPerHost", 5);
+    ReflectionTestUtils.setField(configuration, "connectTimeoutMillis", 1000);
+    ReflectionTestUtils.setField(configuration, "poolTimeoutMillis", 1000);
+    ReflectionTestUtils.setField(configuration, "readTimeoutMillis", 1000);
+    ReflectionTestUtils.setField(configuration, "idleConnectionSeconds", 30L);
+
+    connectionManager = configuration.serviceConnectionManager(registry);
+    httpClient = configuration.serviceHttpClient(connectionManager);
+    restTemplate = configuration.serviceRestTemplate(httpClient);
+
+    url = "http://localhost:" + wireMockRule.port() + PATH;
+    wireMockRule.stubFor(get(urlEqualTo(PATH))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", "application/json")
+            .withBody("[]")));
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    httpClient.close();
+  }
+
+  @Test
+  public void shouldReuseConnectionBetweenCalls() {
+    // when
+    restTemplate.getForObject(url, String.class);
+    restTemplate.getForObject(url, String.class);
+
+    // then
+    assertEquals(1, connectionManager.getTotalStats().getAvailable());
+    assertEquals(0, connectionManager.getTotalStats().getLeased());
+  }
+
+  @Test
+  public void shouldAskForCompressedResponses() {
+    // when
+    restTemplate.getForObject(url, String.class);
+
+    // then
+    wireMockRule.verify(getRequestedFor(urlEqualTo(PATH))
+        .withHeader("Accept-Encoding", containing("gzip")));
+  }
+
+  @Test
+  public void shouldPublishPoolMetrics() {
+    // when
+    restTemplate.getForObject(url, String.class);
+
+    // then
+    assertEquals(10, registry.get("httpcomponents.httpclient.pool.total.max").gauge().value(), 0);
+    assertEquals(5, registry.get("httpcomponents.httpclient.pool.route.max.default").gauge()
+        .value(), 0);
+    assertEquals(1, registry.get("httpcomponents.httpclient.pool.total.connections")
+        .tag("state", "available").gauge().value(), 0);
+  }
+}
@@ -0,0 +1,370 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.openlmis.pointofdelivery.exception.ServiceUnavailableMessageException;
+import org.openlmis.pointofdelivery.service.referencedata.DataRetrievalException;
+import org.openlmis.pointofdelivery.util.PageDto;
+import org.openlmis.pointofdelivery.util.RequestParameters;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestOperations;
+import org.springframework.web.util.UriComponentsBuilder;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BaseCommunicationServiceTest {
+  private static final int IDS = 40;
+  private static final String SERVICE = "test";
+
+  @Mock
+  private RestOperations restTemplate;
+
+  @Mock
+  private AuthService authService;
+
+  @Mock
+  private ServiceGuards serviceGuards;
+
+  private ExecutorService requestExecutor = Executors.newFixedThreadPool(4);
+
+  private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private TestService service = new TestService();
+
+  private List<UUID> ids = new ArrayList<>();
+
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(service, "restTemplate", restTemplate);
+    ReflectionTestUtils.setField(service, "authService", authService);
+    ReflectionTestUtils.setField(service, "requestExecutor", requestExecutor);
+    ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+    ReflectionTestUtils.setField(service, "serviceGuards", serviceGuards);
+    ReflectionTestUtils.setField(service, "staleMaxSize", 10L);
+    ReflectionTestUtils.setField(service, "staleTtlMinutes", 10L);
+    service.initStaleCache();
+    // about 5 ids fit into the url, so the request is split into 8 chunks
+    ReflectionTestUtils.setField(service, "maxUrlLength", 250);
+    ReflectionTestUtils.setField(service, "maxParallelChunks", 2);
+    when(authService.obtainAccessToken()).thenReturn("token");
+    when(serviceGuards.get(SERVICE)).thenReturn(new ServiceGuard(SERVICE, 1,
+        Duration.ofMinutes(1), 10, 0, Clock.systemUTC(), meterRegistry));
+
+    for (int i = 0; i < IDS; i++) {
+      ids.add(UUID.randomUUID());
+    }
+  }
+
+  @After
+  public void tearDown() {
+    requestExecutor.shutdownNow();
+  }
+
+  @Test
+  public void shouldMergeChunksInOrder() {
+    // given
+    when(restTemplate.exchange(any(URI.class), eq(HttpMethod.GET), any(HttpEntity.class),
+        any(ParameterizedTypeReference.class)))
+        .thenAnswer(invocation -> page(invocation.getArgument(0)));
+
+    // when
+    Page<UUID> page = service.getPage(RequestParameters.init().set("id", ids));
+
+    // then
+    assertEquals(ids, page.getContent());
+    assertEquals(IDS, page.getTotalElements());
+  }
+
+  @Test
+  public void shouldCallChunksConcurrently() {
+    // given
+    CountDownLatch bothCalled = new CountDownLatch(2);
+    Set<Thread> threads = ConcurrentHashMap.newKeySet();
+    when(restTemplate.exchange(any(URI.class), eq(HttpMethod.GET), any(HttpEntity.class),
+        any(ParameterizedTypeReference.class)))
+        .thenAnswer(invocation -> {
+          threads.add(Thread.currentThread());
+          bothCalled.countDown();
+          // the first two chunks are only answered when they are called at the same time
+          assertTrue(bothCalled.await(5, TimeUnit.SECONDS));
+          return page(invocation.getArgument(0));
+        });
+
+    // when
+    Page<UUID> page = service.getPage(RequestParameters.init().set("id", ids));
+
+    // then
+    assertEquals(ids, page.getContent());
+    assertEquals(2, threads.size());
+    assertTrue(threads.contains(Thread.currentThread()));
+  }
+
+  @Test
+  public void shouldCallChunksOnCallingThreadWhenBulkheadIsFull() {
+    // given
+    // only the place of the call itself is left in the bulkhead
+    ServiceGuard guard = serviceGuards.get(SERVICE);
+    for (int i = 0; i < 9; i++) {
+      assertTrue(guard.tryAcquireParallel());
+    }
+    Set<Thread> threads = ConcurrentHashMap.newKeySet();
+    when(restTemplate.exchange(any(URI.class), eq(HttpMethod.GET), any(HttpEntity.class),
+        any(ParameterizedTypeReference.class)))
+        .thenAnswer(invocation -> {
+          threads.add(Thread.currentThread());
+          return page(invocation.getArgument(0));
+        });
+
+    // when
+    Page<UUID> page = service.getPage(RequestParameters.init().set("id", ids));
+
+    // then
+    assertEquals(ids, page.getContent());
+    assertEquals(Collections.singleton(Thread.currentThread()), threads);
+    assertEquals(1, (long) meterRegistry.get("service.bulkhead.available")
+        .tag("service", SERVICE).gauge().value());
+  }
+
+  @Test
+  public void shouldThrowFailureOfChunkAndRetryWithNewToken() {
+    // given
+    when(restTemplate.exchange(any(URI.class), eq(HttpMethod.GET), any(HttpEntity.class),
+        any(ParameterizedTypeReference.class)))
+        .thenThrow(new HttpClientErrorException(HttpStatus.UNAUTHORIZED))
+        .thenAnswer(invocation -> page(invocation.getArgument(0)));
+
+    // when
+    Page<UUID> page = service.getPage(RequestParameters.init().set("id", ids));
+
+    // then
+    assertEquals(ids, page.getContent());
+    verify(authService).clearTokenCache();
+    verify(authService, times(2)).obtainAccessToken();
+  }
+
+  @Test
+  public void shouldShareResponseOfConcurrentFindOne() throws Exception {
+    // given
+    UUID id = UUID.randomUUID();
+    CountDownLatch respond = new CountDownLatch(1);
+    when(restTemplate.exchange(any(URI.class), eq(HttpMethod.GET), any(HttpEntity.class),
+        eq(UUID.class)))
+        .thenAnswer(invocation -> {
+          assertTrue(respond.await(5, TimeUnit.SECONDS));
+          return new ResponseEntity<>(id, HttpStatus.OK);
+        });
+
+    // when
+    Future<UUID> first = requestExecutor.submit(() -> service.findOne(id));
+    Future<UUID> second = requestExecutor.submit(() -> service.findOne(id));
+    awaitCoalesced(1);
+    respond.countDown();
+
+    // then
+    assertEquals(id, first.get(5, TimeUnit.SECONDS));
+    assertEquals(id, second.get(5, TimeUnit.SECONDS));
+    verify(restTemplate).exchange(any(URI.class), eq(HttpMethod.GET), any(HttpEntity.class),
+        eq(UUID.class));
+
+    // a later call is not served from the finished one
+    assertEquals(id, service.findOne(id));
+    verify(restTemplate, times(2)).exchange(any(URI.class), eq(HttpMethod.GET),
+        any(HttpEntity.class), eq(UUID.class));
+  }
+
+  @Test
+  public void shouldShareErrorOfConcurrentFindOne() throws Exception {
+    // given
+    UUID id = UUID.randomUUID();
+    CountDownLatch respond = new CountDownLatch(1);
+    when(restTemplate.exchange(any(URI.class), eq(HttpMethod.GET), any(HttpEntity.class),
+        eq(UUID.class)))
+        .thenAnswer(invocation -> {
+          assertTrue(respond.await(5, TimeUnit.SECONDS));
+          throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR);
+        });
+
+    // when
+    Future<UUID> first = requestExecutor.submit(() -> service.findOne(id));
+    Future<UUID> second = requestExecutor.submit(() -> service.findOne(id));
+    awaitCoalesced(1);
+    respond.countDown();
+
+    // then
+    assertFailedWith(first, DataRetrievalException.class);
+    assertFailedWith(second, DataRetrievalException.class);
+    verify(restTemplate).exchange(any(URI.class), eq(HttpMethod.GET), any(HttpEntity.class),
+        eq(UUID.class));
+  }
+
+  @Test
+  public void shouldReturnStaleObjectWhileServiceIsUnavailable() {
+    // given
+    UUID id = UUID.randomUUID();
+    when(restTemplate.exchange(any(URI.class), eq(HttpMethod.GET), any(HttpEntity.class),
+        eq(UUID.class)))
+        .thenReturn(new ResponseEntity<>(id, HttpStatus.OK))
+        .thenThrow(new ResourceAccessException("timed out"));
+    assertEquals(id, service.findOne(id));
+
+    // when
+    UUID stale = service.findOne(id);
+    UUID rejected = service.findOne(id);
+
+    // then
+    assertEquals(id, stale);
+    assertEquals(id, rejected);
+    // the second lookup is rejected by the open circuit breaker without a request
+    verify(restTemplate, times(2)).exchange(any(URI.class), eq(HttpMethod.GET),
+        any(HttpEntity.class), eq(UUID.class));
+    assertEquals(2, (long) meterRegistry.counter("service.requests.stale",
+        "service", SERVICE).count());
+  }
+
+  @Test(expected = ServiceUnavailableMessageException.class)
+  public void shouldFailWhileServiceIsUnavailableWithoutStaleObject() {
+    // given
+    when(restTemplate.exchange(any(URI.class), eq(HttpMethod.GET), any(HttpEntity.class),
+        eq(UUID.class)))
+        .thenThrow(new ResourceAccessException("timed out"));
+    try {
+      service.findOne(UUID.randomUUID());
+    } catch (ResourceAccessException ex) {
+      // opens the circuit breaker
+    }
+
+    // when
+    service.findOne(UUID.randomUUID());
+  }
+
+  @Test
+  public void shouldGuardAndRetryConditionalListWithNewToken() {
+    // given
+    when(restTemplate.exchange(any(String.class), eq(HttpMethod.GET), any(HttpEntity.class),
+        eq(UUID[].class)))
+        .thenThrow(new HttpClientErrorException(HttpStatus.UNAUTHORIZED))
+        .thenReturn(new ResponseEntity<>(HttpStatus.NOT_MODIFIED));
+
+    // when
+    ServiceResponse<List<UUID>> response = service.tryFindAll("", UUID[].class, "\"1\"");
+
+    // then
+    assertFalse(response.isModified());
+    verify(authService).clearTokenCache();
+    verify(serviceGuards).get(SERVICE);
+  }
+
+  private void awaitCoalesced(long count) throws InterruptedException {
+    Counter coalesced = meterRegistry.counter("service.requests.coalesced",
+        "service", SERVICE);
+    for (int i = 0; i < 500 && coalesced.count() < count; i++) {
+      Thread.sleep(10);
+    }
+    assertEquals(count, (long) coalesced.count());
+  }
+
+  private void assertFailedWith(Future<?> future, Class<? extends Exception> type)
+      throws Exception {
+    try {
+      future.get(5, TimeUnit.SECONDS);
+      fail("Expected " + type.getSimpleName());
+    } catch (ExecutionException ex) {
+      assertTrue(type.isInstance(ex.getCause()));
+    }
+  }
+
+  private ResponseEntity<PageDto<UUID>> page(URI uri) {
+    List<UUID> content = UriComponentsBuilder.fromUri(uri).build()
+        .getQueryParams()
+        .get("id")
+        .stream()
+        .map(UUID::fromString)
+        .collect(Collectors.toList());
+
+    return new ResponseEntity<>(new PageDto<>(new PageImpl<>(content)), HttpStatus.OK);
+  }
+
+  private static class TestService extends BaseCommunicationService<UUID> {
+
+    @Override
+    protected String getServiceName() {
+      return SERVICE;
+    }
+
+    @Override
+    protected String getServiceUrl() {
+      return "http://localhost";
+    }
+
+    @Override
+    protected String getUrl() {
+      return "/api/facilities/";
+    }
+
+    @Override
+    protected Class<UUID> getResultClass() {
+      return UUID.class;
+    }
+
+    @Override
+    protected Class<UUID[]> getArrayResultClass() {
+      return UUID[].class;
+    }
+  }
+}
@@ -0,0 +1,204 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.UUID;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.openlmis.pointofdelivery.domain.idempotency.IdempotencyKey;
+import org.openlmis.pointofdelivery.exception.ConflictMessageException;
+import org.openlmis.pointofdelivery.exception.ValidationMessageException;
+import org.openlmis.pointofdelivery.repository.IdempotencyKeyRepository;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@RunWith(MockitoJUnitRunner.class)
+public class IdempotencyKeyServiceTest {
+
+  private static final String KEY = "retried-request";
+  private static final String CLIENT_ID = "delivery-app";
+  private static final long TTL_HOURS = 24;
+
+  @Mock
+  private IdempotencyKeyRepository repository;
+
+  @InjectMocks
+  private IdempotencyKeyService service;
+
+  private ZonedDateTime now = ZonedDateTime.of(2026, 10, 16, 12, 0, 0, 0, ZoneOffset.UTC);
+  private ZonedDateTime expiredBefore = now.minusHours(TTL_HOURS);
+  private UUID userId = UUID.randomUUID();
+  private String userOwner = "user/" + userId;
+  private UUID eventId = UUID.randomUUID();
+  private IdempotencyKey storedKey = new IdempotencyKey(userOwner, KEY, eventId, now);
+
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(service, "clock",
+        Clock.fixed(Instant.from(now), ZoneOffset.UTC));
+    ReflectionTestUtils.setField(service, "ttlHours", TTL_HOURS);
+    ReflectionTestUtils.setField(service, "cacheSize", 10L);
+    service.init();
+
+    authenticate(new UsernamePasswordAuthenticationToken(userId, null));
+  }
+
+  @After
+  public void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  public void shouldClaimUnusedKey() {
+    // given
+    when(repository.findWithEvent(userOwner, KEY, expiredBefore)).thenReturn(Optional.empty());
+    when(repository.claim(userOwner, KEY, now, expiredBefore)).thenReturn(1);
+
+    // when
+    Optional<UUID> replayed = service.claimOrReplay(KEY);
+
+    // then
+    assertFalse(replayed.isPresent());
+  }
+
+  @Test
+  public void shouldReplayEventOfUsedKey() {
+    // given
+    when(repository.findWithEvent(userOwner, KEY, expiredBefore))
+        .thenReturn(Optional.of(storedKey));
+
+    // when
+    Optional<UUID> replayed = service.claimOrReplay(KEY);
+
+    // then
+    assertEquals(Optional.of(eventId), replayed);
+    verify(repository, never()).claim(anyString(), anyString(), any(), any());
+  }
+
+  @Test
+  public void shouldReplayEventOfConcurrentRequestThatClaimedKeyFirst() {
+    // given
+    when(repository.findWithEvent(userOwner, KEY, expiredBefore))
+        .thenReturn(Optional.empty())
+        .thenReturn(Optional.of(storedKey));
+    when(repository.claim(userOwner, KEY, now, expiredBefore)).thenReturn(0);
+
+    // when
+    Optional<UUID> replayed = service.claimOrReplay(KEY);
+
+    // then
+    assertEquals(Optional.of(eventId), replayed);
+  }
+
+  @Test(expected = ConflictMessageException.class)
+  public void shouldRejectKeyOfConcurrentRequestStillBeingProcessed() {
+    // given
+    when(repository.findWithEvent(userOwner, KEY, expiredBefore)).thenReturn(Optional.empty());
+    when(repository.claim(userOwner, KEY, now, expiredBefore)).thenReturn(0);
+
+    // when
+    service.claimOrReplay(KEY);
+  }
+
+  @Test
+  public void shouldReplayRegisteredKeyWithoutReadingDatabase() {
+    // given
+    when(repository.findCreatedDate(userOwner, KEY)).thenReturn(Optional.of(now));
+    service.register(KEY, eventId);
+
+    // when
+    Optional<UUID> replayed = service.claimOrReplay(KEY);
+
+    // then
+    assertEquals(Optional.of(eventId), replayed);
+    verify(repository).assignEvent(userOwner, KEY, eventId);
+    verify(repository, never()).findWithEvent(anyString(), anyString(), any());
+  }
+
+  @Test
+  public void shouldClaimRegisteredKeyAgainOnceItHasExpired() {
+    // given
+    when(repository.findCreatedDate(userOwner, KEY)).thenReturn(Optional.of(now));
+    service.register(KEY, eventId);
+
+    ZonedDateTime later = now.plusHours(TTL_HOURS + 1);
+    ReflectionTestUtils.setField(service, "clock",
+        Clock.fixed(Instant.from(later), ZoneOffset.UTC));
+    ZonedDateTime laterExpiredBefore = later.minusHours(TTL_HOURS);
+    when(repository.findWithEvent(userOwner, KEY, laterExpiredBefore))
+        .thenReturn(Optional.empty());
+    when(repository.claim(userOwner, KEY, later, laterExpiredBefore)).thenReturn(1);
+
+    // when
+    Optional<UUID> replayed = service.claimOrReplay(KEY);
+
+    // then
+    assertFalse(replayed.isPresent());
+  }
+
+  @Test
+  public void shouldKeepKeysOfApiClientsApartFromKeysOfUsers() {
+    // given
+    when(repository.findCreatedDate(userOwner, KEY)).thenReturn(Optional.of(now));
+    service.register(KEY, eventId);
+    authenticate(null);
+    String clientOwner = "client/" + CLIENT_ID;
+    when(repository.findWithEvent(clientOwner, KEY, expiredBefore)).thenReturn(Optional.empty());
+    when(repository.claim(clientOwner, KEY, now, expiredBefore)).thenReturn(1);
+
+    // when
+    Optional<UUID> replayed = service.claimOrReplay(KEY);
+
+    // then
+    assertFalse(replayed.isPresent());
+  }
+
+  @Test(expected = ValidationMessageException.class)
+  public void shouldRejectTooLongKey() {
+    // when
+    service.claimOrReplay(StringUtils.repeat('k', IdempotencyKey.MAX_LENGTH + 1));
+  }
+
+  private void authenticate(UsernamePasswordAuthenticationToken user) {
+    OAuth2Request request = new OAuth2Request(Collections.emptyMap(), CLIENT_ID,
+        Collections.emptySet(), true, Collections.emptySet(), Collections.emptySet(), null,
+        Collections.emptySet(), Collections.emptyMap());
+    SecurityContextHolder.getContext().setAuthentication(new OAuth2Authentication(request, user));
+  }
+}
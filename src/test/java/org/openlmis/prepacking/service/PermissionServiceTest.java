@@ -0,0 +1,120 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+
+package org.openlmis.pointofdelivery.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+import static org.openlmis.pointofdelivery.service.PermissionService.SYSTEM_SETTINGS_MANAGE;
+
+import java.util.Collections;
+import java.util.UUID;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.openlmis.pointofdelivery.dto.referencedata.ResultDto;
+import org.openlmis.pointofdelivery.dto.referencedata.RightDto;
+import org.openlmis.pointofdelivery.dto.referencedata.UserDto;
+import org.openlmis.pointofdelivery.exception.PermissionMessageException;
+import org.openlmis.pointofdelivery.service.referencedata.UserReferenceDataService;
+import org.openlmis.pointofdelivery.util.AuthenticationHelper;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PermissionServiceTest {
+
+  @Mock
+  private AuthenticationHelper authenticationHelper;
+
+  @Mock
+  private UserReferenceDataService userReferenceDataService;
+
+  @InjectMocks
+  private PermissionService permissionService;
+
+  private UserDto user = new UserDto();
+  private RightDto right = new RightDto();
+
+  @Before
+  public void setUp() {
+    user.setId(UUID.randomUUID());
+    right.setId(UUID.randomUUID());
+    right.setName(SYSTEM_SETTINGS_MANAGE);
+  }
+
+  @After
+  public void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  public void shouldAllowUserWithRightToManageSystemSettings() {
+    // given
+    authenticate(new UsernamePasswordAuthenticationToken(user.getId(), null));
+    mockRight(true);
+
+    // when
+    permissionService.canManageSystemSettings();
+
+    // then
+    verify(userReferenceDataService).hasRight(user.getId(), right.getId(), null, null, null);
+  }
+
+  @Test(expected = PermissionMessageException.class)
+  public void shouldRejectUserWithoutRightToManageSystemSettings() {
+    // given
+    authenticate(new UsernamePasswordAuthenticationToken(user.getId(), null));
+    mockRight(false);
+
+    // when
+    permissionService.canManageSystemSettings();
+  }
+
+  @Test
+  public void shouldTrustOtherServices() {
+    // given
+    authenticate(null);
+
+    // when
+    permissionService.canManageSystemSettings();
+
+    // then
+    verifyZeroInteractions(authenticationHelper, userReferenceDataService);
+  }
+
+  private void mockRight(boolean hasRight) {
+    when(authenticationHelper.getCurrentUser()).thenReturn(user);
+    when(authenticationHelper.getRight(SYSTEM_SETTINGS_MANAGE)).thenReturn(right);
+    when(userReferenceDataService.hasRight(any(), any(), any(), any(), any()))
+        .thenReturn(new ResultDto<>(hasRight));
+  }
+
+  private void authenticate(UsernamePasswordAuthenticationToken user) {
+    OAuth2Request request = new OAuth2Request(Collections.emptyMap(), "delivery-app",
+        Collections.emptySet(), true, Collections.emptySet(), Collections.emptySet(), null,
+        Collections.emptySet(), Collections.emptyMap());
+    SecurityContextHolder.getContext().setAuthentication(new OAuth2Authentication(request, user));
+  }
+}
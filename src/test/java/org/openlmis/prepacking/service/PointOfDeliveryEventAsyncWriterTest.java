@@ -0,0 +1,214 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.openlmis.pointofdelivery.domain.event.PointOfDeliveryEvent;
+import org.openlmis.pointofdelivery.dto.PointOfDeliveryEventDto;
+import org.openlmis.pointofdelivery.dto.PointOfDeliveryEventSubmissionDto;
+import org.openlmis.pointofdelivery.dto.PointOfDeliveryEventSubmissionDto.Status;
+import org.openlmis.pointofdelivery.exception.TooManyRequestsMessageException;
+import org.openlmis.pointofdelivery.i18n.MessageService;
+import org.openlmis.pointofdelivery.repository.PointOfDeliveryEventsRepository;
+import org.openlmis.pointofdelivery.util.LazyResource;
+import org.openlmis.pointofdelivery.util.PointOfDeliveryEventProcessContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PointOfDeliveryEventAsyncWriterTest {
+
+  private static final String BLOCKING_REFERENCE = "blocking";
+  private static final String BAD_REFERENCE = "bad";
+  private static final long TIMEOUT_SECONDS = 10;
+
+  @Mock
+  private PointOfDeliveryEventProcessContextBuilder contextBuilder;
+
+  @Mock
+  private PointOfDeliveryEventsRepository repository;
+
+  @Mock
+  private PointOfDeliveryService pointOfDeliveryService;
+
+  @Mock
+  private PointOfDeliveryRollupService rollupService;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @Mock
+  private MessageService messageService;
+
+  @InjectMocks
+  private PointOfDeliveryEventAsyncWriter writer;
+
+  private PointOfDeliveryEventProcessContext context;
+  private CountDownLatch writerBlocked = new CountDownLatch(1);
+  private CountDownLatch writerReleased = new CountDownLatch(1);
+  // whether every event passed to saveAll had neither an id nor a version, in call order
+  private List<Boolean> savedFresh = Collections.synchronizedList(new ArrayList<>());
+
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(writer, "writerThreads", 1);
+    ReflectionTestUtils.setField(writer, "maxGroupSize", 10);
+    ReflectionTestUtils.setField(writer, "statusTtlMinutes", 60L);
+    ReflectionTestUtils.setField(writer, "statusCacheSize", 100L);
+    ReflectionTestUtils.setField(writer, "meterRegistry", new SimpleMeterRegistry());
+
+    context = new PointOfDeliveryEventProcessContext();
+    context.setCurrentUserId(new LazyResource<>(UUID::randomUUID));
+    context.setCurrentUserNames(new LazyResource<>(() -> "Doe, John"));
+    when(contextBuilder.buildContext(any(PointOfDeliveryEventDto.class))).thenReturn(context);
+  }
+
+  @After
+  public void tearDown() throws InterruptedException {
+    writerReleased.countDown();
+    writer.stop();
+  }
+
+  @Test(expected = TooManyRequestsMessageException.class)
+  public void shouldRejectEventWhenQueueIsFull() throws InterruptedException {
+    // given
+    start(1);
+    mockSaveAll();
+    writer.submit(event(BLOCKING_REFERENCE));
+    assertTrue(writerBlocked.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    writer.submit(event("queued"));
+
+    // when
+    writer.submit(event("rejected"));
+  }
+
+  @Test
+  public void shouldSaveQueuedEventWithRollupsAndEvictCachedEvents() throws InterruptedException {
+    // given
+    start(1);
+    mockSaveAll();
+    PointOfDeliveryEventDto dto = event("a");
+
+    // when
+    UUID submissionId = writer.submit(dto);
+
+    // then
+    PointOfDeliveryEventSubmissionDto submission = awaitSubmission(submissionId);
+    assertEquals(Status.SAVED, submission.getStatus());
+    assertNotNull(submission.getEventId());
+    verify(rollupService).addEvents(Collections.singletonList(submission.getEventId()));
+    verify(pointOfDeliveryService).evictCachedEvents(
+        Collections.singleton(dto.getDestinationId()));
+  }
+
+  @Test
+  public void shouldFailOnlyBadEventOfFailedGroup() throws InterruptedException {
+    // given
+    start(2);
+    mockSaveAll();
+    when(messageService.describe(any(RuntimeException.class)))
+        .thenAnswer(invocation -> invocation.<RuntimeException>getArgument(0).getMessage());
+    writer.submit(event(BLOCKING_REFERENCE));
+    assertTrue(writerBlocked.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+    // when both are saved as one group once the writer is released
+    UUID good = writer.submit(event("good"));
+    UUID bad = writer.submit(event(BAD_REFERENCE));
+    writerReleased.countDown();
+
+    // then
+    PointOfDeliveryEventSubmissionDto goodSubmission = awaitSubmission(good);
+    PointOfDeliveryEventSubmissionDto badSubmission = awaitSubmission(bad);
+    assertEquals(Status.SAVED, goodSubmission.getStatus());
+    assertEquals(Status.FAILED, badSubmission.getStatus());
+    assertEquals("constraint violation", badSubmission.getError());
+    // blocking event, failed group, then both events of the group one by one, each as new rows
+    assertEquals(4, savedFresh.size());
+    assertTrue(savedFresh.get(2));
+    assertTrue(savedFresh.get(3));
+  }
+
+  private void start(int queueCapacity) {
+    ReflectionTestUtils.setField(writer, "queueCapacity", queueCapacity);
+    writer.start();
+  }
+
+  private void mockSaveAll() {
+    when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+      List<PointOfDeliveryEvent> events = invocation.getArgument(0);
+      savedFresh.add(events.stream()
+          .allMatch(event -> event.getId() == null && event.getVersion() == null));
+
+      for (PointOfDeliveryEvent event : events) {
+        if (BLOCKING_REFERENCE.equals(event.getReferenceNumber())) {
+          writerBlocked.countDown();
+          writerReleased.await();
+        }
+        // as Hibernate does on persist, also for transactions that are rolled back afterwards
+        event.setId(UUID.randomUUID());
+        event.setVersion(0L);
+      }
+      if (events.stream().anyMatch(event -> BAD_REFERENCE.equals(event.getReferenceNumber()))) {
+        throw new IllegalStateException("constraint violation");
+      }
+      return events;
+    });
+  }
+
+  private PointOfDeliveryEventSubmissionDto awaitSubmission(UUID submissionId)
+      throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+    while (System.nanoTime() < deadline) {
+      PointOfDeliveryEventSubmissionDto submission = writer.getSubmission(submissionId);
+      if (submission.getStatus() != Status.QUEUED) {
+        return submission;
+      }
+      Thread.sleep(10);
+    }
+    throw new AssertionError("Submission " + submissionId + " has not been processed");
+  }
+
+  private PointOfDeliveryEventDto event(String referenceNumber) {
+    return PointOfDeliveryEventDto.builder()
+        .sourceId(UUID.randomUUID())
+        .destinationId(UUID.randomUUID())
+        .referenceNumber(referenceNumber)
+        .packingDate(LocalDate.now())
+        .build();
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.openlmis.pointofdelivery.dto.PointOfDeliveryEventDto;
+import org.openlmis.pointofdelivery.dto.referencedata.FacilityDto;
+import org.openlmis.pointofdelivery.dto.referencedata.UserDto;
+import org.openlmis.pointofdelivery.service.referencedata.FacilityReferenceDataService;
+import org.openlmis.pointofdelivery.util.AuthenticationHelper;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PointOfDeliveryEventProcessContextBuilderTest {
+
+  @Mock
+  private AuthenticationHelper authenticationHelper;
+
+  @Mock
+  private FacilityReferenceDataService facilityService;
+
+  @InjectMocks
+  private PointOfDeliveryEventProcessContextBuilder contextBuilder;
+
+  private UUID destinationId = UUID.randomUUID();
+  private UUID otherDestinationId = UUID.randomUUID();
+  private FacilityDto destination = new FacilityDto();
+  private FacilityDto otherDestination = new FacilityDto();
+  private UserDto user = new UserDto();
+
+  @Before
+  public void setUp() {
+    user.setId(UUID.randomUUID());
+    user.setFirstName("John");
+    user.setLastName("Doe");
+
+    OAuth2Request request = new OAuth2Request(Collections.emptyMap(), "client",
+        Collections.emptySet(), true, Collections.emptySet(), Collections.emptySet(), null,
+        Collections.emptySet(), Collections.emptyMap());
+    SecurityContextHolder.getContext().setAuthentication(new OAuth2Authentication(request,
+        new UsernamePasswordAuthenticationToken(user.getId(), null)));
+  }
+
+  @After
+  public void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  public void shouldResolveDestinationOfEveryEventOfBatchOncePerDestination() {
+    // given
+    when(facilityService.findOne(destinationId)).thenReturn(destination);
+    when(facilityService.findOne(otherDestinationId)).thenReturn(otherDestination);
+    List<PointOfDeliveryEventDto> dtos = Arrays.asList(
+        event(destinationId), event(otherDestinationId), event(destinationId));
+
+    // when
+    contextBuilder.buildContext(dtos);
+
+    // then
+    assertSame(destination, dtos.get(0).getContext().getFacility());
+    assertSame(otherDestination, dtos.get(1).getContext().getFacility());
+    assertSame(destination, dtos.get(2).getContext().getFacility());
+    verify(facilityService, times(1)).findOne(destinationId);
+    verify(facilityService, times(1)).findOne(otherDestinationId);
+  }
+
+  @Test
+  public void shouldRetrieveReferenceDataOfBatchOnlyWhenNeeded() {
+    // given
+    when(authenticationHelper.getCurrentUser()).thenReturn(user);
+    List<PointOfDeliveryEventDto> dtos = Arrays.asList(
+        event(destinationId), event(otherDestinationId));
+
+    // when
+    contextBuilder.buildContext(dtos);
+
+    // then
+    assertEquals(user.getId(), dtos.get(0).getContext().getCurrentUserId());
+    assertEquals("John, Doe", dtos.get(1).getContext().getCurrentUserNames());
+    verify(authenticationHelper, times(1)).getCurrentUser();
+    verify(facilityService, never()).findOne(any(UUID.class));
+  }
+
+  private PointOfDeliveryEventDto event(UUID destinationId) {
+    return PointOfDeliveryEventDto.builder()
+        .destinationId(destinationId)
+        .build();
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.service;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.openlmis.pointofdelivery.domain.event.PointOfDeliveryEvent;
+import org.openlmis.pointofdelivery.dto.DiscrepancyDto;
+import org.openlmis.pointofdelivery.dto.PointOfDeliveryEventDto;
+import org.openlmis.pointofdelivery.dto.PointOfDeliveryEventResultDto;
+import org.openlmis.pointofdelivery.exception.ValidationMessageException;
+import org.openlmis.pointofdelivery.i18n.MessageService;
+import org.openlmis.pointofdelivery.repository.PointOfDeliveryEventsRepository;
+import org.openlmis.pointofdelivery.util.LazyResource;
+import org.openlmis.pointofdelivery.util.PointOfDeliveryEventProcessContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PointOfDeliveryEventProcessorTest {
+
+  private static final String BAD_REFERENCE = "bad";
+
+  @Mock
+  private PointOfDeliveryEventProcessContextBuilder contextBuilder;
+
+  @Mock
+  private PointOfDeliveryEventsRepository repository;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @Mock
+  private MessageService messageService;
+
+  @Mock
+  private PointOfDeliveryService pointOfDeliveryService;
+
+  @Mock
+  private PointOfDeliveryRollupService rollupService;
+
+  @InjectMocks
+  private PointOfDeliveryEventProcessor processor;
+
+  private PointOfDeliveryEventProcessContext context;
+  // events passed to saveAll, and whether they had neither an id nor a version, in call order
+  private List<PointOfDeliveryEvent> saved = new ArrayList<>();
+  private List<Boolean> savedFresh = new ArrayList<>();
+
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(processor, "batchChunkSize", 2);
+    ReflectionTestUtils.setField(processor, "batchMaxSize", 5);
+
+    context = new PointOfDeliveryEventProcessContext();
+    context.setCurrentUserId(new LazyResource<>(UUID::randomUUID));
+    context.setCurrentUserNames(new LazyResource<>(() -> "Doe, John"));
+
+    when(messageService.describe(any(RuntimeException.class)))
+        .thenAnswer(invocation -> invocation.<RuntimeException>getArgument(0).getMessage());
+    when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+      List<PointOfDeliveryEvent> events = invocation.getArgument(0);
+      for (PointOfDeliveryEvent event : events) {
+        saved.add(event);
+        savedFresh.add(event.getId() == null && event.getVersion() == null);
+        if (BAD_REFERENCE.equals(event.getReferenceNumber())) {
+          throw new IllegalStateException("constraint violation");
+        }
+        // as Hibernate does on persist, also for transactions that are rolled back afterwards
+        event.setId(UUID.randomUUID());
+        event.setVersion(0L);
+      }
+      return events;
+    });
+  }
+
+  @Test
+  public void shouldSaveBatchInChunks() {
+    List<PointOfDeliveryEventDto> dtos = events("a", "b", "c");
+
+    List<PointOfDeliveryEventResultDto> results = processor.processBatch(dtos);
+
+    assertThat(results, hasSize(3));
+    for (int index = 0; index < results.size(); index++) {
+      assertEquals(index, results.get(index).getIndex());
+      assertTrue(results.get(index).isSuccessful());
+      assertNotNull(results.get(index).getId());
+    }
+    verify(contextBuilder).buildContext(dtos);
+    verify(repository, times(2)).saveAll(anyList());
+    verify(rollupService, times(2)).addEvents(anyList());
+  }
+
+  @Test
+  public void shouldReportEventThatCanNotBeConvertedWithoutFailingOthers() {
+    List<PointOfDeliveryEventDto> dtos = events("a", "b");
+    dtos.get(0).setDiscrepancies(Collections.singletonList(new DiscrepancyDto()));
+
+    List<PointOfDeliveryEventResultDto> results = processor.processBatch(dtos);
+
+    assertFalse(results.get(0).isSuccessful());
+    assertTrue(results.get(1).isSuccessful());
+  }
+
+  @Test
+  public void shouldIsolateEventThatCanNotBeSavedWithoutFailingOthers() {
+    List<PointOfDeliveryEventDto> dtos = events("a", BAD_REFERENCE, "c");
+
+    List<PointOfDeliveryEventResultDto> results = processor.processBatch(dtos);
+
+    assertTrue(results.get(0).isSuccessful());
+    assertFalse(results.get(1).isSuccessful());
+    assertEquals("constraint violation", results.get(1).getError());
+    assertTrue(results.get(2).isSuccessful());
+    // first chunk fails as a whole, then both of its events are retried one by one
+    verify(repository, times(4)).saveAll(anyList());
+  }
+
+  @Test
+  public void shouldRetryEventsOfFailedChunkAsNewRows() {
+    List<PointOfDeliveryEventDto> dtos = events("a", BAD_REFERENCE);
+
+    List<PointOfDeliveryEventResultDto> results = processor.processBatch(dtos);
+
+    assertTrue(results.get(0).isSuccessful());
+    assertEquals(saved.get(2).getId(), results.get(0).getId());
+    // a and bad of the failed chunk, then a and bad one by one
+    assertThat(saved, hasSize(4));
+    assertNotSame(saved.get(0), saved.get(2));
+    assertEquals(Arrays.asList(true, true, true, true), savedFresh);
+  }
+
+  @Test(expected = ValidationMessageException.class)
+  public void shouldRejectBatchLargerThanMaxSize() {
+    processor.processBatch(events("a", "b", "c", "d", "e", "f"));
+  }
+
+  private List<PointOfDeliveryEventDto> events(String... referenceNumbers) {
+    List<PointOfDeliveryEventDto> dtos = new ArrayList<>();
+    for (String referenceNumber : referenceNumbers) {
+      PointOfDeliveryEventDto dto = PointOfDeliveryEventDto.builder()
+          .sourceId(UUID.randomUUID())
+          .destinationId(UUID.randomUUID())
+          .referenceNumber(referenceNumber)
+          .packingDate(LocalDate.now())
+          .context(context)
+          .build();
+      dtos.add(dto);
+    }
+    return dtos;
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.openlmis.pointofdelivery.dto.PointOfDeliveryEventDto;
+import org.openlmis.pointofdelivery.dto.PointOfDeliveryEventResultDto;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PointOfDeliveryEventStreamProcessorTest {
+
+  private static final String EVENT = "{\"referenceNumber\":\"a\",\"packingDate\":\"2024-01-31\"}";
+
+  @Mock
+  private PointOfDeliveryEventProcessor pointOfDeliveryEventProcessor;
+
+  @Spy
+  private ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+  @InjectMocks
+  private PointOfDeliveryEventStreamProcessor streamProcessor;
+
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(streamProcessor, "chunkSize", 2);
+
+    when(pointOfDeliveryEventProcessor.processBatch(anyList())).thenAnswer(invocation -> {
+      List<PointOfDeliveryEventDto> dtos = invocation.getArgument(0);
+      List<PointOfDeliveryEventResultDto> results = new ArrayList<>();
+      for (int index = 0; index < dtos.size(); index++) {
+        results.add(PointOfDeliveryEventResultDto.success(index, UUID.randomUUID()));
+      }
+      return results;
+    });
+  }
+
+  @Test
+  public void shouldSaveLinesInChunksAndReportEveryLineInOrder() throws IOException {
+    List<PointOfDeliveryEventResultDto> results = process(
+        EVENT + "\n" + EVENT + "\n\n" + EVENT + "\n");
+
+    assertEquals(3, results.size());
+    assertEquals(0, results.get(0).getIndex());
+    assertEquals(1, results.get(1).getIndex());
+    assertEquals(3, results.get(2).getIndex());
+    results.forEach(result -> assertTrue(result.isSuccessful()));
+    verify(pointOfDeliveryEventProcessor, times(2)).processBatch(anyList());
+  }
+
+  @Test
+  public void shouldReportMalformedLineWithoutFailingOthers() throws IOException {
+    List<PointOfDeliveryEventResultDto> results = process(
+        EVENT + "\n{\"packingDate\":\n" + EVENT);
+
+    assertEquals(3, results.size());
+    assertTrue(results.get(0).isSuccessful());
+    assertFalse(results.get(1).isSuccessful());
+    assertEquals(1, results.get(1).getIndex());
+    assertTrue(results.get(2).isSuccessful());
+    assertEquals(2, results.get(2).getIndex());
+  }
+
+  @Test
+  public void shouldFlushChunksOfMalformedLines() throws IOException {
+    ByteArrayOutputStream output = spy(new ByteArrayOutputStream());
+
+    List<PointOfDeliveryEventResultDto> results = process(
+        "{\n{\n{\n{\n" + EVENT, output);
+
+    assertEquals(5, results.size());
+    results.subList(0, 4).forEach(result -> assertFalse(result.isSuccessful()));
+    assertTrue(results.get(4).isSuccessful());
+    // two chunks of malformed lines and the last one with the event
+    verify(output, times(3)).flush();
+    verify(pointOfDeliveryEventProcessor).processBatch(anyList());
+  }
+
+  private List<PointOfDeliveryEventResultDto> process(String body) throws IOException {
+    return process(body, new ByteArrayOutputStream());
+  }
+
+  private List<PointOfDeliveryEventResultDto> process(String body, ByteArrayOutputStream output)
+      throws IOException {
+    streamProcessor.process(
+        new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), output);
+
+    List<PointOfDeliveryEventResultDto> results = new ArrayList<>();
+    for (String line : output.toString("UTF-8").split("\n")) {
+      results.add(objectMapper.readValue(line, PointOfDeliveryEventResultDto.class));
+    }
+    return results;
+  }
+}
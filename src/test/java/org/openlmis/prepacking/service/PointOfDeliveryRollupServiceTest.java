@@ -0,0 +1,169 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.openlmis.pointofdelivery.domain.event.PointOfDeliveryMonthlyRollup;
+import org.openlmis.pointofdelivery.domain.qualitychecks.DiscrepancyMonthlyRollup;
+import org.openlmis.pointofdelivery.dto.DiscrepancyMonthlyRollupDto;
+import org.openlmis.pointofdelivery.dto.requisition.RejectionReasonDto;
+import org.openlmis.pointofdelivery.repository.DiscrepancyMonthlyRollupRepository;
+import org.openlmis.pointofdelivery.repository.PointOfDeliveryMonthlyRollupRepository;
+import org.openlmis.pointofdelivery.service.requisition.RejectionReasonCatalog;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PointOfDeliveryRollupServiceTest {
+
+  private static final LocalDate MARCH = LocalDate.of(2026, 3, 1);
+
+  @Mock
+  private PointOfDeliveryMonthlyRollupRepository rollupRepository;
+
+  @Mock
+  private DiscrepancyMonthlyRollupRepository discrepancyRollupRepository;
+
+  @Mock
+  private RejectionReasonCatalog rejectionReasonCatalog;
+
+  @InjectMocks
+  private PointOfDeliveryRollupService rollupService;
+
+  private UUID destinationId = UUID.randomUUID();
+
+  @Test
+  public void shouldResolveEachRejectionReasonOncePerResponse() {
+    // given
+    RejectionReasonDto reason = RejectionReasonDto.builder()
+        .id(UUID.randomUUID())
+        .name("damaged")
+        .build();
+    when(rejectionReasonCatalog.find(reason.getId())).thenReturn(reason);
+    when(discrepancyRollupRepository.findByDestinationId(destinationId, MARCH, MARCH))
+        .thenReturn(Arrays.asList(
+            rollup(reason.getId(), "cartons"),
+            rollup(reason.getId(), "containers"),
+            rollup(PointOfDeliveryMonthlyRollup.NONE, "")));
+
+    // when
+    List<DiscrepancyMonthlyRollupDto> rollups = rollupService.getDiscrepancyRollups(
+        destinationId, YearMonth.of(2026, 3), YearMonth.of(2026, 3));
+
+    // then
+    assertEquals(reason, rollups.get(0).getRejectionReason());
+    assertEquals(reason, rollups.get(1).getRejectionReason());
+    assertNull(rollups.get(2).getRejectionReason());
+    assertEquals(YearMonth.of(2026, 3), rollups.get(0).getMonth());
+    verify(rejectionReasonCatalog).find(reason.getId());
+  }
+
+  @Test
+  public void shouldKeepIdOfUnknownRejectionReason() {
+    // given
+    UUID reasonId = UUID.randomUUID();
+    when(discrepancyRollupRepository.findAll(MARCH, MARCH))
+        .thenReturn(Arrays.asList(rollup(reasonId, "cartons")));
+
+    // when
+    List<DiscrepancyMonthlyRollupDto> rollups = rollupService.getDiscrepancyRollups(
+        null, YearMonth.of(2026, 3), YearMonth.of(2026, 3));
+
+    // then
+    assertEquals(reasonId, rollups.get(0).getRejectionReason().getId());
+    assertNull(rollups.get(0).getRejectionReason().getName());
+  }
+
+  @Test
+  public void shouldMaintainEventAndDiscrepancyRollupsTogether() {
+    // given
+    List<UUID> ids = Arrays.asList(UUID.randomUUID());
+
+    // when
+    rollupService.removeEvents(ids);
+    rollupService.addEvents(ids);
+
+    // then
+    verify(rollupRepository).addEvents(ids, -1);
+    verify(discrepancyRollupRepository).addEvents(ids, -1);
+    verify(rollupRepository).addEvents(ids, 1);
+    verify(discrepancyRollupRepository).addEvents(ids, 1);
+  }
+
+  @Test
+  public void shouldBackfillRollupsWhenThereAreNone() {
+    // given
+    when(rollupRepository.existsAnyRollup()).thenReturn(false);
+
+    // when
+    rollupService.backfill();
+
+    // then
+    InOrder order = inOrder(rollupRepository, discrepancyRollupRepository);
+    order.verify(rollupRepository).lock();
+    order.verify(discrepancyRollupRepository).lock();
+    order.verify(rollupRepository).insertAllRollups();
+    order.verify(discrepancyRollupRepository).insertAllRollups();
+    verify(rollupRepository, never()).deleteAllRollups();
+  }
+
+  @Test
+  public void shouldNotBackfillRollupsComputedByAnotherInstance() {
+    // given
+    when(rollupRepository.existsAnyRollup()).thenReturn(false, true);
+
+    // when
+    rollupService.backfill();
+
+    // then
+    verify(rollupRepository).lock();
+    verify(rollupRepository, never()).insertAllRollups();
+    verify(discrepancyRollupRepository, never()).insertAllRollups();
+  }
+
+  @Test
+  public void shouldNotLockRollupsWhenThereAreSome() {
+    // given
+    when(rollupRepository.existsAnyRollup()).thenReturn(true);
+
+    // when
+    rollupService.backfill();
+
+    // then
+    verify(rollupRepository, never()).lock();
+    verify(rollupRepository, never()).insertAllRollups();
+  }
+
+  private DiscrepancyMonthlyRollup rollup(UUID rejectionReasonId, String shipmentType) {
+    return new DiscrepancyMonthlyRollup(destinationId, rejectionReasonId, shipmentType, MARCH,
+        2, 5);
+  }
+}
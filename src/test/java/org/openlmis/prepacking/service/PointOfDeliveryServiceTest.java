@@ -0,0 +1,749 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.service;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.persistence.EntityManager;
+import javax.persistence.OptimisticLockException;
+import javax.persistence.Tuple;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.openlmis.pointofdelivery.domain.event.PointOfDeliveryEvent;
+import org.openlmis.pointofdelivery.domain.event.PointOfDeliveryEventTombstone;
+import org.openlmis.pointofdelivery.domain.qualitychecks.Discrepancy;
+import org.openlmis.pointofdelivery.dto.PointOfDeliveryEventChangesDto;
+import org.openlmis.pointofdelivery.dto.PointOfDeliveryEventDto;
+import org.openlmis.pointofdelivery.dto.PointOfDeliveryEventSearchParams;
+import org.openlmis.pointofdelivery.dto.ResourceVersionDto;
+import org.openlmis.pointofdelivery.dto.requisition.RejectionReasonDto;
+import org.openlmis.pointofdelivery.exception.GoneMessageException;
+import org.openlmis.pointofdelivery.exception.PreconditionFailedMessageException;
+import org.openlmis.pointofdelivery.exception.ResourceNotFoundException;
+import org.openlmis.pointofdelivery.exception.ValidationMessageException;
+import org.openlmis.pointofdelivery.repository.PointOfDeliveryEventTombstoneRepository;
+import org.openlmis.pointofdelivery.repository.PointOfDeliveryEventsRepository;
+import org.openlmis.pointofdelivery.service.requisition.RejectionReasonCatalog;
+import org.openlmis.pointofdelivery.util.KeysetCursor;
+import org.openlmis.pointofdelivery.util.KeysetPageDto;
+import org.openlmis.pointofdelivery.util.LazyResource;
+import org.openlmis.pointofdelivery.util.PointOfDeliveryEventProcessContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PointOfDeliveryServiceTest {
+
+  @Mock
+  private PointOfDeliveryEventsRepository repository;
+
+  @Mock
+  private PointOfDeliveryEventProcessContextBuilder contextBuilder;
+
+  @Mock
+  private EntityManager entityManager;
+
+  @Mock
+  private Clock clock;
+
+  @Mock
+  private PointOfDeliveryRollupService rollupService;
+
+  @Mock
+  private RejectionReasonCatalog rejectionReasonCatalog;
+
+  @Mock
+  private PointOfDeliveryEventTombstoneRepository tombstoneRepository;
+
+  @InjectMocks
+  private PointOfDeliveryService service;
+
+  private static final UUID DESTINATION_ID = UUID.randomUUID();
+  private static final ZonedDateTime NOW = ZonedDateTime.of(2026, 10, 16, 12, 0, 0, 0,
+      ZoneOffset.UTC);
+
+  private UUID id = UUID.randomUUID();
+  private PointOfDeliveryEvent existing;
+  private PointOfDeliveryEventDto dto;
+  private ResourceVersionDto version = new ResourceVersionDto("1-0-0", null);
+
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(service, "eventsMaxPageSize", 2);
+    ReflectionTestUtils.setField(service, "eventsMaxDestinations", 3);
+    ReflectionTestUtils.setField(service, "eventsCacheSize", 10L);
+    ReflectionTestUtils.setField(service, "eventsCacheTtlSeconds", 60L);
+    ReflectionTestUtils.setField(service, "eventsVersionCacheTtlSeconds", 60L);
+    ReflectionTestUtils.setField(service, "syncMaxPageSize", 3);
+    ReflectionTestUtils.setField(service, "syncSettleSeconds", 5L);
+    ReflectionTestUtils.setField(service, "tombstoneRetentionDays", 90L);
+    ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+    service.initEventsCache();
+
+    existing = new PointOfDeliveryEvent();
+    existing.setId(id);
+    existing.setVersion(3L);
+    existing.setReferenceNumber("old");
+
+    dto = PointOfDeliveryEventDto.builder()
+        .referenceNumber("new")
+        .packingDate(LocalDate.now())
+        .build();
+
+  }
+
+  @Test
+  public void shouldUpdateEventAtExpectedVersion() {
+    // given
+    mockExisting();
+    mockContext();
+
+    // when
+    PointOfDeliveryEventDto updated = service.updatePointOfDeliveryEvent(dto, id, 3L);
+
+    // then
+    assertEquals("new", updated.getReferenceNumber());
+    verify(repository).save(existing);
+    verify(entityManager).flush();
+    verify(rollupService).removeEvents(Collections.singleton(id));
+    verify(rollupService).addEvents(Collections.singleton(id));
+  }
+
+  @Test(expected = PreconditionFailedMessageException.class)
+  public void shouldNotUpdateEventAtOtherVersion() {
+    // given
+    mockExisting();
+
+    try {
+      // when
+      service.updatePointOfDeliveryEvent(dto, id, 2L);
+    } finally {
+      // then
+      verify(repository, never()).save(any());
+    }
+  }
+
+  @Test(expected = PreconditionFailedMessageException.class)
+  public void shouldNotUpdateEventChangedByConcurrentTransaction() {
+    // given
+    mockExisting();
+    mockContext();
+    doThrow(new OptimisticLockException()).when(entityManager).flush();
+
+    // when
+    service.updatePointOfDeliveryEvent(dto, id, 3L);
+  }
+
+  @Test
+  public void shouldPatchOnlyAttributesPresentInDto() {
+    // given
+    mockClock();
+    PointOfDeliveryEventDto patch = PointOfDeliveryEventDto.builder()
+        .referenceNumber("new")
+        .cartonsQuantityRejected(2)
+        .build();
+    when(repository.updateAttributes(eq(id), eq(3L), anyMap(), any(ZonedDateTime.class)))
+        .thenReturn(Arrays.asList(DESTINATION_ID, DESTINATION_ID));
+
+    // when
+    Long version = service.patchPointOfDeliveryEvent(id, patch, 3L);
+
+    // then
+    assertEquals(Long.valueOf(4L), version);
+    verify(repository).updateAttributes(eq(id), eq(3L),
+        eq(ImmutableMap.of("referenceNumber", "new", "cartonsQuantityRejected", 2)),
+        any(ZonedDateTime.class));
+    verify(repository, never()).insertTombstoneIfMoved(any(), any(), any(), any());
+    verify(rollupService).removeEvents(Collections.singleton(id));
+    verify(rollupService).addEvents(Collections.singleton(id));
+  }
+
+  @Test
+  public void shouldNotChangeRollupsWhenPatchDoesNotChangeTotals() {
+    // given
+    mockClock();
+    PointOfDeliveryEventDto patch = PointOfDeliveryEventDto.builder()
+        .remarks("checked")
+        .build();
+    when(repository.updateAttributes(eq(id), eq(null), anyMap(), any(ZonedDateTime.class)))
+        .thenReturn(Arrays.asList(DESTINATION_ID, DESTINATION_ID));
+
+    // when
+    service.patchPointOfDeliveryEvent(id, patch, null);
+
+    // then
+    verify(rollupService, never()).removeEvents(any());
+    verify(rollupService, never()).addEvents(any());
+  }
+
+  @Test
+  public void shouldLeaveTombstoneWhenPatchChangesDestination() {
+    // given
+    mockClock();
+    UUID destinationId = UUID.randomUUID();
+    PointOfDeliveryEventDto patch = PointOfDeliveryEventDto.builder()
+        .destinationId(destinationId)
+        .build();
+    when(repository.findVersionById(id)).thenReturn(Optional.of(5L));
+    when(repository.updateAttributes(eq(id), eq(5L), anyMap(), any(ZonedDateTime.class)))
+        .thenReturn(Arrays.asList(DESTINATION_ID, destinationId));
+
+    // when
+    Long version = service.patchPointOfDeliveryEvent(id, patch, null);
+
+    // then
+    assertNull(version);
+    verify(rollupService).removeEvents(Collections.singleton(id));
+    verify(repository).insertTombstoneIfMoved(
+        eq(id), eq(destinationId), any(UUID.class), any(ZonedDateTime.class));
+  }
+
+  @Test(expected = ValidationMessageException.class)
+  public void shouldNotPatchDiscrepancies() {
+    // given
+    PointOfDeliveryEventDto patch = PointOfDeliveryEventDto.builder()
+        .discrepancies(Collections.emptyList())
+        .build();
+
+    // when
+    service.patchPointOfDeliveryEvent(id, patch, null);
+  }
+
+  @Test(expected = PreconditionFailedMessageException.class)
+  public void shouldNotPatchEventAtOtherVersion() {
+    // given
+    mockClock();
+    when(repository.updateAttributes(eq(id), anyLong(), anyMap(), any(ZonedDateTime.class)))
+        .thenReturn(Collections.emptyList());
+    when(repository.existsById(id)).thenReturn(true);
+
+    // when
+    service.patchPointOfDeliveryEvent(id, dto, 2L);
+  }
+
+  @Test(expected = ResourceNotFoundException.class)
+  public void shouldThrowExceptionWhenDeletedEventDoesNotExist() {
+    // when
+    try {
+      service.deletePointOfDeliveryEvent(id);
+    } finally {
+      // then
+      verify(rollupService, never()).removeEvents(any());
+    }
+  }
+
+  @Test
+  public void shouldDeleteEventAtVersionTakenOutOfRollups() {
+    // given
+    mockClock();
+    when(repository.findVersionById(id)).thenReturn(Optional.of(3L));
+    when(repository.deleteLeavingTombstone(eq(id), eq(3L), any(UUID.class),
+        any(ZonedDateTime.class)))
+        .thenReturn(Collections.singletonList(DESTINATION_ID));
+
+    // when
+    service.deletePointOfDeliveryEvent(id);
+
+    // then
+    verify(rollupService).removeEvents(Collections.singleton(id));
+  }
+
+  @Test(expected = PreconditionFailedMessageException.class)
+  public void shouldNotDeleteEventChangedByConcurrentTransaction() {
+    // given
+    mockClock();
+    when(repository.findVersionById(id)).thenReturn(Optional.of(3L));
+    when(repository.deleteLeavingTombstone(eq(id), eq(3L), any(UUID.class),
+        any(ZonedDateTime.class)))
+        .thenReturn(Collections.emptyList());
+    when(repository.existsById(id)).thenReturn(true);
+
+    // when
+    service.deletePointOfDeliveryEvent(id);
+  }
+
+  @Test
+  public void shouldReturnCursorOfLastEventWhenThereAreMorePages() {
+    // given
+    existing.setReceivingDate(ZonedDateTime.now());
+    PointOfDeliveryEvent other = new PointOfDeliveryEvent();
+    other.setId(UUID.randomUUID());
+    other.setReceivingDate(ZonedDateTime.now().minusDays(1));
+    UUID destinationId = UUID.randomUUID();
+
+    when(repository.findByDestinationId(destinationId, PageRequest.of(0, 2,
+        Sort.by(Sort.Direction.DESC, "receivingDate", "id"))))
+        .thenReturn(new SliceImpl<>(asList(existing, other), PageRequest.of(0, 2), true));
+    when(repository.findDistinctByIdIn(asList(id, other.getId())))
+        .thenReturn(asList(other, existing));
+
+    // when
+    KeysetPageDto<PointOfDeliveryEventDto> page = service
+        .getPointOfDeliveryEvents(destinationId, PageRequest.of(0, 100), null, version);
+
+    // then
+    assertEquals(2, page.getSize());
+    assertEquals(2, page.getNumberOfElements());
+    assertEquals(id, page.getContent().get(0).getId());
+    assertEquals(other.getId(), page.getContent().get(1).getId());
+    assertFalse(page.isLast());
+    KeysetCursor cursor = KeysetCursor.decode(page.getCursor());
+    assertEquals(other.getId(), cursor.getId());
+    assertEquals(other.getReceivingDate().toInstant(), cursor.getTimestamp().toInstant());
+  }
+
+  @Test
+  public void shouldContinueFromCursorInAscendingOrder() {
+    // given
+    UUID destinationId = UUID.randomUUID();
+    ZonedDateTime receivingDate = ZonedDateTime.now();
+    String cursor = new KeysetCursor(receivingDate, id).encode();
+
+    when(repository.findByDestinationIdAfter(eq(destinationId), any(ZonedDateTime.class),
+        eq(id), eq(PageRequest.of(0, 2))))
+        .thenReturn(new SliceImpl<>(Collections.emptyList(), PageRequest.of(0, 2), false));
+
+    // when
+    KeysetPageDto<PointOfDeliveryEventDto> page = service.getPointOfDeliveryEvents(
+        destinationId, PageRequest.of(0, 2, Sort.by("receivingDate")), cursor, version);
+
+    // then
+    assertTrue(page.isLast());
+    assertNull(page.getCursor());
+  }
+
+  @Test
+  public void shouldServeRepeatedListingFromCacheUntilDestinationIsEvicted() {
+    // given
+    UUID destinationId = UUID.randomUUID();
+    PageRequest request = PageRequest.of(0, 2,
+        Sort.by(Sort.Direction.DESC, "receivingDate", "id"));
+    when(repository.findByDestinationId(destinationId, request))
+        .thenReturn(new SliceImpl<>(Collections.emptyList(), request, false));
+
+    // when
+    service.getPointOfDeliveryEvents(destinationId, PageRequest.of(0, 2), null, version);
+    service.getPointOfDeliveryEvents(destinationId, PageRequest.of(0, 2), null, version);
+    service.evictCachedEvents(Collections.singleton(UUID.randomUUID()));
+    service.getPointOfDeliveryEvents(destinationId, PageRequest.of(0, 2), null, version);
+    service.evictCachedEvents(Collections.singleton(destinationId));
+    service.getPointOfDeliveryEvents(destinationId, PageRequest.of(0, 2), null, version);
+
+    // then
+    verify(repository, times(2)).findByDestinationId(destinationId, request);
+  }
+
+  @Test
+  public void shouldNotServeCachedPageOfOtherVersion() {
+    // given
+    UUID destinationId = UUID.randomUUID();
+    PageRequest request = PageRequest.of(0, 2,
+        Sort.by(Sort.Direction.DESC, "receivingDate", "id"));
+    when(repository.findByDestinationId(destinationId, request))
+        .thenReturn(new SliceImpl<>(Collections.emptyList(), request, false));
+
+    // when
+    service.getPointOfDeliveryEvents(destinationId, PageRequest.of(0, 2), null, version);
+    service.getPointOfDeliveryEvents(destinationId, PageRequest.of(0, 2), null,
+        new ResourceVersionDto("2-0-0", null));
+
+    // then
+    verify(repository, times(2)).findByDestinationId(destinationId, request);
+  }
+
+  @Test(expected = ValidationMessageException.class)
+  public void shouldNotSortByOtherAttributes() {
+    // when
+    service.getPointOfDeliveryEvents(
+        UUID.randomUUID(), PageRequest.of(0, 2, Sort.by("remarks")), null, version);
+  }
+
+  @Test
+  public void shouldSearchSortedByIdAfterRequestedOrder() {
+    // given
+    PageRequest request = PageRequest.of(1, 2,
+        Sort.by(Sort.Direction.ASC, "packingDate", "id"));
+    when(repository.findSlice(any(), eq(request)))
+        .thenReturn(new SliceImpl<>(Collections.singletonList(existing), request, false));
+    when(repository.findDistinctByIdIn(Collections.singletonList(id)))
+        .thenReturn(Collections.singletonList(existing));
+
+    // when
+    KeysetPageDto<PointOfDeliveryEventDto> page = service.searchPointOfDeliveryEvents(
+        new PointOfDeliveryEventSearchParams(), PageRequest.of(1, 100, Sort.by("packingDate")));
+
+    // then
+    assertEquals(2, page.getSize());
+    assertEquals(id, page.getContent().get(0).getId());
+    assertTrue(page.isLast());
+    assertNull(page.getCursor());
+  }
+
+  @Test(expected = ValidationMessageException.class)
+  public void shouldNotSearchSortedByUnindexedAttributes() {
+    // when
+    service.searchPointOfDeliveryEvents(new PointOfDeliveryEventSearchParams(),
+        PageRequest.of(0, 2, Sort.by("remarks")));
+  }
+
+  @Test
+  public void shouldListOnlyRequestedFieldsWithoutReadingDiscrepancies() {
+    // given
+    UUID destinationId = UUID.randomUUID();
+    Tuple tuple = mock(Tuple.class);
+    when(tuple.get("id", UUID.class)).thenReturn(id);
+    when(tuple.get("referenceNumber")).thenReturn("old");
+    PageRequest request = PageRequest.of(0, 2,
+        Sort.by(Sort.Direction.DESC, "receivingDate", "id"));
+    when(repository.findAttributesSlice(any(),
+        eq(new LinkedHashSet<>(asList("id", "receivingDate", "referenceNumber"))), eq(request)))
+        .thenReturn(new SliceImpl<>(Collections.singletonList(tuple), request, false));
+
+    // when
+    KeysetPageDto<Map<String, Object>> page = service.getPointOfDeliveryEventFields(
+        destinationId, ImmutableSet.of("referenceNumber"), PageRequest.of(0, 100), null);
+
+    // then
+    assertEquals(ImmutableMap.of("id", id, "referenceNumber", "old"), page.getContent().get(0));
+    assertTrue(page.isLast());
+    verify(repository, never()).findDiscrepanciesByEventIdIn(any());
+    verify(repository, never()).findDistinctByIdIn(any());
+  }
+
+  @Test(expected = ValidationMessageException.class)
+  public void shouldNotListUnknownFields() {
+    // when
+    service.getPointOfDeliveryEventFields(UUID.randomUUID(), ImmutableSet.of("context"),
+        PageRequest.of(0, 2), null);
+  }
+
+  @Test
+  public void shouldListEventsOfDestinationsResolvingEachReasonOnce() {
+    // given
+    RejectionReasonDto reason = RejectionReasonDto.builder()
+        .id(UUID.randomUUID())
+        .name("damaged")
+        .build();
+    when(rejectionReasonCatalog.find(reason.getId())).thenReturn(reason);
+    existing.setDiscrepancies(asList(
+        new Discrepancy(reason.getId(), "cartons", 1, null),
+        new Discrepancy(reason.getId(), "containers", 2, null)));
+    PageRequest request = PageRequest.of(0, 2,
+        Sort.by(Sort.Direction.DESC, "receivingDate", "id"));
+    when(repository.findSlice(any(), eq(request)))
+        .thenReturn(new SliceImpl<>(Collections.singletonList(existing), request, false));
+    when(repository.findDistinctByIdIn(Collections.singletonList(id)))
+        .thenReturn(Collections.singletonList(existing));
+
+    // when
+    KeysetPageDto<PointOfDeliveryEventDto> page = service.getPointOfDeliveryEventsOfDestinations(
+        ImmutableSet.of(UUID.randomUUID(), UUID.randomUUID()), PageRequest.of(0, 100), null);
+
+    // then
+    assertEquals(id, page.getContent().get(0).getId());
+    assertEquals(reason, page.getContent().get(0).getDiscrepancies().get(1).getRejectionReason());
+    assertTrue(page.isLast());
+    verify(rejectionReasonCatalog).find(reason.getId());
+  }
+
+  @Test(expected = ValidationMessageException.class)
+  public void shouldNotListEventsOfMoreDestinationsThanAllowed() {
+    // when
+    service.getPointOfDeliveryEventsOfDestinations(ImmutableSet.of(UUID.randomUUID(),
+        UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()), PageRequest.of(0, 2), null);
+  }
+
+  @Test
+  public void shouldStreamEventsInChunks() {
+    // given
+    UUID destinationId = UUID.randomUUID();
+    when(repository.streamByDestinationId(destinationId))
+        .thenReturn(IntStream.range(0, 150).mapToObj(i -> new PointOfDeliveryEvent()));
+    List<Integer> chunkSizes = new ArrayList<>();
+
+    // when
+    service.streamPointOfDeliveryEvents(destinationId, chunk -> chunkSizes.add(chunk.size()));
+
+    // then
+    assertEquals(asList(100, 50), chunkSizes);
+    verify(entityManager, times(2)).clear();
+  }
+
+  private void mockExisting() {
+    when(repository.findById(id)).thenReturn(Optional.of(existing));
+  }
+
+  @Test
+  public void shouldMergeChangedAndDeletedEventsByTimeAndId() {
+    // given an event updated and later deleted, interleaved with changes of other events
+    mockClock(NOW);
+    UUID updatedThenDeleted = UUID.randomUUID();
+    UUID deletedElsewhere = UUID.randomUUID();
+    PointOfDeliveryEvent updated = changedEvent(updatedThenDeleted, 1);
+    PointOfDeliveryEvent other = changedEvent(new UUID(0, 3), 2);
+    mockChanges(KeysetCursor.start(), asList(updated, other), asList(
+        tombstone(new UUID(0, 2), deletedElsewhere, 2),
+        tombstone(new UUID(0, 4), updatedThenDeleted, 3)));
+
+    // when
+    PointOfDeliveryEventChangesDto changes = service.getChanges(DESTINATION_ID, null, null);
+
+    // then the tombstone comes before the event changed at the same time, as its id is lower
+    assertEquals(asList(updatedThenDeleted, other.getId()), changes.getChanged().stream()
+        .map(PointOfDeliveryEventDto::getId)
+        .collect(Collectors.toList()));
+    assertEquals(Collections.singletonList(deletedElsewhere), changes.getDeleted());
+    assertTrue(changes.isHasMore());
+    assertEquals(new KeysetCursor(at(2), other.getId()).encode(), changes.getCursor());
+  }
+
+  @Test
+  public void shouldContinueChangesFromCursorOfPreviousSync() {
+    // given
+    mockClock(NOW);
+    UUID updatedThenDeleted = UUID.randomUUID();
+    KeysetCursor previous = new KeysetCursor(at(2), new UUID(0, 3));
+    mockChanges(previous, Collections.emptyList(), Collections.singletonList(
+        tombstone(new UUID(0, 4), updatedThenDeleted, 3)));
+
+    // when
+    PointOfDeliveryEventChangesDto changes = service.getChanges(
+        DESTINATION_ID, previous.encode(), null);
+
+    // then
+    assertTrue(changes.getChanged().isEmpty());
+    assertEquals(Collections.singletonList(updatedThenDeleted), changes.getDeleted());
+    assertFalse(changes.isHasMore());
+    assertEquals(new KeysetCursor(at(3), new UUID(0, 4)).encode(), changes.getCursor());
+  }
+
+  @Test
+  public void shouldHoldBackChangesOfSettleWindowAndKeepCursorWhenNothingChanged() {
+    // given
+    mockClock(NOW);
+    KeysetCursor previous = new KeysetCursor(at(2), new UUID(0, 3));
+    mockChanges(previous, Collections.emptyList(), Collections.emptyList());
+
+    // when
+    PointOfDeliveryEventChangesDto changes = service.getChanges(
+        DESTINATION_ID, previous.encode(), 10);
+
+    // then
+    assertFalse(changes.isHasMore());
+    assertEquals(previous.encode(), changes.getCursor());
+    verify(repository).findChanges(DESTINATION_ID, at(2), new UUID(0, 3), NOW.minusSeconds(5),
+        PageRequest.of(0, 4));
+  }
+
+  @Test(expected = GoneMessageException.class)
+  public void shouldRejectCursorBeforeRemovedTombstones() {
+    // given
+    KeysetCursor previous = new KeysetCursor(at(2), new UUID(0, 3));
+    when(tombstoneRepository.findLastExpiredDate(DESTINATION_ID))
+        .thenReturn(Optional.of(at(2)));
+
+    // when
+    service.getChanges(DESTINATION_ID, previous.encode(), null);
+  }
+
+  @Test
+  public void shouldAcceptCursorPastRemovedTombstones() {
+    // given
+    mockClock(NOW);
+    KeysetCursor previous = new KeysetCursor(at(2), new UUID(0, 3));
+    when(tombstoneRepository.findLastExpiredDate(DESTINATION_ID))
+        .thenReturn(Optional.of(at(1)));
+    mockChanges(previous, Collections.emptyList(), Collections.emptyList());
+
+    // when
+    PointOfDeliveryEventChangesDto changes = service.getChanges(
+        DESTINATION_ID, previous.encode(), null);
+
+    // then
+    assertEquals(previous.encode(), changes.getCursor());
+  }
+
+  @Test
+  public void shouldKeepVersionOfDestinationEventsOnceLastChangeHasSettled() {
+    // given
+    mockClock(NOW);
+    when(repository.findLastChangeByDestinationId(DESTINATION_ID)).thenReturn(at(2));
+
+    // when
+    ResourceVersionDto first = service.getPointOfDeliveryEventsVersion(DESTINATION_ID);
+    ResourceVersionDto second = service.getPointOfDeliveryEventsVersion(DESTINATION_ID);
+
+    // then
+    assertEquals(first, second);
+    assertEquals(at(2), first.getLastModified());
+    verify(repository).findLastChangeByDestinationId(DESTINATION_ID);
+  }
+
+  @Test
+  public void shouldReadVersionOfDestinationEventsAgainOnceTheyAreWritten() {
+    // given
+    mockClock(NOW);
+    when(repository.findLastChangeByDestinationId(DESTINATION_ID))
+        .thenReturn(at(2), at(3));
+
+    // when
+    ResourceVersionDto first = service.getPointOfDeliveryEventsVersion(DESTINATION_ID);
+    service.evictCachedEvents(Collections.singleton(UUID.randomUUID()));
+    ResourceVersionDto second = service.getPointOfDeliveryEventsVersion(DESTINATION_ID);
+    service.evictCachedEvents(Collections.singleton(DESTINATION_ID));
+    ResourceVersionDto third = service.getPointOfDeliveryEventsVersion(DESTINATION_ID);
+
+    // then
+    assertEquals(first, second);
+    assertNotEquals(first, third);
+    assertEquals(at(3), third.getLastModified());
+  }
+
+  @Test
+  public void shouldEvictOnlyDestinationsOfDeletedEvent() {
+    // given
+    mockClock(NOW);
+    UUID otherDestinationId = UUID.randomUUID();
+    when(repository.findLastChangeByDestinationId(any(UUID.class))).thenReturn(at(2));
+    when(repository.findVersionById(id)).thenReturn(Optional.of(3L));
+    when(repository.deleteLeavingTombstone(eq(id), eq(3L), any(UUID.class),
+        any(ZonedDateTime.class)))
+        .thenReturn(Collections.singletonList(DESTINATION_ID));
+    service.getPointOfDeliveryEventsVersion(DESTINATION_ID);
+    service.getPointOfDeliveryEventsVersion(otherDestinationId);
+
+    // when
+    service.deletePointOfDeliveryEvent(id);
+    service.getPointOfDeliveryEventsVersion(DESTINATION_ID);
+    service.getPointOfDeliveryEventsVersion(otherDestinationId);
+
+    // then
+    verify(repository, times(2)).findLastChangeByDestinationId(DESTINATION_ID);
+    verify(repository).findLastChangeByDestinationId(otherDestinationId);
+  }
+
+  @Test
+  public void shouldChangeVersionOfDestinationEventsWithinSettleWindowOfLastChange() {
+    // given
+    when(clock.getZone()).thenReturn(ZoneOffset.UTC);
+    when(clock.instant()).thenReturn(NOW.toInstant(), NOW.plusSeconds(1).toInstant());
+    when(repository.findLastChangeByDestinationId(DESTINATION_ID))
+        .thenReturn(NOW.minusSeconds(2));
+
+    // when
+    ResourceVersionDto first = service.getPointOfDeliveryEventsVersion(DESTINATION_ID);
+    ResourceVersionDto second = service.getPointOfDeliveryEventsVersion(DESTINATION_ID);
+
+    // then
+    assertNotEquals(first.getValue(), second.getValue());
+  }
+
+  @Test
+  public void shouldDeleteTombstonesOlderThanRetention() {
+    // given
+    mockClock(NOW);
+
+    // when
+    service.deleteExpiredTombstones();
+
+    // then
+    verify(tombstoneRepository).deleteExpired(NOW.minusDays(90));
+  }
+
+  private void mockChanges(KeysetCursor since, List<PointOfDeliveryEvent> events,
+      List<PointOfDeliveryEventTombstone> tombstones) {
+    // one more than the page size of 3, to tell whether anything is left
+    PageRequest page = PageRequest.of(0, 4);
+    when(repository.findChanges(DESTINATION_ID, since.getTimestamp(), since.getId(),
+        NOW.minusSeconds(5), page)).thenReturn(events);
+    when(tombstoneRepository.findChanges(DESTINATION_ID, since.getTimestamp(), since.getId(),
+        NOW.minusSeconds(5), page)).thenReturn(tombstones);
+  }
+
+  private PointOfDeliveryEvent changedEvent(UUID eventId, int minute) {
+    PointOfDeliveryEvent event = new PointOfDeliveryEvent();
+    event.setId(eventId);
+    event.setDestinationId(DESTINATION_ID);
+    event.setLastModified(at(minute));
+    return event;
+  }
+
+  private PointOfDeliveryEventTombstone tombstone(UUID tombstoneId, UUID eventId, int minute) {
+    PointOfDeliveryEventTombstone tombstone = new PointOfDeliveryEventTombstone(
+        eventId, DESTINATION_ID, at(minute));
+    tombstone.setId(tombstoneId);
+    return tombstone;
+  }
+
+  private ZonedDateTime at(int minute) {
+    return NOW.minusHours(1).plusMinutes(minute);
+  }
+
+  private void mockClock(ZonedDateTime now) {
+    when(clock.instant()).thenReturn(now.toInstant());
+    when(clock.getZone()).thenReturn(now.getZone());
+  }
+
+  private void mockClock() {
+    when(clock.instant()).thenReturn(Clock.systemUTC().instant());
+    when(clock.getZone()).thenReturn(Clock.systemUTC().getZone());
+  }
+
+  private void mockContext() {
+    PointOfDeliveryEventProcessContext context = new PointOfDeliveryEventProcessContext();
+    context.setCurrentUserId(new LazyResource<>(UUID::randomUUID));
+    context.setCurrentUserNames(new LazyResource<>(() -> "Doe, John"));
+    when(contextBuilder.buildContext(dto)).thenReturn(context);
+  }
+}
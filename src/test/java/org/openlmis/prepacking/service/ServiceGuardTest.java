@@ -0,0 +1,179 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.openlmis.pointofdelivery.exception.ServiceUnavailableMessageException;
+import org.openlmis.pointofdelivery.service.ServiceGuard.State;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ServiceGuardTest {
+  private static final String SERVICE = "referencedata";
+  private static final Instant NOW = Instant.parse("2026-03-01T10:00:00Z");
+
+  @Mock
+  private Clock clock;
+
+  private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private ExecutorService executor = Executors.newSingleThreadExecutor();
+
+  private AtomicInteger calls = new AtomicInteger();
+
+  private ServiceGuard guard;
+
+  @Before
+  public void setUp() {
+    guard = new ServiceGuard(SERVICE, 2, Duration.ofSeconds(30), 1, 0, clock, meterRegistry);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void shouldOpenAfterConsecutiveFailuresAndRejectCalls() {
+    // given
+    when(clock.instant()).thenReturn(NOW);
+
+    // when
+    callFailing();
+    callFailing();
+    callRejected();
+
+    // then
+    assertEquals(State.OPEN, guard.getState());
+    assertEquals(2, calls.get());
+    assertEquals(1, (long) meterRegistry.counter("service.circuitBreaker.transitions",
+        "service", SERVICE, "from", "CLOSED", "to", "OPEN").count());
+    assertEquals(1, (long) meterRegistry.counter("service.requests.rejected",
+        "service", SERVICE, "reason", "circuitBreaker").count());
+  }
+
+  @Test
+  public void shouldNotCountRejectedRequestsAsFailures() {
+    // when
+    for (int i = 0; i < 3; i++) {
+      try {
+        guard.call(() -> {
+          throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+        });
+      } catch (HttpClientErrorException ex) {
+        // the service is available
+      }
+    }
+
+    // then
+    assertEquals(State.CLOSED, guard.getState());
+  }
+
+  @Test
+  public void shouldCloseWhenTrialCallSucceeds() {
+    // given
+    when(clock.instant()).thenReturn(NOW);
+    callFailing();
+    callFailing();
+    when(clock.instant()).thenReturn(NOW.plusSeconds(30));
+
+    // when
+    assertEquals("ok", guard.call(() -> "ok"));
+
+    // then
+    assertEquals(State.CLOSED, guard.getState());
+    assertEquals(1, (long) meterRegistry.counter("service.circuitBreaker.transitions",
+        "service", SERVICE, "from", "HALF_OPEN", "to", "CLOSED").count());
+  }
+
+  @Test
+  public void shouldOpenAgainWhenTrialCallFails() {
+    // given
+    when(clock.instant()).thenReturn(NOW);
+    callFailing();
+    callFailing();
+    when(clock.instant()).thenReturn(NOW.plusSeconds(30));
+
+    // when
+    callFailing();
+
+    // then
+    assertEquals(State.OPEN, guard.getState());
+    callRejected();
+  }
+
+  @Test
+  public void shouldRejectCallsBeyondBulkhead() throws Exception {
+    // given
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    executor.submit(() -> guard.call(() -> {
+      started.countDown();
+      return release.await(5, TimeUnit.SECONDS);
+    }));
+    started.await(5, TimeUnit.SECONDS);
+
+    // when
+    callRejected();
+    release.countDown();
+
+    // then
+    assertEquals(State.CLOSED, guard.getState());
+    assertEquals(1, (long) meterRegistry.counter("service.requests.rejected",
+        "service", SERVICE, "reason", "bulkhead").count());
+  }
+
+  private void callFailing() {
+    try {
+      guard.call(() -> {
+        calls.incrementAndGet();
+        throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+      });
+    } catch (HttpServerErrorException ex) {
+      return;
+    }
+    fail("Expected the call to fail");
+  }
+
+  private void callRejected() {
+    try {
+      guard.call(() -> calls.incrementAndGet());
+    } catch (ServiceUnavailableMessageException ex) {
+      return;
+    }
+    fail("Expected the call to be rejected");
+  }
+}
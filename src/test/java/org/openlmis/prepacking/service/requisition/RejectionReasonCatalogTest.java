@@ -0,0 +1,145 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.service.requisition;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.openlmis.pointofdelivery.i18n.MessageKeys.ERROR_SERVICE_UNAVAILABLE;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.UUID;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.openlmis.pointofdelivery.dto.requisition.RejectionReasonDto;
+import org.openlmis.pointofdelivery.exception.ServiceUnavailableMessageException;
+import org.openlmis.pointofdelivery.service.ServiceResponse;
+import org.openlmis.pointofdelivery.util.Message;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RejectionReasonCatalogTest {
+
+  private static final String ETAG = "\"1\"";
+
+  @Mock
+  private RejectionReasonService rejectionReasonService;
+
+  @Mock
+  private Clock clock;
+
+  @InjectMocks
+  private RejectionReasonCatalog catalog;
+
+  private RejectionReasonDto reason = RejectionReasonDto.builder()
+      .id(UUID.randomUUID())
+      .name("damaged")
+      .build();
+
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(catalog, "missRefreshSeconds", 30L);
+    when(clock.instant()).thenReturn(Instant.parse("2026-10-16T10:00:00Z"));
+
+    HttpHeaders headers = new HttpHeaders();
+    headers.setETag(ETAG);
+    when(rejectionReasonService.findAll(null))
+        .thenReturn(new ServiceResponse<>(singletonList(reason), headers, true));
+  }
+
+  @Test
+  public void shouldLoadAllReasonsOnceAndServeLookupsFromMemory() {
+    // when
+    catalog.find(reason.getId());
+    RejectionReasonDto found = catalog.find(reason.getId());
+
+    // then
+    assertEquals(reason, found);
+    verify(rejectionReasonService).findAll(null);
+  }
+
+  @Test
+  public void shouldKeepReasonsWhenNotModified() {
+    // given
+    catalog.find(reason.getId());
+    when(rejectionReasonService.findAll(ETAG))
+        .thenReturn(new ServiceResponse<>(null, new HttpHeaders(), false));
+
+    // when
+    catalog.scheduledRefresh();
+
+    // then
+    assertEquals(reason, catalog.find(reason.getId()));
+    verify(rejectionReasonService).findAll(ETAG);
+  }
+
+  @Test
+  public void shouldNotRefreshOnEveryMissOfUnknownReason() {
+    // given
+    catalog.find(reason.getId());
+
+    // when
+    RejectionReasonDto found = catalog.find(UUID.randomUUID());
+
+    // then
+    assertNull(found);
+    verify(rejectionReasonService, times(1)).findAll(any());
+  }
+
+  @Test
+  public void shouldRefreshOnMissAfterInterval() {
+    // given
+    catalog.find(reason.getId());
+    when(clock.instant()).thenReturn(Instant.parse("2026-10-16T10:01:00Z"));
+    when(rejectionReasonService.findAll(ETAG))
+        .thenReturn(new ServiceResponse<>(null, new HttpHeaders(), false));
+
+    // when
+    catalog.find(UUID.randomUUID());
+
+    // then
+    verify(rejectionReasonService).findAll(ETAG);
+  }
+
+  @Test
+  public void shouldKeepReasonsAndThrottleMissesWhenRefreshFails() {
+    // given
+    catalog.find(reason.getId());
+    when(clock.instant()).thenReturn(Instant.parse("2026-10-16T10:01:00Z"));
+    when(rejectionReasonService.findAll(ETAG))
+        .thenThrow(new ServiceUnavailableMessageException(
+            new Message(ERROR_SERVICE_UNAVAILABLE, "requisition")));
+
+    // when
+    RejectionReasonDto unknown = catalog.find(UUID.randomUUID());
+    catalog.find(UUID.randomUUID());
+
+    // then
+    assertNull(unknown);
+    assertEquals(reason, catalog.find(reason.getId()));
+    verify(rejectionReasonService, times(1)).findAll(ETAG);
+  }
+}
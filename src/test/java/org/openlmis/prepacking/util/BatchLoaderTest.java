@@ -0,0 +1,179 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Test;
+
+public class BatchLoaderTest {
+  private static final long TIMEOUT = 5;
+
+  private ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+  private CopyOnWriteArrayList<Set<Integer>> calls = new CopyOnWriteArrayList<>();
+
+  @After
+  public void tearDown() {
+    scheduler.shutdownNow();
+  }
+
+  @Test
+  public void shouldLoadKeysRequestedWithinWindowInOneCall() throws Exception {
+    // given
+    BatchLoader<Integer, String> loader = loader(10, 50, this::load);
+
+    // when
+    CompletableFuture<String> first = loader.load(1);
+    CompletableFuture<String> second = loader.load(2);
+    CompletableFuture<String> again = loader.load(1);
+
+    // then
+    assertSame(first, again);
+    assertEquals("1", first.get(TIMEOUT, TimeUnit.SECONDS));
+    assertEquals("2", second.get(TIMEOUT, TimeUnit.SECONDS));
+    assertEquals(1, calls.size());
+    assertEquals(ImmutableSet.of(1, 2), calls.get(0));
+  }
+
+  @Test
+  public void shouldLoadFullBatchWithoutWaitingForWindow() throws Exception {
+    // given
+    BatchLoader<Integer, String> loader = loader(2, 60_000, this::load);
+
+    // when
+    CompletableFuture<String> first = loader.load(1);
+    CompletableFuture<String> second = loader.load(2);
+    CompletableFuture<String> third = loader.load(3);
+
+    // then
+    assertTrue(first.isDone());
+    assertEquals("2", second.get());
+    assertFalse(third.isDone());
+    assertEquals(1, calls.size());
+  }
+
+  @Test
+  public void shouldCompleteMissingKeysWithNull() throws Exception {
+    // given
+    BatchLoader<Integer, String> loader = loader(10, 1, keys -> load(ImmutableSet.of(1)));
+
+    // when
+    CompletableFuture<String> missing = loader.load(2);
+
+    // then
+    assertNull(missing.get(TIMEOUT, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void shouldFailAllKeysOfBatchWithErrorOfCall() throws Exception {
+    // given
+    IllegalStateException error = new IllegalStateException("unavailable");
+    BatchLoader<Integer, String> loader = loader(10, 1, keys -> {
+      throw error;
+    });
+
+    // when
+    CompletableFuture<String> first = loader.load(1);
+    CompletableFuture<String> second = loader.load(2);
+
+    // then
+    assertFailedWith(first, error);
+    assertFailedWith(second, error);
+  }
+
+  @Test
+  public void shouldFailKeysOfBatchRejectedBySaturatedExecutor() throws Exception {
+    // given
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(1));
+    CountDownLatch release = new CountDownLatch(1);
+    try {
+      executor.execute(() -> await(release));
+      executor.execute(() -> await(release));
+      BatchLoader<Integer, String> loader =
+          new BatchLoader<>(this::load, 10, 1, scheduler, executor);
+
+      // when
+      CompletableFuture<String> rejected = loader.load(1);
+
+      // then
+      try {
+        rejected.get(TIMEOUT, TimeUnit.SECONDS);
+        throw new AssertionError("Expected the batch to be rejected");
+      } catch (ExecutionException ex) {
+        assertTrue(ex.getCause() instanceof RejectedExecutionException);
+      }
+      assertTrue(calls.isEmpty());
+
+      // the scheduler is still free to load later batches
+      CompletableFuture<String> next = new BatchLoader<Integer, String>(this::load, 10, 1,
+          scheduler, Runnable::run).load(2);
+      assertEquals("2", next.get(TIMEOUT, TimeUnit.SECONDS));
+    } finally {
+      release.countDown();
+      executor.shutdownNow();
+    }
+  }
+
+  private BatchLoader<Integer, String> loader(int maxBatchSize, long windowMillis,
+      Function<Set<Integer>, Map<Integer, String>> bulkLoad) {
+    return new BatchLoader<>(bulkLoad, maxBatchSize, windowMillis, scheduler, Runnable::run);
+  }
+
+  private void await(CountDownLatch latch) {
+    try {
+      latch.await(TIMEOUT, TimeUnit.SECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private Map<Integer, String> load(Set<Integer> keys) {
+    calls.add(ImmutableSet.copyOf(keys));
+    return keys.stream().collect(Collectors.toMap(Function.identity(), String::valueOf));
+  }
+
+  private void assertFailedWith(CompletableFuture<?> future, Exception error) throws Exception {
+    try {
+      future.get(TIMEOUT, TimeUnit.SECONDS);
+    } catch (ExecutionException ex) {
+      assertSame(error, ex.getCause());
+      return;
+    }
+    throw new AssertionError("Expected " + error);
+  }
+}
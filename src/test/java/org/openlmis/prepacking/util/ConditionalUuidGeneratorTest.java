@@ -0,0 +1,84 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Properties;
+import java.util.UUID;
+import org.hibernate.MappingException;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.type.PostgresUUIDType;
+import org.junit.Test;
+import org.openlmis.pointofdelivery.domain.event.PointOfDeliveryEvent;
+
+public class ConditionalUuidGeneratorTest {
+
+  private ConditionalUuidGenerator generator = new ConditionalUuidGenerator();
+
+  @Test
+  public void shouldGenerateTimeOrderedIdsByDefault() {
+    // given
+    configure(new StandardServiceRegistryBuilder().build());
+
+    // when
+    UUID id = (UUID) generator.generate(null, new PointOfDeliveryEvent());
+
+    // then
+    assertEquals(7, id.version());
+  }
+
+  @Test
+  public void shouldGenerateRandomIdsWhenConfigured() {
+    // given
+    configure(new StandardServiceRegistryBuilder()
+        .applySetting(ConditionalUuidGenerator.STRATEGY_SETTING, ConditionalUuidGenerator.RANDOM)
+        .build());
+
+    // when
+    UUID id = (UUID) generator.generate(null, new PointOfDeliveryEvent());
+
+    // then
+    assertEquals(4, id.version());
+  }
+
+  @Test
+  public void shouldKeepIdSetBeforeSaving() {
+    // given
+    configure(new StandardServiceRegistryBuilder().build());
+    PointOfDeliveryEvent event = new PointOfDeliveryEvent();
+    event.setId(UUID.randomUUID());
+
+    // when
+    UUID id = (UUID) generator.generate(null, event);
+
+    // then
+    assertEquals(event.getId(), id);
+  }
+
+  @Test(expected = MappingException.class)
+  public void shouldRejectUnknownStrategy() {
+    // when
+    configure(new StandardServiceRegistryBuilder()
+        .applySetting(ConditionalUuidGenerator.STRATEGY_SETTING, "sequential")
+        .build());
+  }
+
+  private void configure(StandardServiceRegistry serviceRegistry) {
+    generator.configure(PostgresUUIDType.INSTANCE, new Properties(), serviceRegistry);
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.openlmis.pointofdelivery.exception.ValidationMessageException;
+
+public class KeysetCursorTest {
+
+  @Rule
+  public ExpectedException exception = ExpectedException.none();
+
+  @Test
+  public void shouldDecodeEncodedCursor() {
+    // given
+    ZonedDateTime timestamp = ZonedDateTime.parse("2024-03-01T10:15:30.123456+02:00");
+    UUID id = UUID.randomUUID();
+
+    // when
+    KeysetCursor decoded = KeysetCursor.decode(new KeysetCursor(timestamp, id).encode());
+
+    // then
+    assertEquals(timestamp.toInstant(), decoded.getTimestamp().toInstant());
+    assertEquals(id, decoded.getId());
+  }
+
+  @Test
+  public void shouldCompareIdsAsUnsignedLikeDatabase() {
+    // given
+    ZonedDateTime timestamp = ZonedDateTime.parse("2024-03-01T10:15:30Z");
+    KeysetCursor low = new KeysetCursor(timestamp,
+        UUID.fromString("10000000-0000-0000-0000-000000000000"));
+    KeysetCursor high = new KeysetCursor(timestamp,
+        UUID.fromString("f0000000-0000-0000-0000-000000000000"));
+
+    // then
+    assertTrue(low.compareTo(high) < 0);
+    assertTrue(high.compareTo(low) > 0);
+  }
+
+  @Test
+  public void shouldThrowExceptionIfCursorIsNotValid() {
+    // then
+    exception.expect(ValidationMessageException.class);
+
+    // when
+    KeysetCursor.decode("not-a-cursor");
+  }
+}
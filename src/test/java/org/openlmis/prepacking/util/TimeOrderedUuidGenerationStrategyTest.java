@@ -0,0 +1,67 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.pointofdelivery.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.UUID;
+import org.junit.Test;
+
+public class TimeOrderedUuidGenerationStrategyTest {
+
+  private TimeOrderedUuidGenerationStrategy strategy = new TimeOrderedUuidGenerationStrategy();
+
+  @Test
+  public void shouldGenerateVersion7Uuids() {
+    // when
+    UUID uuid = strategy.generate();
+
+    // then
+    assertEquals(7, uuid.version());
+    assertEquals(2, uuid.variant());
+  }
+
+  @Test
+  public void shouldGenerateIncreasingUuids() {
+    // given
+    UUID previous = strategy.generate();
+
+    for (int i = 0; i < 10000; i++) {
+      // when
+      UUID next = strategy.generate();
+
+      // then
+      assertTrue(Long.compareUnsigned(
+          previous.getMostSignificantBits(), next.getMostSignificantBits()) < 0);
+      previous = next;
+    }
+  }
+
+  @Test
+  public void shouldStartWithCurrentTime() {
+    // given
+    long before = System.currentTimeMillis();
+
+    // when
+    UUID uuid = strategy.generate();
+
+    // then
+    long millis = uuid.getMostSignificantBits() >>> 16;
+    assertTrue(millis >= before);
+    assertTrue(millis <= System.currentTimeMillis() + 1);
+  }
+}